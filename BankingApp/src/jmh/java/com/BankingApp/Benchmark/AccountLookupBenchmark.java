@@ -0,0 +1,107 @@
+package com.BankingApp.Benchmark;
+
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Service.AccountService;
+import com.BankingApp.Service.CustomerService;
+import com.BankingApp.Util.HibernateUtil;
+
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup latency by account number and PAN: the HQL query every service method
+ * used to build ("hql" benchmarks) against the natural-id loads the services use
+ * now, which resolve from the natural-id and entity caches once warm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountLookupBenchmark {
+    private static final int ACCOUNTS = 1000;
+
+    private final AccountService accountService = new AccountService();
+    private final CustomerService customerService = new CustomerService();
+    private String[] accountNumbers;
+    private String panNumber;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.useDatabase();
+        List<Account> created = BenchmarkData.createAccounts(ACCOUNTS, BigDecimal.ZERO);
+        accountNumbers = new String[created.size()];
+        for (int i = 0; i < accountNumbers.length; i++) {
+            accountNumbers[i] = created.get(i).getAccountNumber();
+        }
+        long id = BenchmarkData.nextId();
+        panNumber = customerService.createCustomer("Lookup", "Bench", "lookup" + id + "@bench.com",
+                BenchmarkData.panFor(id), BenchmarkData.aadharFor(id), "9876543210", "Lookup Street").getPanNumber();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    private String pick(ThreadState state) {
+        return accountNumbers[state.random.nextInt(accountNumbers.length)];
+    }
+
+    @Benchmark
+    public Account hqlAccountLookup(ThreadState state) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            return session.createQuery("FROM Account WHERE accountNumber = :accountNumber", Account.class)
+                    .setParameter("accountNumber", pick(state))
+                    .uniqueResult();
+        } finally {
+            session.close();
+        }
+    }
+
+    @Benchmark
+    public Account naturalIdAccountLookup(ThreadState state) {
+        return accountService.getAccountByNumber(pick(state));
+    }
+
+    @Benchmark
+    public Customer hqlCustomerLookup() {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            return session.createQuery("FROM Customer WHERE panNumber = :panNumber", Customer.class)
+                    .setParameter("panNumber", panNumber)
+                    .uniqueResult();
+        } finally {
+            session.close();
+        }
+    }
+
+    @Benchmark
+    public Customer naturalIdCustomerLookup() {
+        return customerService.getCustomerByPan(panNumber);
+    }
+}
@@ -0,0 +1,147 @@
+package com.BankingApp.Benchmark;
+
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Transactions;
+import com.BankingApp.Service.AccountService;
+import com.BankingApp.Service.TransactionPage;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * AccountService hot paths against the benchmark database. accounts controls how
+ * many rows postings are spread over (fewer = more row contention when run with
+ * several threads); historySize is the number of rows behind getTransactionHistory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountServiceBenchmark {
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({ "10", "1000" })
+    public int accounts;
+
+    @Param({ "100", "10000" })
+    public int historySize;
+
+    private final AccountService accountService = new AccountService();
+    private String[] accountNumbers;
+    private String historyAccountNumber;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.useDatabase();
+        List<Account> created = BenchmarkData.createAccounts(accounts, OPENING_BALANCE);
+        accountNumbers = new String[created.size()];
+        for (int i = 0; i < accountNumbers.length; i++) {
+            accountNumbers[i] = created.get(i).getAccountNumber();
+        }
+
+        // A separate account so postings made by the other benchmarks don't grow its history
+        Account historyAccount = BenchmarkData.createAccounts(1, BigDecimal.ZERO).get(0);
+        historyAccountNumber = historyAccount.getAccountNumber();
+        seedHistory(historyAccount.getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    private void seedHistory(Long accountId) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            Account account = session.get(Account.class, accountId);
+            for (int i = 0; i < historySize; i++) {
+                session.persist(new Transactions("TXNH" + BenchmarkData.nextId(), "DEPOSIT", Money.of(AMOUNT), "history",
+                        account));
+                if (i % 1000 == 999) {
+                    session.flush();
+                    session.clear();
+                    account = session.get(Account.class, accountId);
+                }
+            }
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    private String pick(ThreadState state) {
+        return accountNumbers[state.random.nextInt(accountNumbers.length)];
+    }
+
+    @Benchmark
+    public Transactions deposit(ThreadState state) {
+        return accountService.deposit(pick(state), AMOUNT, "benchmark");
+    }
+
+    @Benchmark
+    public Transactions withdraw(ThreadState state) {
+        return accountService.withdraw(pick(state), AMOUNT, "benchmark");
+    }
+
+    @Benchmark
+    public Transactions transfer(ThreadState state) {
+        String from = pick(state);
+        String to = pick(state);
+        while (to.equals(from)) {
+            to = pick(state);
+        }
+        return accountService.transfer(from, to, AMOUNT, "benchmark");
+    }
+
+    @Benchmark
+    public BigDecimal getAccountBalance(ThreadState state) {
+        return accountService.getAccountBalance(pick(state));
+    }
+
+    @Benchmark
+    public List<Transactions> getTransactionHistory() {
+        return accountService.getTransactionHistory(historyAccountNumber);
+    }
+
+    @Benchmark
+    public TransactionPage getTransactionHistoryFirstPage() {
+        return accountService.getTransactionHistoryPage(historyAccountNumber, null, 20);
+    }
+
+    @Benchmark
+    public long streamTransactionHistory() {
+        try (Stream<Transactions> stream = accountService.streamTransactionHistory(historyAccountNumber)) {
+            return stream.count();
+        }
+    }
+}
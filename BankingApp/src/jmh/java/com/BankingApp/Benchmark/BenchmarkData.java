@@ -0,0 +1,86 @@
+package com.BankingApp.Benchmark;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeds the benchmark database. Benchmarks run against an embedded H2 database
+ * unless banking.datasource.* system properties point somewhere else.
+ */
+public class BenchmarkData {
+    private static final AtomicLong SEQUENCE = new AtomicLong(System.currentTimeMillis() % 1000000);
+
+    public static void useDatabase() {
+        EmbeddedDatabase.use("bench");
+    }
+
+    public static long nextId() {
+        return SEQUENCE.incrementAndGet();
+    }
+
+    /** Creates one customer owning {@code count} accounts, each opened with {@code openingBalance}. */
+    public static List<Account> createAccounts(int count, BigDecimal openingBalance) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            long id = nextId();
+            Customer customer = new Customer("Bench", "Mark", "bench" + id + "@bench.com", panFor(id),
+                    aadharFor(id));
+            session.persist(customer);
+
+            List<Account> accounts = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Account account = new Account("ACCB" + nextId(), "SAVINGS", customer);
+                account.deposit(Money.of(openingBalance));
+                session.persist(account);
+                accounts.add(account);
+            }
+            transaction.commit();
+            return accounts;
+        } finally {
+            session.close();
+        }
+    }
+
+    /** Creates {@code count} customers without accounts in one transaction. */
+    public static void createCustomers(int count) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            for (int i = 0; i < count; i++) {
+                long id = nextId();
+                session.persist(new Customer("Bench", "Mark", "bench" + id + "@bench.com", panFor(id), aadharFor(id)));
+            }
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    /** A PAN that passes format validation and is unique per id: 5 letters, 4 digits, 1 letter. */
+    public static String panFor(long id) {
+        StringBuilder letters = new StringBuilder();
+        long value = id / 10000;
+        for (int i = 0; i < 5; i++) {
+            letters.append((char) ('A' + value % 26));
+            value /= 26;
+        }
+        return letters + String.format("%04d", id % 10000) + "Z";
+    }
+
+    /** A 12-digit Aadhar number starting with 2-9, unique per id. */
+    public static String aadharFor(long id) {
+        return "9" + String.format("%011d", id % 100000000000L);
+    }
+}
@@ -0,0 +1,45 @@
+package com.BankingApp.Benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the benchmarks matching jmh.includes once per thread count in
+ * jmh.threads (default "1,4,16") and writes one JSON result file per thread
+ * count to target/jmh/, e.g. target/jmh/threads-4.json. Keep those files from
+ * each release to compare against the next one. jmh.profilers adds JMH
+ * profilers by name, e.g. "gc" for allocation rates.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.includes=AccountService -Djmh.threads=1,8
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.includes=Money -Djmh.threads=1 -Djmh.profilers=gc
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String includes = System.getProperty("jmh.includes", ".*");
+        String threads = System.getProperty("jmh.threads", "1,4,16");
+        String outputDir = System.getProperty("jmh.output", "target/jmh");
+        String profilers = System.getProperty("jmh.profilers", "");
+        new File(outputDir).mkdirs();
+
+        for (String value : threads.split(",")) {
+            int threadCount = Integer.parseInt(value.trim());
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(includes)
+                    .threads(threadCount)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(outputDir + "/threads-" + threadCount + ".json");
+            for (String profiler : profilers.split(",")) {
+                if (!profiler.trim().isEmpty()) {
+                    options.addProfiler(profiler.trim());
+                }
+            }
+            new Runner(options.build()).run();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.BankingApp.Benchmark;
+
+import com.BankingApp.Service.CustomerImport;
+import com.BankingApp.Service.CustomerImportReport;
+import com.BankingApp.Util.HibernateUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per row for a CustomerImport of a fresh ROWS-line file of new
+ * customers, with and without opening an account for each. Multiply by a
+ * million for a full payroll onboarding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CustomerImportBenchmark {
+    private static final int ROWS = 50000;
+
+    @Param({ "", "SAVINGS" })
+    public String accountType;
+
+    @Param({ "1000" })
+    public int chunkSize;
+
+    private Path directory;
+    private Path csv;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkData.useDatabase();
+        System.setProperty("banking.import.chunk_size", String.valueOf(chunkSize));
+        directory = Files.createTempDirectory("customer-import-bench");
+        csv = directory.resolve("customers.csv");
+    }
+
+    @Setup(Level.Invocation)
+    public void writeFile() throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("first_name,last_name,email,pan_number,aadhar_number,phone,address");
+            writer.newLine();
+            for (int i = 0; i < ROWS; i++) {
+                long id = BenchmarkData.nextId();
+                writer.write("Bench,Import,import" + id + "@bench.com," + BenchmarkData.panFor(id) + ","
+                        + BenchmarkData.aadharFor(id) + ",9876543210,\"Payroll Street, Block " + i % 100 + "\"");
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        HibernateUtil.shutdown();
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(directory.resolve("rejects.csv"));
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public CustomerImportReport importFile() {
+        CustomerImportReport report = new CustomerImport().run(csv, directory.resolve("rejects.csv"), accountType,
+                null);
+        if (report.getCustomersImported() != ROWS) {
+            throw new IllegalStateException("Rows rejected: " + report);
+        }
+        return report;
+    }
+}
@@ -0,0 +1,59 @@
+package com.BankingApp.Benchmark;
+
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Service.CustomerService;
+import com.BankingApp.Util.HibernateUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CustomerService.createCustomer, including its PAN/Aadhar existence checks,
+ * with existingCustomers rows already in the table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerServiceBenchmark {
+
+    @Param({ "0", "10000" })
+    public int existingCustomers;
+
+    private final CustomerService customerService = new CustomerService();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.useDatabase();
+        for (int i = 0; i < existingCustomers; i += 1000) {
+            BenchmarkData.createCustomers(Math.min(1000, existingCustomers - i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public Customer createCustomer() {
+        long id = BenchmarkData.nextId();
+        return customerService.createCustomer("Bench", "Customer", "customer" + id + "@bench.com",
+                BenchmarkData.panFor(id), BenchmarkData.aadharFor(id), "9876543210", "Benchmark Street");
+    }
+}
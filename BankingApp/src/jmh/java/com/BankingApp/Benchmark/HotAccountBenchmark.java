@@ -0,0 +1,64 @@
+package com.BankingApp.Benchmark;
+
+import com.BankingApp.Entities.Transactions;
+import com.BankingApp.Service.AccountService;
+import com.BankingApp.Service.SubBalanceManager;
+import com.BankingApp.Util.HibernateUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposits per second into a single account, as a merchant or payroll account
+ * receives them. slots=0 is an ordinary account (every deposit locks the same
+ * accounts row); otherwise the account is split into that many sub-balances.
+ * Run with several threads to see the difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotAccountBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({ "0", "16" })
+    public int slots;
+
+    private final AccountService accountService = new AccountService();
+    private String accountNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.useDatabase();
+        accountNumber = BenchmarkData.createAccounts(1, BigDecimal.ZERO).get(0).getAccountNumber();
+        if (slots > 0) {
+            new SubBalanceManager().enable(accountNumber, slots);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public Transactions deposit() {
+        return accountService.deposit(accountNumber, AMOUNT, "benchmark");
+    }
+}
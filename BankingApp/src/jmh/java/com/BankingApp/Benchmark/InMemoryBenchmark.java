@@ -0,0 +1,74 @@
+package com.BankingApp.Benchmark;
+
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Service.CustomerService;
+import com.BankingApp.Util.Money;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parts of the hot paths that never touch the database: balance arithmetic on
+ * Account and the PAN/Aadhar format checks done before every createCustomer.
+ * Each benchmark thread gets its own Account, so this measures the arithmetic,
+ * not contention.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryBenchmark {
+    private static final Money AMOUNT = Money.of(new BigDecimal("10.50"));
+
+    private final Account account = new Account("ACCBENCH", "SAVINGS", null);
+    private final Account emptyAccount = new Account("ACCEMPTY", "SAVINGS", null);
+    private final String validPan = "ABCDE1234F";
+    private final String invalidPan = "ABCD12345F";
+    private final String validAadhar = "234567890123";
+    private final String invalidAadhar = "123456789012";
+
+    @Benchmark
+    public Money depositThenWithdraw() {
+        account.deposit(AMOUNT);
+        account.withdraw(AMOUNT);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public boolean withdrawRejected() {
+        // emptyAccount is never credited, so this is the insufficient-funds path
+        return emptyAccount.withdraw(AMOUNT);
+    }
+
+    @Benchmark
+    public boolean validPan() {
+        return CustomerService.isValidPan(validPan);
+    }
+
+    @Benchmark
+    public boolean invalidPan() {
+        return CustomerService.isValidPan(invalidPan);
+    }
+
+    @Benchmark
+    public boolean validAadhar() {
+        return CustomerService.isValidAadhar(validAadhar);
+    }
+
+    @Benchmark
+    public boolean invalidAadhar() {
+        return CustomerService.isValidAadhar(invalidAadhar);
+    }
+}
@@ -0,0 +1,70 @@
+package com.BankingApp.Benchmark;
+
+import com.BankingApp.Service.InterestAccrualEngine;
+import com.BankingApp.Util.HibernateUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per SAVINGS account for a full InterestAccrualEngine run. Every
+ * invocation accrues a different day, so no partition is skipped as done.
+ * Multiply by the account count for the length of the nightly run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InterestAccrualBenchmark {
+    private static final int ACCOUNTS = 20000;
+
+    @Param({ "1", "4" })
+    public int threads;
+
+    @Param({ "50", "500" })
+    public int batchSize;
+
+    private InterestAccrualEngine engine;
+    private int daysBack;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.useDatabase();
+        System.setProperty("banking.interest.threads", String.valueOf(threads));
+        System.setProperty("banking.interest.batch_size", String.valueOf(batchSize));
+        System.setProperty("banking.interest.partition_accounts", "2000");
+        for (int i = 0; i < ACCOUNTS; i += 1000) {
+            BenchmarkData.createAccounts(1000, new BigDecimal("100000.00"));
+        }
+        engine = new InterestAccrualEngine();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCOUNTS)
+    public Object accrue() {
+        return engine.accrue(LocalDate.now().minusDays(++daysBack));
+    }
+}
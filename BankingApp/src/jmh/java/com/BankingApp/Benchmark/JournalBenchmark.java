@@ -0,0 +1,66 @@
+package com.BankingApp.Benchmark;
+
+import com.BankingApp.Journal.JournalEntry;
+import com.BankingApp.Journal.TransactionJournal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acknowledged journal appends: one thread pays a full force per entry, while
+ * with all cores appending the entries queued during one force share the next.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalBenchmark {
+    private TransactionJournal journal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        journal = new TransactionJournal(Files.createTempDirectory("journal-bench"), 262144);
+        journal.open();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        journal.close();
+    }
+
+    private Long append() {
+        long id = BenchmarkData.nextId();
+        return journal.append(Collections.singletonList(new JournalEntry(0, JournalEntry.Kind.DEPOSIT,
+                LocalDateTime.now(), id, 1, "TXN" + id, "ACCBENCH", null, 100, id))).join();
+    }
+
+    @Benchmark
+    public Long appendAcknowledged() {
+        return append();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Long appendAcknowledgedContended() {
+        return append();
+    }
+}
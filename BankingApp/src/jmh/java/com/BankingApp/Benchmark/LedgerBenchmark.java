@@ -0,0 +1,96 @@
+package com.BankingApp.Benchmark;
+
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Transactions;
+import com.BankingApp.Ledger.LedgerEngine;
+import com.BankingApp.Util.HibernateUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposit throughput through the in-memory ledger. "acknowledged" waits for each
+ * posting's group fsync like AccountService does, so one thread is bounded by the
+ * fsync latency; "pipelined" keeps PIPELINE postings in flight per thread and
+ * shows what one node sustains once those fsyncs are shared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LedgerBenchmark {
+    private static final int ACCOUNTS = 1000;
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+    private static final int PIPELINE = 64;
+
+    private LedgerEngine ledger;
+    private String[] accountNumbers;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkData.useDatabase();
+        List<Account> created = BenchmarkData.createAccounts(ACCOUNTS, BigDecimal.ZERO);
+        accountNumbers = new String[created.size()];
+        for (int i = 0; i < accountNumbers.length; i++) {
+            accountNumbers[i] = created.get(i).getAccountNumber();
+        }
+        System.setProperty("banking.ledger.dir", Files.createTempDirectory("ledger-bench").toString());
+        ledger = LedgerEngine.getInstance();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        LedgerEngine.shutdownIfRunning();
+        HibernateUtil.shutdown();
+    }
+
+    private String pick(ThreadState state) {
+        return accountNumbers[state.random.nextInt(accountNumbers.length)];
+    }
+
+    @Benchmark
+    public Transactions acknowledged(ThreadState state) {
+        return ledger.deposit(pick(state), AMOUNT, "Benchmark deposit");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE)
+    public Transactions pipelined(ThreadState state) {
+        List<CompletableFuture<Transactions>> postings = new ArrayList<>(PIPELINE);
+        for (int i = 0; i < PIPELINE; i++) {
+            postings.add(ledger.submitDeposit(pick(state), AMOUNT, "Benchmark deposit"));
+        }
+        Transactions last = null;
+        for (CompletableFuture<Transactions> posting : postings) {
+            last = LedgerEngine.await(posting);
+        }
+        return last;
+    }
+}
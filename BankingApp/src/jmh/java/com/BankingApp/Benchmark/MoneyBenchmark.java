@@ -0,0 +1,65 @@
+package com.BankingApp.Benchmark;
+
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Util.Money;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One posting's balance arithmetic (positive check, sufficient-funds check,
+ * add or subtract) on BigDecimal, as Account did before, against Money. Run
+ * with -Djmh.profilers=gc for the allocation rate (gc.alloc.rate.norm is
+ * bytes per operation).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+    private static final BigDecimal DECIMAL_AMOUNT = new BigDecimal("10.50");
+    private static final Money MONEY_AMOUNT = Money.of(DECIMAL_AMOUNT);
+
+    private BigDecimal decimalBalance = new BigDecimal("1000.00");
+    private final Account account = new Account("ACCBENCH", "SAVINGS", null);
+
+    public MoneyBenchmark() {
+        account.deposit(Money.of(new BigDecimal("1000.00")));
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalDepositThenWithdraw() {
+        if (DECIMAL_AMOUNT.compareTo(BigDecimal.ZERO) > 0) {
+            decimalBalance = decimalBalance.add(DECIMAL_AMOUNT);
+        }
+        if (DECIMAL_AMOUNT.compareTo(BigDecimal.ZERO) > 0 && decimalBalance.compareTo(DECIMAL_AMOUNT) >= 0) {
+            decimalBalance = decimalBalance.subtract(DECIMAL_AMOUNT);
+        }
+        return decimalBalance;
+    }
+
+    @Benchmark
+    public Money moneyDepositThenWithdraw() {
+        account.deposit(MONEY_AMOUNT);
+        account.withdraw(MONEY_AMOUNT);
+        return account.getBalance();
+    }
+
+    // What AccountService does once per posting at the console edge
+    @Benchmark
+    public Money convertFromBigDecimal() {
+        return Money.of(DECIMAL_AMOUNT);
+    }
+}
@@ -0,0 +1,95 @@
+package com.BankingApp.Benchmark;
+
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Service.AccountService;
+import com.BankingApp.Service.ServiceExecutor;
+import com.BankingApp.Util.HibernateUtil;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deposits per second when {@code clients} callers each submit one deposit to
+ * ServiceExecutor at the same moment and wait for it, spread over 1000
+ * accounts. Run under Java 21 to measure virtual threads; older JVMs fall
+ * back to a fixed pool. The postings counter is the throughput; the
+ * benchmark's own score counts whole waves of clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class ServiceLoadBenchmark {
+    private static final int ACCOUNTS = 1000;
+
+    @Param({ "1000", "10000", "50000" })
+    public int clients;
+
+    private final AccountService accountService = new AccountService();
+    private List<String> accountNumbers;
+    private ServiceExecutor executor;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Postings {
+        public long postings;
+        public long failures;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.useDatabase();
+        // Every client is expected to finish; a timeout here would hide queueing
+        System.setProperty("banking.executor.call_timeout_ms", "600000");
+        accountNumbers = new ArrayList<>();
+        for (Account account : BenchmarkData.createAccounts(ACCOUNTS, new BigDecimal("1000.00"))) {
+            accountNumbers.add(account.getAccountNumber());
+        }
+        executor = new ServiceExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("virtual threads: " + executor.usesVirtualThreads());
+        executor.close();
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public void deposits(Postings counters) {
+        List<CompletableFuture<Object>> calls = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            String accountNumber = accountNumbers.get(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+            calls.add(executor.submit(() -> accountService.deposit(accountNumber, BigDecimal.ONE, "load")));
+        }
+        for (CompletableFuture<Object> call : calls) {
+            try {
+                call.join();
+                counters.postings++;
+            } catch (RuntimeException e) {
+                counters.failures++;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.BankingApp.Benchmark;
+
+import com.BankingApp.Service.AccountService;
+import com.BankingApp.Service.StatementExporter;
+import com.BankingApp.Util.HibernateUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per statement row when exporting one busy account, with the bytes
+ * thrown away so only the read and formatting are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StatementExportBenchmark {
+    private static final int ROWS = 5000;
+
+    @Param({ "100", "1000" })
+    public int fetchSize;
+
+    @Param({ "CSV", "JSON" })
+    public String format;
+
+    private StatementExporter exporter;
+    private String accountNumber;
+    private LocalDate today;
+
+    private final WritableByteChannel discard = new WritableByteChannel() {
+        @Override
+        public int write(ByteBuffer src) {
+            int written = src.remaining();
+            src.position(src.limit());
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.useDatabase();
+        System.setProperty("banking.statements.fetch_size", String.valueOf(fetchSize));
+        accountNumber = BenchmarkData.createAccounts(1, new BigDecimal("0.00")).get(0).getAccountNumber();
+        AccountService accountService = new AccountService();
+        for (int i = 0; i < ROWS; i++) {
+            accountService.deposit(accountNumber, new BigDecimal("10.00"), "Deposit " + i);
+        }
+        exporter = new StatementExporter();
+        today = LocalDate.now();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object export() {
+        return exporter.export(accountNumber, today.minusDays(1), today, StatementExporter.Format.valueOf(format),
+                discard);
+    }
+}
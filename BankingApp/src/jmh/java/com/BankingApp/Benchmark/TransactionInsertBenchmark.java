@@ -0,0 +1,69 @@
+package com.BankingApp.Benchmark;
+
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Transactions;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts per second for Transactions rows persisted in one database transaction.
+ * jdbcBatchSize=1 sends one INSERT per row, which is what the old IDENTITY ids
+ * forced; 50 is the configured hibernate.jdbc.batch_size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionInsertBenchmark {
+    private static final int ROWS_PER_TRANSACTION = 200;
+
+    @Param({ "1", "50" })
+    public int jdbcBatchSize;
+
+    private Long accountId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.useDatabase();
+        accountId = BenchmarkData.createAccounts(1, BigDecimal.ZERO).get(0).getId();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_TRANSACTION)
+    public void insertTransactions() {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        session.setJdbcBatchSize(jdbcBatchSize);
+        Transaction transaction = session.beginTransaction();
+        try {
+            Account account = session.get(Account.class, accountId);
+            for (int i = 0; i < ROWS_PER_TRANSACTION; i++) {
+                session.persist(new Transactions("TXNB" + BenchmarkData.nextId(), "DEPOSIT", Money.of(BigDecimal.ONE),
+                        "benchmark", account));
+            }
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+}
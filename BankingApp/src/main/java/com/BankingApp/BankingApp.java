@@ -1,19 +1,48 @@
 package com.BankingApp;
 
 import com.BankingApp.Entities.*;
+import com.BankingApp.Journal.TransactionJournal;
+import com.BankingApp.Ledger.LedgerEngine;
+import com.BankingApp.Service.AccountLockManager;
 import com.BankingApp.Service.AccountService;
+import com.BankingApp.Service.CustomerAccountSummary;
+import com.BankingApp.Service.CustomerImport;
+import com.BankingApp.Service.CustomerImportReport;
+import com.BankingApp.Service.CustomerSummaryPage;
 import com.BankingApp.Service.CustomerService;
+import com.BankingApp.Service.MetricsExporter;
+import com.BankingApp.Service.OperationMetrics;
+import com.BankingApp.Service.PeriodSummary;
+import com.BankingApp.Service.RetryMetrics;
+import com.BankingApp.Service.StatementExporter;
+import com.BankingApp.Service.SubBalanceRebalancer;
+import com.BankingApp.Service.TransactionPage;
+import com.BankingApp.Util.AppConfig;
+import com.BankingApp.Util.ConnectionPool;
 import com.BankingApp.Util.HibernateUtil;
 import com.BankingApp.Util.DatabaseInitializer;
+import com.BankingApp.Util.LatencyHistogram;
+import com.BankingApp.Util.SessionMonitor;
+import com.BankingApp.Util.SlowQueryLog;
+
+import org.hibernate.stat.Statistics;
 
 import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 public class BankingApp {
     private static final Scanner scanner = new Scanner(System.in);
     private static final CustomerService customerService = new CustomerService();
     private static final AccountService accountService = new AccountService();
+    private static final int HISTORY_PAGE_SIZE = AppConfig.getInt("banking.history.page_size", 20);
+    private static final int CUSTOMER_PAGE_SIZE = AppConfig.getInt("banking.customers.page_size", 20);
 
     public static void main(String[] args) {
         System.out.println("=== Banking Transaction Management System ===");
@@ -50,8 +79,21 @@ public class BankingApp {
                 case 8:
                     listAllCustomers();
                     break;
+                case 9:
+                    importCustomers();
+                    break;
+                case 10:
+                    exportStatement();
+                    break;
+                case 11:
+                    viewMetrics();
+                    break;
                 case 0:
                     System.out.println("Thank you for using Banking System. Goodbye!");
+                    MetricsExporter.shutdownIfRunning();
+                    SubBalanceRebalancer.shutdownIfRunning();
+                    LedgerEngine.shutdownIfRunning();
+                    TransactionJournal.shutdownIfRunning();
                     HibernateUtil.shutdown();
                     return;
                 default:
@@ -68,6 +110,12 @@ public class BankingApp {
             // Create sample data
             DatabaseInitializer.createSampleData();
             
+            // Folds split accounts' sub-balances back into their accounts rows
+            SubBalanceRebalancer.startIfEnabled();
+            
+            // Prometheus endpoint, when banking.metrics.http_port is set
+            MetricsExporter.startIfEnabled();
+            
             System.out.println("✅ System initialization completed successfully!");
             
         } catch (Exception e) {
@@ -90,6 +138,9 @@ public class BankingApp {
         System.out.println("6. View Transaction History");
         System.out.println("7. View Account Balance");
         System.out.println("8. List All Customers");
+        System.out.println("9. Import Customers from CSV");
+        System.out.println("10. Export Account Statement");
+        System.out.println("11. View Metrics");
         System.out.println("0. Exit");
         System.out.println("=====================");
     }
@@ -233,17 +284,20 @@ public class BankingApp {
         String accountNumber = scanner.nextLine();
 
         try {
-            List<Transactions> transactions = accountService.getTransactionHistory(accountNumber);
+            TransactionPage page = accountService.getTransactionHistoryPage(accountNumber, null, HISTORY_PAGE_SIZE);
 
-            if (transactions.isEmpty()) {
+            if (page.isEmpty()) {
                 System.out.println("No transactions found for account: " + accountNumber);
-            } else {
-                System.out.println("\nTransaction History for Account: " + accountNumber);
-                System.out.println("==================================================================================");
-                System.out.printf("%-20s %-12s %-12s %-25s %-15s\n", "Date", "Type", "Amount", "Description", "Balance");
-                System.out.println("==================================================================================");
+                return;
+            }
 
-                for (Transactions t : transactions) {
+            System.out.println("\nTransaction History for Account: " + accountNumber);
+            System.out.println("==================================================================================");
+            System.out.printf("%-20s %-12s %-12s %-25s %-15s\n", "Date", "Type", "Amount", "Description", "Balance");
+            System.out.println("==================================================================================");
+
+            while (true) {
+                for (Transactions t : page.getTransactions()) {
                     System.out.printf("%-20s %-12s %-12s %-25s %-15s\n", 
                         t.getTransactionDate().toLocalDate(),
                         t.getType(), 
@@ -252,6 +306,15 @@ public class BankingApp {
                             t.getDescription().substring(0, 22) + "..." : t.getDescription(),
                         t.getBalanceAfterTransaction());
                 }
+
+                if (!page.hasNext()) {
+                    break;
+                }
+                System.out.print("-- Press Enter for more, or Q to stop: ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                    break;
+                }
+                page = accountService.getTransactionHistoryPage(accountNumber, page.getNextCursor(), HISTORY_PAGE_SIZE);
             }
         } catch (Exception e) {
             System.out.println("❌ Error retrieving transaction history: " + e.getMessage());
@@ -276,35 +339,213 @@ public class BankingApp {
         System.out.println("\n----- All Customers -----");
 
         try {
-            List<Customer> customers = customerService.getAllCustomers();
+            CustomerSummaryPage page = customerService.getCustomerSummaries(null, CUSTOMER_PAGE_SIZE);
 
-            if (customers.isEmpty()) {
+            if (page.isEmpty()) {
                 System.out.println("No customers found.");
-            } else {
-                for (Customer customer : customers) {
-                    System.out.println("\n📋 Customer: " + customer.getFirstName() + " " + customer.getLastName());
-                    System.out.println("   ID: " + customer.getId());
-                    System.out.println("   PAN: " + customer.getPanNumber());
-                    System.out.println("   Email: " + customer.getEmail());
-                    System.out.println("   Accounts:");
-
-                    if (customer.getAccounts().isEmpty()) {
+                return;
+            }
+
+            while (true) {
+                Long currentCustomer = null;
+                for (CustomerAccountSummary row : page.getRows()) {
+                    if (!row.getCustomerId().equals(currentCustomer)) {
+                        if (currentCustomer != null) {
+                            System.out.println("---");
+                        }
+                        currentCustomer = row.getCustomerId();
+                        System.out.println("\n📋 Customer: " + row.getFirstName() + " " + row.getLastName());
+                        System.out.println("   ID: " + row.getCustomerId());
+                        System.out.println("   PAN: " + row.getPanNumber());
+                        System.out.println("   Email: " + row.getEmail());
+                        System.out.println("   Accounts:");
+                    }
+
+                    if (!row.hasAccount()) {
                         System.out.println("     No accounts");
                     } else {
-                        for (Account account : customer.getAccounts()) {
-                            System.out.println("     💳 " + account.getAccountNumber() + 
-                                             " (" + account.getAccountType() + ") - Balance: " + 
-                                             account.getBalance());
-                        }
+                        System.out.println("     💳 " + row.getAccountNumber() + 
+                                         " (" + row.getAccountType() + ") - Balance: " + 
+                                         row.getBalance());
                     }
-                    System.out.println("---");
                 }
+                System.out.println("---");
+
+                if (!page.hasNext()) {
+                    break;
+                }
+                System.out.print("-- Press Enter for more, or Q to stop: ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                    break;
+                }
+                page = customerService.getCustomerSummaries(page.getNextCursor(), CUSTOMER_PAGE_SIZE);
             }
         } catch (Exception e) {
             System.out.println("❌ Error retrieving customers: " + e.getMessage());
         }
     }
 
+    private static void importCustomers() {
+        System.out.println("\n----- Import Customers from CSV -----");
+
+        System.out.print("CSV File: ");
+        String csvFile = scanner.nextLine().trim();
+
+        System.out.print("Rejects File [" + csvFile + ".rejects.csv]: ");
+        String rejectsFile = scanner.nextLine().trim();
+        if (rejectsFile.isEmpty()) {
+            rejectsFile = csvFile + ".rejects.csv";
+        }
+
+        System.out.print("Open an account for each customer (SAVINGS/CURRENT/SALARY, blank for none): ");
+        String accountType = scanner.nextLine();
+
+        try {
+            CustomerImportReport report = new CustomerImport().run(Paths.get(csvFile), Paths.get(rejectsFile),
+                    accountType, progress -> System.out.printf("   ... %d rows, %d imported, %d rejected, "
+                            + "%.0f rows/s\n", progress.getRowsProcessed(), progress.getCustomersImported(),
+                            progress.getRowsRejected(), progress.getRowsPerSecond()));
+            System.out.println("✅ Import completed!");
+            System.out.println("   Customers imported: " + report.getCustomersImported());
+            System.out.println("   Accounts opened: " + report.getAccountsOpened());
+            System.out.println("   Rows rejected: " + report.getRowsRejected()
+                    + (report.getRowsRejected() > 0 ? " (see " + rejectsFile + ")" : ""));
+            System.out.printf("   Time: %.1f s (%.0f rows/s)\n", report.getElapsedMillis() / 1000.0,
+                    report.getRowsPerSecond());
+        } catch (Exception e) {
+            System.out.println("❌ Error importing customers: " + e.getMessage());
+        }
+    }
+
+    private static void exportStatement() {
+        System.out.println("\n----- Export Account Statement -----");
+
+        System.out.print("Account Number: ");
+        String accountNumber = scanner.nextLine().trim();
+
+        try {
+            System.out.print("From (YYYY-MM-DD): ");
+            LocalDate from = LocalDate.parse(scanner.nextLine().trim());
+            System.out.print("To (YYYY-MM-DD): ");
+            LocalDate to = LocalDate.parse(scanner.nextLine().trim());
+            System.out.print("Format (CSV/JSON) [CSV]: ");
+            String formatInput = scanner.nextLine().trim();
+            StatementExporter.Format format = formatInput.isEmpty() ? StatementExporter.Format.CSV
+                    : StatementExporter.Format.valueOf(formatInput.toUpperCase());
+            String defaultFile = accountNumber + "_" + from + "_" + to + format.getExtension();
+            System.out.print("File [" + defaultFile + "]: ");
+            String file = scanner.nextLine().trim();
+            if (file.isEmpty()) {
+                file = defaultFile;
+            }
+
+            PeriodSummary summary;
+            try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                summary = new StatementExporter().export(accountNumber, from, to, format, channel);
+            }
+            if (summary == null) {
+                Files.deleteIfExists(Paths.get(file));
+                System.out.println("❌ Account not found: " + accountNumber);
+                return;
+            }
+            System.out.println("✅ Statement written to " + file);
+            System.out.println("   Opening Balance: " + summary.getOpeningBalance());
+            System.out.println("   Debits: " + summary.getTotalDebits() + "   Credits: " + summary.getTotalCredits());
+            System.out.println("   Closing Balance: " + summary.getClosingBalance() + " ("
+                    + summary.getTransactionCount() + " transactions)");
+        } catch (Exception e) {
+            System.out.println("❌ Error exporting statement: " + e.getMessage());
+        }
+    }
+
+    private static void viewMetrics() {
+        System.out.println("\n----- Service Call Latency (ms) -----");
+        System.out.printf("%-45s %10s %8s %10s %10s %10s %10s%n", "Operation", "Calls", "Errors", "p50", "p99",
+                "p99.9", "Max");
+        for (Map.Entry<String, LatencyHistogram> entry : OperationMetrics.getLatencies().entrySet()) {
+            LatencyHistogram latency = entry.getValue();
+            System.out.printf("%-45s %10d %8d %10.3f %10.3f %10.3f %10.3f%n", entry.getKey(), latency.getCount(),
+                    OperationMetrics.getErrorCount(entry.getKey()), millis(latency.getPercentileNanos(0.5)),
+                    millis(latency.getPercentileNanos(0.99)), millis(latency.getPercentileNanos(0.999)),
+                    millis(latency.getMaxNanos()));
+        }
+
+        Map<String, Long> giveUps = RetryMetrics.getGiveUpCounts();
+        System.out.println("\n----- Retries -----");
+        System.out.printf("%-45s %10s %10s%n", "Operation", "Retries", "Give-ups");
+        for (Map.Entry<String, Long> entry : RetryMetrics.getRetryCounts().entrySet()) {
+            System.out.printf("%-45s %10d %10d%n", entry.getKey(), entry.getValue(),
+                    giveUps.getOrDefault(entry.getKey(), 0L));
+        }
+
+        Statistics statistics = HibernateUtil.getStatistics();
+        System.out.println("\n----- Hibernate -----");
+        System.out.println("Sessions: " + statistics.getSessionOpenCount() + "   Transactions: "
+                + statistics.getTransactionCount() + "   Statements: " + statistics.getPrepareStatementCount());
+        System.out.println("Queries: " + statistics.getQueryExecutionCount() + " (slowest "
+                + statistics.getQueryExecutionMaxTime() + " ms)   Entity loads: " + statistics.getEntityLoadCount()
+                + "   Fetches: " + statistics.getEntityFetchCount() + "   Flushes: " + statistics.getFlushCount());
+        System.out.println("Second-level cache hits/misses: " + statistics.getSecondLevelCacheHitCount() + "/"
+                + statistics.getSecondLevelCacheMissCount() + "   Natural id cache hits/misses: "
+                + statistics.getNaturalIdCacheHitCount() + "/" + statistics.getNaturalIdCacheMissCount());
+        HibernateUtil.CacheStats cache = HibernateUtil.getCacheStats();
+        System.out.println("Query cache hits/misses: " + cache.getQueryHits() + "/" + cache.getQueryMisses());
+        for (Map.Entry<String, HibernateUtil.RegionStats> region : cache.getRegions().entrySet()) {
+            System.out.println("  " + region.getKey() + " " + region.getValue());
+        }
+
+        LatencyHistogram acquire = ConnectionPool.getAcquireTimes();
+        System.out.println("\n----- Connection Pool -----");
+        System.out.println(ConnectionPool.getStats());
+        System.out.printf("Acquire p50/p99/p99.9 (ms): %.3f / %.3f / %.3f%n", millis(acquire.getPercentileNanos(0.5)),
+                millis(acquire.getPercentileNanos(0.99)), millis(acquire.getPercentileNanos(0.999)));
+
+        AccountLockManager locks = AccountLockManager.getInstance();
+        System.out.println("\n----- Account Locks -----");
+        System.out.println("Acquires: " + locks.getAcquireCount() + "   Contended: " + locks.getContendedCount()
+                + "   Timeouts: " + locks.getTimeoutCount() + "   Total wait: " + locks.getTotalWaitMillis()
+                + " ms   Max wait: " + locks.getMaxWaitMicros() + " us");
+        for (Map.Entry<Long, Long> bucket : locks.getWaitHistogram().entrySet()) {
+            System.out.printf("  %-20s %10d%n", bucket.getKey() == Long.MAX_VALUE ? "longer"
+                    : "< " + bucket.getKey() + " us", bucket.getValue());
+        }
+
+        LatencyHistogram sessions = SessionMonitor.getSessionTimes();
+        LatencyHistogram held = SessionMonitor.getConnectionHoldTimes();
+        System.out.println("\n----- Sessions -----");
+        System.out.printf("Sessions: %d   open p99/max (ms): %.3f / %.3f   connection held p99/max (ms): %.3f / %.3f%n",
+                sessions.getCount(), millis(sessions.getPercentileNanos(0.99)), millis(sessions.getMaxNanos()),
+                millis(held.getPercentileNanos(0.99)), millis(held.getMaxNanos()));
+        for (SessionMonitor.OpenSession session : SessionMonitor.getOpenSessions(1000)) {
+            System.out.println("Open for over a second: " + session);
+        }
+        System.out.println("Slow queries: " + SlowQueryLog.getSlowQueryCount() + "   Possible leaks reported: "
+                + SessionMonitor.getLeaksReported());
+        List<SlowQueryLog.SlowQuery> slowQueries = SlowQueryLog.getRecent();
+        for (SlowQueryLog.SlowQuery query : slowQueries.subList(0, Math.min(5, slowQueries.size()))) {
+            System.out.println("  " + query);
+        }
+        if (MetricsExporter.getPort() > 0) {
+            System.out.println("Prometheus endpoint: http://localhost:" + MetricsExporter.getPort() + "/metrics");
+        }
+
+        System.out.print("\nWrite Prometheus text to file (blank to skip): ");
+        String file = scanner.nextLine().trim();
+        if (!file.isEmpty()) {
+            try {
+                MetricsExporter.writeTo(Paths.get(file));
+                System.out.println("✅ Metrics written to " + file);
+            } catch (Exception e) {
+                System.out.println("❌ " + e.getMessage());
+            }
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
     private static int getIntInput(String prompt) {
         while (true) {
             try {
@@ -1,19 +1,30 @@
 package com.BankingApp.Entities;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import com.BankingApp.Util.Money;
+import com.BankingApp.Util.MoneyConverter;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "accounts")
+// The sub-balance rebalancer looks up split accounts on every pass
+@Table(name = "accounts", indexes = @Index(name = "idx_accounts_sub_balance_count", columnList = "sub_balance_count"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "accounts")
+@NaturalIdCache(region = "account-natural-ids")
 public class Account {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
     
+    @NaturalId
     @Column(name = "account_number", unique = true, nullable = false, length = 20)
     private String accountNumber;
     
@@ -21,7 +32,8 @@ public class Account {
     private String accountType; // SAVINGS, CURRENT, SALARY
     
     @Column(name = "balance", precision = 15, scale = 2)
-    private BigDecimal balance;
+    @Convert(converter = MoneyConverter.class)
+    private Money balance;
     
     @Column(name = "status", length = 20)
     private String status; // ACTIVE, INACTIVE, BLOCKED
@@ -29,6 +41,15 @@ public class Account {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    // Number of AccountSubBalance rows deposits are spread over; 0 when the account is not split.
+    // The account's balance is then this row's balance plus its sub-balances.
+    @Column(name = "sub_balance_count", nullable = false)
+    private int subBalanceCount;
+    
+    @Version
+    @Column(name = "version")
+    private long version; // Optimistic-lock counter, bumped on every update
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
@@ -38,7 +59,7 @@ public class Account {
     
     // Constructors
     public Account() {
-        this.balance = BigDecimal.ZERO;
+        this.balance = Money.ZERO;
         this.status = "ACTIVE";
         this.createdAt = LocalDateTime.now();
     }
@@ -60,8 +81,8 @@ public class Account {
     public String getAccountType() { return accountType; }
     public void setAccountType(String accountType) { this.accountType = accountType; }
     
-    public BigDecimal getBalance() { return balance; }
-    public void setBalance(BigDecimal balance) { this.balance = balance; }
+    public Money getBalance() { return balance; }
+    public void setBalance(Money balance) { this.balance = balance; }
     
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
@@ -69,6 +90,11 @@ public class Account {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
+    public int getSubBalanceCount() { return subBalanceCount; }
+    public void setSubBalanceCount(int subBalanceCount) { this.subBalanceCount = subBalanceCount; }
+    
+    public long getVersion() { return version; }
+    
     public Customer getCustomer() { return customer; }
     public void setCustomer(Customer customer) { this.customer = customer; }
     
@@ -81,16 +107,17 @@ public class Account {
     }
     
     // Business methods
-    public void deposit(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) > 0) {
-            this.balance = this.balance.add(amount);
+    // Throws ArithmeticException if the balance would no longer fit the balance column
+    public void deposit(Money amount) {
+        if (amount.isPositive()) {
+            this.balance = this.balance.plus(amount);
         }
     }
     
-    public boolean withdraw(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) > 0 && 
-            this.balance.compareTo(amount) >= 0) {
-            this.balance = this.balance.subtract(amount);
+    public boolean withdraw(Money amount) {
+        if (amount.isPositive() && 
+            !this.balance.isLessThan(amount)) {
+            this.balance = this.balance.minus(amount);
             return true;
         }
         return false;
@@ -0,0 +1,84 @@
+package com.BankingApp.Entities;
+
+import jakarta.persistence.*;
+import com.BankingApp.Util.Money;
+import com.BankingApp.Util.MoneyConverter;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One slot of a split account's balance. Deposits to the account add to a
+ * single slot, locking only that row, so concurrent deposits spread over
+ * Account.subBalanceCount rows instead of all waiting on the accounts row.
+ * Withdrawals and the rebalancer move the slots back into the accounts row.
+ */
+@Entity
+@Table(name = "account_sub_balances")
+@IdClass(AccountSubBalance.Key.class)
+public class AccountSubBalance {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Id
+    @Column(name = "slot")
+    private Integer slot;
+
+    @Column(name = "balance", precision = 15, scale = 2, nullable = false)
+    @Convert(converter = MoneyConverter.class)
+    private Money balance;
+
+    public AccountSubBalance() {
+    }
+
+    public AccountSubBalance(Long accountId, int slot) {
+        this.accountId = accountId;
+        this.slot = slot;
+        this.balance = Money.ZERO;
+    }
+
+    public Long getAccountId() { return accountId; }
+    public Integer getSlot() { return slot; }
+
+    public Money getBalance() { return balance; }
+    public void setBalance(Money balance) { this.balance = balance; }
+
+    @Override
+    public String toString() {
+        return "AccountSubBalance{" +
+                "accountId=" + accountId +
+                ", slot=" + slot +
+                ", balance=" + balance +
+                '}';
+    }
+
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long accountId;
+        private Integer slot;
+
+        public Key() {
+        }
+
+        public Key(Long accountId, Integer slot) {
+            this.accountId = accountId;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(accountId, other.accountId) && Objects.equals(slot, other.slot);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accountId, slot);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.BankingApp.Entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -8,10 +12,18 @@ import java.util.List;
 
 @Entity
 @Table(name = "customers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customers")
+@NaturalIdCache(region = "customer-natural-ids")
+// Accounts are lazy; load through this graph when a use case needs them
+@NamedEntityGraph(name = Customer.WITH_ACCOUNTS, attributeNodes = @NamedAttributeNode("accounts"))
 public class Customer {
 
+	public static final String WITH_ACCOUNTS = "Customer.withAccounts";
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+	@SequenceGenerator(name = "customers_seq", sequenceName = "customers_seq", allocationSize = 50)
 	private Long id;
 
 	@Column(name = "first_name", nullable = false, length = 50)
@@ -26,6 +38,7 @@ public class Customer {
 	@Column(name = "phone", length = 15)
 	private String phone;
 
+	@NaturalId
 	@Column(name = "pan_number", unique = true, nullable = false, length = 10)
 	private String panNumber;
 
@@ -38,7 +51,8 @@ public class Customer {
 	@Column(name = "created_at")
 	private LocalDateTime createdAt;
 
-	@OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+	@OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customer-accounts")
 	private List<Account> accounts = new ArrayList<>();
 
 	// Constructors
@@ -0,0 +1,116 @@
+package com.BankingApp.Entities;
+
+import jakarta.persistence.*;
+import com.BankingApp.Util.Money;
+import com.BankingApp.Util.MoneyConverter;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * End-of-day state of one account on one day it had transactions: the balance
+ * after its last transaction that day, and the day's debit and credit totals.
+ * Days without transactions have no row; the balance on such a day is the
+ * closing balance of the latest earlier row.
+ *
+ * Kept up to date by AccountService (and the ledger's flusher) in the same
+ * database transaction as the postings; SnapshotBackfill rebuilds it from
+ * transactions.
+ */
+@Entity
+@Table(name = "daily_balance_snapshots")
+@IdClass(DailyBalanceSnapshot.Key.class)
+public class DailyBalanceSnapshot {
+
+    // Primary key (account_id, snapshot_date) doubles as the index for "latest row on or before a date"
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Id
+    @Column(name = "snapshot_date")
+    private LocalDate snapshotDate;
+
+    @Column(name = "closing_balance", precision = 15, scale = 2, nullable = false)
+    @Convert(converter = MoneyConverter.class)
+    private Money closingBalance;
+
+    @Column(name = "total_debits", precision = 15, scale = 2, nullable = false)
+    @Convert(converter = MoneyConverter.class)
+    private Money totalDebits;
+
+    @Column(name = "total_credits", precision = 15, scale = 2, nullable = false)
+    @Convert(converter = MoneyConverter.class)
+    private Money totalCredits;
+
+    @Column(name = "transaction_count", nullable = false)
+    private int transactionCount;
+
+    public DailyBalanceSnapshot() {
+    }
+
+    public DailyBalanceSnapshot(Long accountId, LocalDate snapshotDate, Money closingBalance, Money totalDebits,
+            Money totalCredits, int transactionCount) {
+        this.accountId = accountId;
+        this.snapshotDate = snapshotDate;
+        this.closingBalance = closingBalance;
+        this.totalDebits = totalDebits;
+        this.totalCredits = totalCredits;
+        this.transactionCount = transactionCount;
+    }
+
+    public Long getAccountId() { return accountId; }
+    public LocalDate getSnapshotDate() { return snapshotDate; }
+    public Money getClosingBalance() { return closingBalance; }
+    public Money getTotalDebits() { return totalDebits; }
+    public Money getTotalCredits() { return totalCredits; }
+    public int getTransactionCount() { return transactionCount; }
+
+    @Override
+    public String toString() {
+        return "DailyBalanceSnapshot{" +
+                "accountId=" + accountId +
+                ", snapshotDate=" + snapshotDate +
+                ", closingBalance=" + closingBalance +
+                ", totalDebits=" + totalDebits +
+                ", totalCredits=" + totalCredits +
+                ", transactionCount=" + transactionCount +
+                '}';
+    }
+
+    public static class Key implements Serializable, Comparable<Key> {
+        private static final long serialVersionUID = 1L;
+
+        private Long accountId;
+        private LocalDate snapshotDate;
+
+        public Key() {
+        }
+
+        public Key(Long accountId, LocalDate snapshotDate) {
+            this.accountId = accountId;
+            this.snapshotDate = snapshotDate;
+        }
+
+        // Account, then date: the order rows are written in, so concurrent writers lock them in the same order
+        @Override
+        public int compareTo(Key other) {
+            int byAccount = accountId.compareTo(other.accountId);
+            return byAccount != 0 ? byAccount : snapshotDate.compareTo(other.snapshotDate);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(accountId, other.accountId) && Objects.equals(snapshotDate, other.snapshotDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accountId, snapshotDate);
+        }
+    }
+}
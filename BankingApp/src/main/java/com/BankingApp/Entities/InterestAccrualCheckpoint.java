@@ -0,0 +1,111 @@
+package com.BankingApp.Entities;
+
+import jakarta.persistence.*;
+import com.BankingApp.Util.Money;
+import com.BankingApp.Util.MoneyConverter;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Progress of one interest accrual partition (an account id range) for one
+ * business day. Updated in the same database transaction as each batch of
+ * interest postings, so a run that is stopped part way resumes after the
+ * last account credited and never credits an account twice for a day.
+ */
+@Entity
+@Table(name = "interest_accrual_checkpoints")
+@IdClass(InterestAccrualCheckpoint.Key.class)
+public class InterestAccrualCheckpoint {
+
+    @Id
+    @Column(name = "accrual_date")
+    private LocalDate accrualDate;
+
+    @Id
+    @Column(name = "partition_start")
+    private Long partitionStart;
+
+    @Column(name = "partition_end", nullable = false)
+    private long partitionEnd;
+
+    // Highest account id processed so far; partitionStart - 1 before the first batch
+    @Column(name = "last_account_id", nullable = false)
+    private long lastAccountId;
+
+    @Column(name = "accounts_credited", nullable = false)
+    private long accountsCredited;
+
+    @Column(name = "total_interest", precision = 15, scale = 2, nullable = false)
+    @Convert(converter = MoneyConverter.class)
+    private Money totalInterest;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public InterestAccrualCheckpoint() {
+    }
+
+    public InterestAccrualCheckpoint(LocalDate accrualDate, long partitionStart, long partitionEnd) {
+        this.accrualDate = accrualDate;
+        this.partitionStart = partitionStart;
+        this.partitionEnd = partitionEnd;
+        this.lastAccountId = partitionStart - 1;
+        this.totalInterest = Money.ZERO;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public LocalDate getAccrualDate() { return accrualDate; }
+    public Long getPartitionStart() { return partitionStart; }
+    public long getPartitionEnd() { return partitionEnd; }
+    public long getLastAccountId() { return lastAccountId; }
+    public long getAccountsCredited() { return accountsCredited; }
+    public Money getTotalInterest() { return totalInterest; }
+    public boolean isCompleted() { return completed; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    public void recordBatch(long lastAccountId, long accountsCredited, Money interest) {
+        this.lastAccountId = lastAccountId;
+        this.accountsCredited += accountsCredited;
+        this.totalInterest = totalInterest.plus(interest);
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void markCompleted() {
+        this.completed = true;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private LocalDate accrualDate;
+        private Long partitionStart;
+
+        public Key() {
+        }
+
+        public Key(LocalDate accrualDate, Long partitionStart) {
+            this.accrualDate = accrualDate;
+            this.partitionStart = partitionStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(accrualDate, other.accrualDate) && Objects.equals(partitionStart, other.partitionStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accrualDate, partitionStart);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.BankingApp.Entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Single row recording how far the in-memory ledger's write-ahead log has been
+ * written to accounts/transactions. Updated in the same database transaction as
+ * the rows it covers, so after a crash replay starts exactly where the database
+ * left off.
+ */
+@Entity
+@Table(name = "ledger_checkpoint")
+public class LedgerCheckpoint {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public LedgerCheckpoint() {
+    }
+
+    public LedgerCheckpoint(long lastSequence) {
+        this.id = ID;
+        this.lastSequence = lastSequence;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+
+    public long getLastSequence() { return lastSequence; }
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -1,25 +1,35 @@
 package com.BankingApp.Entities;
 
 import jakarta.persistence.*;
-import java.math.BigDecimal;
+import com.BankingApp.Util.Money;
+import com.BankingApp.Util.MoneyConverter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+// History queries filter on account_id and sort by transaction_date, id; InnoDB
+// appends the primary key to secondary indexes, so this covers the tie-break too
+@Table(name = "transactions", indexes = @Index(name = "idx_transactions_account_date",
+        columnList = "account_id, transaction_date"))
 public class Transactions {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "transaction_id", unique = true, nullable = false, length = 50)
     private String transactionId;
     
     @Column(name = "type", nullable = false, length = 20)
-    private String type; // DEPOSIT, WITHDRAWAL, TRANSFER
+    private String type; // DEPOSIT, WITHDRAWAL, TRANSFER, INTEREST
+    
+    // Both legs of a transfer have type TRANSFER; this is what tells them apart
+    @Column(name = "direction", length = 6)
+    private String direction; // DEBIT, CREDIT
     
     @Column(name = "amount", precision = 15, scale = 2, nullable = false)
-    private BigDecimal amount;
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
     
     @Column(name = "description", length = 255)
     private String description;
@@ -28,7 +38,8 @@ public class Transactions {
     private LocalDateTime transactionDate;
     
     @Column(name = "balance_after_transaction", precision = 15, scale = 2)
-    private BigDecimal balanceAfterTransaction;
+    @Convert(converter = MoneyConverter.class)
+    private Money balanceAfterTransaction;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
@@ -42,7 +53,7 @@ public class Transactions {
         this.transactionDate = LocalDateTime.now();
     }
     
-    public Transactions(String transactionId, String type, BigDecimal amount, 
+    public Transactions(String transactionId, String type, Money amount, 
                       String description, Account account) {
         this();
         this.transactionId = transactionId;
@@ -63,8 +74,11 @@ public class Transactions {
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
     
-    public BigDecimal getAmount() { return amount; }
-    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getDirection() { return direction; }
+    public void setDirection(String direction) { this.direction = direction; }
+    
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
     
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
@@ -72,8 +86,8 @@ public class Transactions {
     public LocalDateTime getTransactionDate() { return transactionDate; }
     public void setTransactionDate(LocalDateTime transactionDate) { this.transactionDate = transactionDate; }
     
-    public BigDecimal getBalanceAfterTransaction() { return balanceAfterTransaction; }
-    public void setBalanceAfterTransaction(BigDecimal balanceAfterTransaction) { 
+    public Money getBalanceAfterTransaction() { return balanceAfterTransaction; }
+    public void setBalanceAfterTransaction(Money balanceAfterTransaction) { 
         this.balanceAfterTransaction = balanceAfterTransaction; 
     }
     
@@ -91,6 +105,7 @@ public class Transactions {
                 "id=" + id +
                 ", transactionId='" + transactionId + '\'' +
                 ", type='" + type + '\'' +
+                ", direction='" + direction + '\'' +
                 ", amount=" + amount +
                 ", description='" + description + '\'' +
                 ", transactionDate=" + transactionDate +
@@ -0,0 +1,190 @@
+package com.BankingApp.Journal;
+
+import com.BankingApp.Entities.Transactions;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+/**
+ * One committed Transactions row as stored in the journal. Every entry takes
+ * exactly BYTES bytes, so entry n of a segment starts at n * BYTES:
+ *
+ * <pre>
+ *   0  int    CRC32 of bytes 4..127
+ *   4  long   sequence (1, 2, 3, ... across all segments)
+ *  12  long   transaction date, epoch seconds (UTC-naive like LocalDateTime)
+ *  20  int    transaction date, nanos
+ *  24  byte   kind (ordinal of Kind)
+ *  25  7 bytes reserved, zero
+ *  32  long   transactions.id
+ *  40  long   account id
+ *  48  long   amount in paise
+ *  56  long   balance after transaction in paise
+ *  64  24 bytes transaction id, ASCII, zero padded
+ *  88  20 bytes account number, ASCII, zero padded
+ * 108  20 bytes related account number, ASCII, zero padded (all zero if none)
+ * </pre>
+ *
+ * Descriptions are not journaled; the entry keeps what is needed to audit the
+ * money movement and rebuild balance_after_transaction.
+ */
+public class JournalEntry {
+    public static final int BYTES = 128;
+
+    private static final int TRANSACTION_ID_BYTES = 24;
+    private static final int ACCOUNT_NUMBER_BYTES = 20;
+
+    // The ordinal is what is stored, so new kinds go at the end
+    public enum Kind {
+        DEPOSIT, WITHDRAWAL, TRANSFER_OUT, TRANSFER_IN, INTEREST
+    }
+
+    private final long sequence;
+    private final Kind kind;
+    private final LocalDateTime transactionDate;
+    private final long id;
+    private final long accountId;
+    private final String transactionId;
+    private final String accountNumber;
+    private final String relatedAccountNumber;
+    private final long amountPaise;
+    private final long balanceAfterPaise;
+
+    public JournalEntry(long sequence, Kind kind, LocalDateTime transactionDate, long id, long accountId,
+            String transactionId, String accountNumber, String relatedAccountNumber, long amountPaise,
+            long balanceAfterPaise) {
+        this.sequence = sequence;
+        this.kind = kind;
+        this.transactionDate = transactionDate;
+        this.id = id;
+        this.accountId = accountId;
+        this.transactionId = transactionId;
+        this.accountNumber = accountNumber;
+        this.relatedAccountNumber = relatedAccountNumber;
+        this.amountPaise = amountPaise;
+        this.balanceAfterPaise = balanceAfterPaise;
+    }
+
+    /** Entry for a persisted row (its id assigned); the sequence is set when it is appended. */
+    public static JournalEntry of(Kind kind, Transactions transaction) {
+        return new JournalEntry(0, kind, transaction.getTransactionDate(), transaction.getId(),
+                transaction.getAccount().getId(), transaction.getTransactionId(),
+                transaction.getAccount().getAccountNumber(), transaction.getRelatedAccountNumber(),
+                transaction.getAmount().getPaise(), transaction.getBalanceAfterTransaction().getPaise());
+    }
+
+    JournalEntry withSequence(long sequence) {
+        return new JournalEntry(sequence, kind, transactionDate, id, accountId, transactionId, accountNumber,
+                relatedAccountNumber, amountPaise, balanceAfterPaise);
+    }
+
+    public long getSequence() { return sequence; }
+    public Kind getKind() { return kind; }
+    public LocalDateTime getTransactionDate() { return transactionDate; }
+    public long getId() { return id; }
+    public long getAccountId() { return accountId; }
+    public String getTransactionId() { return transactionId; }
+    public String getAccountNumber() { return accountNumber; }
+    public String getRelatedAccountNumber() { return relatedAccountNumber; }
+    public long getAmountPaise() { return amountPaise; }
+    public long getBalanceAfterPaise() { return balanceAfterPaise; }
+
+    public BigDecimal getAmount() {
+        return BigDecimal.valueOf(amountPaise, 2);
+    }
+
+    public BigDecimal getBalanceAfter() {
+        return BigDecimal.valueOf(balanceAfterPaise, 2);
+    }
+
+    /** Writes the entry at the buffer's position, advancing it by BYTES. */
+    void writeTo(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putInt(0)
+                .putLong(sequence)
+                .putLong(transactionDate.toEpochSecond(ZoneOffset.UTC))
+                .putInt(transactionDate.getNano())
+                .put((byte) kind.ordinal())
+                .put(new byte[7])
+                .putLong(id)
+                .putLong(accountId)
+                .putLong(amountPaise)
+                .putLong(balanceAfterPaise);
+        putAscii(buffer, transactionId, TRANSACTION_ID_BYTES);
+        putAscii(buffer, accountNumber, ACCOUNT_NUMBER_BYTES);
+        putAscii(buffer, relatedAccountNumber, ACCOUNT_NUMBER_BYTES);
+        buffer.putInt(start, checksum(buffer, start));
+    }
+
+    /**
+     * Reads the entry at the buffer's position, advancing it by BYTES. Returns
+     * null for a slot that was never written or was torn by a crash.
+     */
+    static JournalEntry readFrom(ByteBuffer buffer, long expectedSequence) {
+        int start = buffer.position();
+        buffer.position(start + BYTES);
+        int crc = buffer.getInt(start);
+        long sequence = buffer.getLong(start + 4);
+        if (sequence != expectedSequence || crc != checksum(buffer, start)) {
+            return null;
+        }
+        LocalDateTime date = LocalDateTime.ofEpochSecond(buffer.getLong(start + 12), buffer.getInt(start + 20),
+                ZoneOffset.UTC);
+        int kind = buffer.get(start + 24);
+        if (kind < 0 || kind >= Kind.values().length) {
+            return null;
+        }
+        return new JournalEntry(sequence, Kind.values()[kind], date, buffer.getLong(start + 32),
+                buffer.getLong(start + 40), getAscii(buffer, start + 64, TRANSACTION_ID_BYTES),
+                getAscii(buffer, start + 88, ACCOUNT_NUMBER_BYTES),
+                getAscii(buffer, start + 108, ACCOUNT_NUMBER_BYTES), buffer.getLong(start + 48),
+                buffer.getLong(start + 56));
+    }
+
+    private static int checksum(ByteBuffer buffer, int start) {
+        ByteBuffer body = buffer.duplicate();
+        body.limit(start + BYTES).position(start + 4);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private static void putAscii(ByteBuffer buffer, String value, int width) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length > width) {
+            throw new IllegalArgumentException("'" + value + "' does not fit in " + width + " journal bytes");
+        }
+        buffer.put(bytes).put(new byte[width - bytes.length]);
+    }
+
+    private static String getAscii(ByteBuffer buffer, int offset, int width) {
+        int length = 0;
+        while (length < width && buffer.get(offset + length) != 0) {
+            length++;
+        }
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public String toString() {
+        return "JournalEntry{" +
+                "sequence=" + sequence +
+                ", kind=" + kind +
+                ", transactionId='" + transactionId + '\'' +
+                ", accountNumber='" + accountNumber + '\'' +
+                ", amount=" + getAmount() +
+                ", balanceAfter=" + getBalanceAfter() +
+                '}';
+    }
+}
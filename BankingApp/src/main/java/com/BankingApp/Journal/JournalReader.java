@@ -0,0 +1,172 @@
+package com.BankingApp.Journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads journal entries in sequence order starting at any sequence, straight
+ * from the segment files and without involving the writer. Reading stops at the
+ * first slot that is empty or torn; on a live journal, hasNext() turns true
+ * again once the writer has filled that slot.
+ */
+public class JournalReader implements Iterator<JournalEntry>, AutoCloseable {
+    private static final int ENTRIES_PER_READ = 256;
+
+    private final Path directory;
+    private final ByteBuffer buffer = ByteBuffer.allocate(ENTRIES_PER_READ * JournalEntry.BYTES);
+    private long nextSequence;
+    private JournalEntry next;
+
+    // Segment currently being read
+    private FileChannel channel;
+    private long segmentFirst;
+    private long segmentEntries;
+
+    public JournalReader(Path directory, long fromSequence) {
+        this.directory = directory;
+        this.nextSequence = Math.max(1, fromSequence);
+        buffer.limit(0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readNext();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read transaction journal " + directory, e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public JournalEntry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        JournalEntry entry = next;
+        next = null;
+        nextSequence++;
+        return entry;
+    }
+
+    @Override
+    public void close() {
+        closeSegment();
+    }
+
+    /**
+     * Last balance_after_transaction per account number, from the given
+     * sequence onwards. From sequence 1 this is every account's balance as of
+     * the end of the journal, without the database.
+     */
+    public static Map<String, BigDecimal> latestBalances(Path directory, long fromSequence) {
+        Map<String, BigDecimal> balances = new HashMap<>();
+        try (JournalReader reader = new JournalReader(directory, fromSequence)) {
+            while (reader.hasNext()) {
+                JournalEntry entry = reader.next();
+                balances.put(entry.getAccountNumber(), entry.getBalanceAfter());
+            }
+        }
+        return balances;
+    }
+
+    private JournalEntry readNext() throws IOException {
+        if (channel == null || nextSequence >= segmentFirst + segmentEntries) {
+            if (!openSegmentFor(nextSequence)) {
+                return null;
+            }
+        }
+        long slot = nextSequence - segmentFirst;
+        if (!buffer.hasRemaining()) {
+            // Re-read from the slot we need; a slot that was empty last time may be written by now
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), (segmentEntries - slot) * JournalEntry.BYTES));
+            long position = slot * JournalEntry.BYTES;
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            if (buffer.remaining() < JournalEntry.BYTES) {
+                buffer.limit(0);
+                return null;
+            }
+        }
+        int start = buffer.position();
+        JournalEntry entry = JournalEntry.readFrom(buffer, nextSequence);
+        if (entry == null) {
+            buffer.position(start).limit(start);
+        }
+        return entry;
+    }
+
+    private boolean openSegmentFor(long sequence) throws IOException {
+        closeSegment();
+        List<Long> firstSequences = listSegments(directory);
+        int index = Collections.binarySearch(firstSequences, sequence);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        if (index < 0) {
+            return false;
+        }
+        long first = firstSequences.get(index);
+        FileChannel opened = FileChannel.open(directory.resolve(TransactionJournal.segmentName(first)),
+                StandardOpenOption.READ);
+        long entries = opened.size() / JournalEntry.BYTES;
+        if (sequence >= first + entries) {
+            opened.close();
+            return false;
+        }
+        channel = opened;
+        segmentFirst = first;
+        segmentEntries = entries;
+        return true;
+    }
+
+    private void closeSegment() {
+        buffer.limit(0);
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            channel = null;
+        }
+    }
+
+    /** First sequence of every segment in the directory, ascending. */
+    static List<Long> listSegments(Path directory) throws IOException {
+        List<Long> firstSequences = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return firstSequences;
+        }
+        String prefix = TransactionJournal.PREFIX;
+        String suffix = TransactionJournal.SUFFIX;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                firstSequences.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+            }
+        }
+        Collections.sort(firstSequences);
+        return firstSequences;
+    }
+}
@@ -0,0 +1,313 @@
+package com.BankingApp.Journal;
+
+import com.BankingApp.Util.AppConfig;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Local, append-only audit trail of every committed Transactions row
+ * (banking.journal.enabled), independent of the database.
+ *
+ * Entries have the fixed JournalEntry layout and a global sequence number.
+ * Segment i holds sequences i * entriesPerSegment + 1 onwards, in a file named
+ * after its first sequence (journal-00000000000000000001.dat) that is zero-filled
+ * to its full size when created and then written through a memory mapping, so
+ * the slot for any sequence is found by arithmetic and appends never grow a file.
+ *
+ * Appends from any thread are queued; one writer thread copies everything
+ * queued so far into the mapping, forces it to disk once for the whole group
+ * and only then completes the appends' futures. JournalReader replays the
+ * files from any sequence.
+ */
+public class TransactionJournal implements AutoCloseable {
+    static final String PREFIX = "journal-";
+    static final String SUFFIX = ".dat";
+    private static final int ZERO_FILL_BYTES = 1 << 20;
+
+    private static TransactionJournal instance;
+
+    private final Path directory;
+    private final int entriesPerSegment;
+
+    private final Object lock = new Object();
+    private List<PendingAppend> pending = new ArrayList<>(); // guarded by lock
+    private long lastSequence; // guarded by lock
+    private boolean closed; // guarded by lock
+    private volatile long durableSequence;
+    private volatile Exception failure;
+
+    // Writer thread only (and open()/close())
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentIndex = -1;
+    private Thread writer;
+
+    public TransactionJournal(Path directory, int entriesPerSegment) {
+        if (entriesPerSegment <= 0 || entriesPerSegment > Integer.MAX_VALUE / JournalEntry.BYTES) {
+            throw new IllegalArgumentException("Entries per segment must be between 1 and "
+                    + Integer.MAX_VALUE / JournalEntry.BYTES + ": " + entriesPerSegment);
+        }
+        this.directory = directory;
+        this.entriesPerSegment = entriesPerSegment;
+    }
+
+    public static boolean isEnabled() {
+        return AppConfig.getBoolean("banking.journal.enabled", false);
+    }
+
+    /** The shared journal, opened on first use. */
+    public static synchronized TransactionJournal getInstance() {
+        if (instance == null) {
+            TransactionJournal journal = new TransactionJournal(
+                    Paths.get(AppConfig.get("banking.journal.dir", "journal")),
+                    AppConfig.getInt("banking.journal.segment_entries", 262144));
+            journal.open();
+            instance = journal;
+        }
+        return instance;
+    }
+
+    public static synchronized void shutdownIfRunning() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    /**
+     * Finds the end of the journal in the last segment and starts the writer.
+     * Slots after the first one that is empty or torn are zeroed: they were never
+     * acknowledged, and a stale but intact entry there must not reappear once the
+     * slots before it are written again.
+     */
+    public void open() {
+        try {
+            Files.createDirectories(directory);
+            long last = 0;
+            List<Long> firstSequences = JournalReader.listSegments(directory);
+            if (!firstSequences.isEmpty()) {
+                long first = firstSequences.get(firstSequences.size() - 1);
+                Path file = directory.resolve(segmentName(first));
+                if ((first - 1) % entriesPerSegment != 0
+                        || Files.size(file) > (long) entriesPerSegment * JournalEntry.BYTES) {
+                    throw new IOException(file + " was written with a different banking.journal.segment_entries");
+                }
+                mapSegment((first - 1) / entriesPerSegment);
+                int slot = 0;
+                while (slot < entriesPerSegment) {
+                    segment.position(slot * JournalEntry.BYTES);
+                    if (JournalEntry.readFrom(segment, first + slot) == null) {
+                        break;
+                    }
+                    slot++;
+                }
+                last = first + slot - 1;
+                if (slot < entriesPerSegment) {
+                    segment.position(slot * JournalEntry.BYTES);
+                    while (segment.hasRemaining()) {
+                        segment.put((byte) 0);
+                    }
+                    segment.force();
+                }
+            }
+            synchronized (lock) {
+                lastSequence = last;
+            }
+            durableSequence = last;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open transaction journal " + directory, e);
+        }
+        writer = new Thread(this::writeLoop, "transaction-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues the entries under consecutive sequence numbers. The future completes
+     * with the last of them once all are on disk.
+     */
+    public CompletableFuture<Long> append(List<JournalEntry> entries) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        if (entries.isEmpty()) {
+            future.complete(getDurableSequence());
+            return future;
+        }
+        synchronized (lock) {
+            if (failure != null) {
+                future.completeExceptionally(new IllegalStateException("Transaction journal failed", failure));
+                return future;
+            }
+            if (closed) {
+                future.completeExceptionally(new IllegalStateException("Transaction journal is closed"));
+                return future;
+            }
+            List<JournalEntry> numbered = new ArrayList<>(entries.size());
+            for (JournalEntry entry : entries) {
+                numbered.add(entry.withSequence(++lastSequence));
+            }
+            pending.add(new PendingAppend(numbered, future));
+            if (pending.size() == 1) {
+                lock.notify();
+            }
+        }
+        return future;
+    }
+
+    /** Highest sequence handed out so far (possibly not yet durable). */
+    public long getLastSequence() {
+        synchronized (lock) {
+            return lastSequence;
+        }
+    }
+
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /** Writes and forces everything already appended, then stops the writer. */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notify();
+        }
+        try {
+            if (writer != null) {
+                writer.join();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Error closing transaction journal: " + e.getMessage());
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            List<PendingAppend> batch;
+            synchronized (lock) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+
+            try {
+                writeBatch(batch);
+            } catch (IOException | RuntimeException e) {
+                fail(e, batch);
+                return;
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingAppend> batch) throws IOException {
+        long last = 0;
+        for (PendingAppend append : batch) {
+            for (JournalEntry entry : append.entries) {
+                long index = (entry.getSequence() - 1) / entriesPerSegment;
+                if (index != segmentIndex) {
+                    if (segment != null) {
+                        segment.force();
+                    }
+                    mapSegment(index);
+                }
+                segment.position((int) ((entry.getSequence() - 1) % entriesPerSegment) * JournalEntry.BYTES);
+                entry.writeTo(segment);
+                last = entry.getSequence();
+            }
+        }
+        segment.force();
+
+        durableSequence = last;
+        for (PendingAppend append : batch) {
+            append.future.complete(append.entries.get(append.entries.size() - 1).getSequence());
+        }
+    }
+
+    // A journal with a gap is worse than one that stops, so after a write failure
+    // nothing more is accepted until the application is restarted
+    private void fail(Exception e, List<PendingAppend> batch) {
+        List<PendingAppend> failed = new ArrayList<>(batch);
+        synchronized (lock) {
+            failure = e;
+            failed.addAll(pending);
+            pending = new ArrayList<>();
+        }
+        System.err.println("Transaction journal write failed, refusing further entries: " + e.getMessage());
+        for (PendingAppend append : failed) {
+            append.future.completeExceptionally(new IllegalStateException("Transaction journal failed", e));
+        }
+    }
+
+    // Opens (creating and zero-filling if needed) the segment and maps all of it
+    private void mapSegment(long index) throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        long size = (long) entriesPerSegment * JournalEntry.BYTES;
+        Path path = directory.resolve(segmentName(index * entriesPerSegment + 1));
+        boolean created = !Files.exists(path);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (channel.size() < size) {
+            // Real zeros rather than a sparse file: disk space is claimed now, not on a page
+            // fault in the middle of an append, and a full disk fails here as an IOException
+            ByteBuffer zeros = ByteBuffer.allocate(ZERO_FILL_BYTES);
+            for (long position = channel.size(); position < size;) {
+                zeros.clear().limit((int) Math.min(ZERO_FILL_BYTES, size - position));
+                position += channel.write(zeros, position);
+            }
+            channel.force(true);
+        }
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        segmentIndex = index;
+        if (created) {
+            // Make the new directory entry itself durable (not supported on every platform)
+            try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+                dir.force(true);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    static String segmentName(long firstSequence) {
+        return String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX);
+    }
+
+    private static class PendingAppend {
+        final List<JournalEntry> entries;
+        final CompletableFuture<Long> future;
+
+        PendingAppend(List<JournalEntry> entries, CompletableFuture<Long> future) {
+            this.entries = entries;
+            this.future = future;
+        }
+    }
+}
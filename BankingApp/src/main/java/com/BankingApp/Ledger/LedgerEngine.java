@@ -0,0 +1,329 @@
+package com.BankingApp.Ledger;
+
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.LedgerCheckpoint;
+import com.BankingApp.Entities.Transactions;
+import com.BankingApp.Journal.TransactionJournal;
+import com.BankingApp.Ledger.LedgerRecord.Kind;
+import com.BankingApp.Ledger.LedgerShard.AccountState;
+import com.BankingApp.Util.AppConfig;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.IdGenerator;
+import com.BankingApp.Util.Money;
+
+import org.hibernate.Session;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Optional posting engine (banking.ledger.enabled) that keeps balances in
+ * memory and takes the database off the deposit/withdraw/transfer path:
+ *
+ * - accounts are spread over banking.ledger.shards single-threaded shards by
+ *   account number, so each balance has exactly one writer;
+ * - every accepted posting is appended to a local write-ahead log
+ *   (banking.ledger.dir) and acknowledged once its group fsync completes;
+ * - a background flusher writes the logged postings to transactions/accounts
+ *   in batches together with a checkpoint.
+ *
+ * On start the log is replayed from the checkpoint into the database, and a
+ * transfer whose debit was logged without its credit is completed, before any
+ * new posting is accepted. Balances are then loaded from the database lazily.
+ *
+ * The engine assumes it is the only writer of account balances: run it on one
+ * node, and don't post through anything else while it is enabled.
+ * Transactions rows appear in the database up to banking.ledger.flush_interval_ms
+ * after a posting is acknowledged.
+ */
+public class LedgerEngine {
+    private static final long FLUSH_TIMEOUT_MILLIS = 60000;
+
+    private static LedgerEngine instance;
+
+    private final WriteAheadLog log;
+    private final WriteBehindFlusher flusher;
+    private final LedgerShard[] shards;
+    private final IdGenerator idGenerator = IdGenerator.getInstance();
+
+    LedgerEngine(Path directory, int shardCount, long segmentBytes, int flushBatchSize, long flushIntervalMillis) {
+        this.flusher = new WriteBehindFlusher(flushBatchSize, flushIntervalMillis, this::onCheckpoint,
+                TransactionJournal.isEnabled() ? TransactionJournal.getInstance() : null);
+        this.log = new WriteAheadLog(directory, segmentBytes, flusher::enqueue);
+        this.shards = new LedgerShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new LedgerShard(i, LedgerEngine::loadAccount, log);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return AppConfig.getBoolean("banking.ledger.enabled", false);
+    }
+
+    /** The shared engine, started (and recovered) on first use. */
+    public static synchronized LedgerEngine getInstance() {
+        if (instance == null) {
+            LedgerEngine engine = new LedgerEngine(
+                    Paths.get(AppConfig.get("banking.ledger.dir", "ledger")),
+                    AppConfig.getInt("banking.ledger.shards", Runtime.getRuntime().availableProcessors()),
+                    AppConfig.getLong("banking.ledger.segment_bytes", 64L << 20),
+                    AppConfig.getInt("banking.ledger.flush_batch_size", 1000),
+                    AppConfig.getLong("banking.ledger.flush_interval_ms", 200));
+            engine.start();
+            instance = engine;
+        }
+        return instance;
+    }
+
+    public static synchronized void shutdownIfRunning() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    void start() {
+        long checkpoint = readCheckpoint();
+        List<LedgerRecord> replay;
+        try {
+            replay = log.recover(checkpoint);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover ledger log", e);
+        }
+        flusher.start(checkpoint, replay.isEmpty() ? checkpoint : replay.get(replay.size() - 1).getSequence());
+        log.start();
+        flusher.enqueue(replay);
+        flush();
+
+        // A crash between the two legs of a transfer leaves a logged debit without its credit
+        Set<String> credited = new HashSet<>();
+        for (LedgerRecord record : replay) {
+            if (record.getKind() == Kind.TRANSFER_IN) {
+                credited.add(record.getTransferId());
+            }
+        }
+        List<CompletableFuture<LedgerRecord>> credits = new ArrayList<>();
+        for (LedgerRecord record : replay) {
+            if (record.getKind() == Kind.TRANSFER_OUT && !credited.contains(record.getTransferId())) {
+                // Not reserved: the debit is durable, so the credit goes through without the limit check
+                // (Money itself still refuses a balance past DECIMAL(15,2), failing the start)
+                credits.add(shardFor(record.getRelatedAccountNumber()).post(Kind.TRANSFER_IN,
+                        record.getRelatedAccountNumber(), Money.of(record.getAmount()),
+                        "Transfer completed on recovery (From: " + record.getAccountNumber() + ")",
+                        record.getAccountNumber(), record.getTransferId(), idGenerator.nextTransactionId(), true));
+            }
+        }
+        for (CompletableFuture<LedgerRecord> credit : credits) {
+            await(credit);
+        }
+        flush();
+    }
+
+    public CompletableFuture<Transactions> submitDeposit(String accountNumber, BigDecimal amount, String description) {
+        Money money;
+        try {
+            money = toPositiveMoney(amount, "Deposit");
+        } catch (IllegalArgumentException e) {
+            return failed(e);
+        }
+        return shardFor(accountNumber)
+                .post(Kind.DEPOSIT, accountNumber, money, description, null, null, idGenerator.nextTransactionId(),
+                        false)
+                .thenApply(record -> record.toTransactions(null));
+    }
+
+    public CompletableFuture<Transactions> submitWithdrawal(String accountNumber, BigDecimal amount,
+            String description) {
+        Money money;
+        try {
+            money = toPositiveMoney(amount, "Withdrawal");
+        } catch (IllegalArgumentException e) {
+            return failed(e);
+        }
+        return shardFor(accountNumber)
+                .post(Kind.WITHDRAWAL, accountNumber, money, description, null, null,
+                        idGenerator.nextTransactionId(), false)
+                .thenApply(record -> record.toTransactions(null));
+    }
+
+    /**
+     * Reserves room for the credit on the target's shard, debits the source on
+     * its shard, then credits the target once the debit is durable. Completes
+     * with the debit, like AccountService.transfer.
+     */
+    public CompletableFuture<Transactions> submitTransfer(String fromAccountNumber, String toAccountNumber,
+            BigDecimal amount, String description) {
+        if (fromAccountNumber == null || toAccountNumber == null) {
+            return failed(new IllegalArgumentException("One or both accounts not found"));
+        }
+        if (fromAccountNumber.equals(toAccountNumber)) {
+            return failed(new IllegalArgumentException("Cannot transfer to the same account"));
+        }
+        Money money;
+        try {
+            money = toPositiveMoney(amount, "Transfer");
+        } catch (IllegalArgumentException e) {
+            return failed(e);
+        }
+
+        String transferId = idGenerator.nextTransactionId();
+        LedgerShard target = shardFor(toAccountNumber);
+        return target.reserveCredit(toAccountNumber, money)
+                .thenCompose(reserved -> shardFor(fromAccountNumber).post(Kind.TRANSFER_OUT, fromAccountNumber, money,
+                        description + " (To: " + toAccountNumber + ")", toAccountNumber, transferId, transferId,
+                        false)
+                        .whenComplete((debit, error) -> {
+                            if (error != null) {
+                                target.releaseCredit(toAccountNumber, money);
+                            }
+                        }))
+                .thenCompose(debit -> target.post(Kind.TRANSFER_IN, toAccountNumber, money,
+                        description + " (From: " + fromAccountNumber + ")", fromAccountNumber, transferId,
+                        idGenerator.nextTransactionId(), true)
+                        .thenApply(credit -> debit.toTransactions(null)));
+    }
+
+    public Transactions deposit(String accountNumber, BigDecimal amount, String description) {
+        return await(submitDeposit(accountNumber, amount, description));
+    }
+
+    public Transactions withdraw(String accountNumber, BigDecimal amount, String description) {
+        return await(submitWithdrawal(accountNumber, amount, description));
+    }
+
+    public Transactions transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount,
+            String description) {
+        return await(submitTransfer(fromAccountNumber, toAccountNumber, amount, description));
+    }
+
+    /** Current in-memory balance, or null if the account does not exist. */
+    public BigDecimal getBalance(String accountNumber) {
+        return await(shardFor(accountNumber).balance(accountNumber));
+    }
+
+    /** Waits until every posting acknowledged so far has been written to the database. */
+    public void flush() {
+        try {
+            if (!flusher.awaitFlushed(log.getLastSequence(), FLUSH_TIMEOUT_MILLIS)) {
+                RuntimeException failure = flusher.getFailure();
+                if (failure != null) {
+                    throw new IllegalStateException("Ledger flusher stopped; postings stay in the log until it is "
+                            + "fixed and restarted: " + failure.getMessage(), failure);
+                }
+                throw new IllegalStateException("Timed out waiting for the ledger to reach the database");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the ledger flush", e);
+        }
+    }
+
+    /** Finishes queued postings, fsyncs the log and writes everything to the database. */
+    public void shutdown() {
+        try {
+            for (LedgerShard shard : shards) {
+                shard.shutdown();
+            }
+            log.close();
+            flusher.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Simulates a process crash for tests: nothing queued for the database gets written
+    void crash() throws InterruptedException {
+        for (LedgerShard shard : shards) {
+            shard.shutdownNow();
+        }
+        flusher.abort();
+        log.close();
+    }
+
+    long getFlushedSequence() {
+        return flusher.getFlushedSequence();
+    }
+
+    RuntimeException getFlushFailure() {
+        return flusher.getFailure();
+    }
+
+    /** Unwraps the IllegalArgumentException (rejected posting) or other failure behind a future. */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    static long readCheckpoint() {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            LedgerCheckpoint checkpoint = session.get(LedgerCheckpoint.class, LedgerCheckpoint.ID);
+            return checkpoint == null ? 0 : checkpoint.getLastSequence();
+        } finally {
+            session.close();
+        }
+    }
+
+    private void onCheckpoint(long checkpoint) {
+        log.deleteSegmentsThrough(checkpoint);
+    }
+
+    private LedgerShard shardFor(String accountNumber) {
+        if (accountNumber == null) {
+            throw new IllegalArgumentException("Account number is required");
+        }
+        return shards[Math.floorMod(accountNumber.hashCode(), shards.length)];
+    }
+
+    // Only the accounts row is loaded, so an account still split into sub-balances (split before the
+    // ledger was turned on) is refused rather than posted to with part of its balance missing
+    private static AccountState loadAccount(String accountNumber) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            Account account = session.bySimpleNaturalId(Account.class).load(accountNumber);
+            if (account != null && account.getSubBalanceCount() > 0) {
+                throw new IllegalStateException("Account " + accountNumber
+                        + " is split into sub-balances, which the in-memory ledger does not support;"
+                        + " disable them with SubBalanceManager.disable first");
+            }
+            return account == null ? null : new AccountState(account.getId(), account.getBalance());
+        } finally {
+            session.close();
+        }
+    }
+
+    // Rounded to paise and range checked the way AccountService.toMoney does it, before anything is logged
+    private static Money toPositiveMoney(BigDecimal amount, String label) {
+        Money money;
+        try {
+            money = amount == null ? null : Money.of(amount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount out of range: " + amount);
+        }
+        if (money == null || !money.isPositive()) {
+            throw new IllegalArgumentException(label + " amount must be positive");
+        }
+        return money;
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+}
@@ -0,0 +1,156 @@
+package com.BankingApp.Ledger;
+
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Transactions;
+import com.BankingApp.Util.Money;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * One posting as written to the write-ahead log. balanceAfter is the absolute
+ * balance once the posting is applied, so replaying a record twice is harmless.
+ * A transfer is two records: TRANSFER_OUT on the source account, then
+ * TRANSFER_IN on the target, linked by transferId (the debit's transaction id).
+ */
+public class LedgerRecord {
+
+    public enum Kind {
+        DEPOSIT("DEPOSIT", "CREDIT"), WITHDRAWAL("WITHDRAWAL", "DEBIT"), TRANSFER_OUT("TRANSFER", "DEBIT"),
+        TRANSFER_IN("TRANSFER", "CREDIT");
+
+        private final String transactionType;
+        private final String direction;
+
+        Kind(String transactionType, String direction) {
+            this.transactionType = transactionType;
+            this.direction = direction;
+        }
+
+        // Value stored in transactions.type
+        public String getTransactionType() { return transactionType; }
+        // Value stored in transactions.direction
+        public String getDirection() { return direction; }
+    }
+
+    private final long sequence;
+    private final Kind kind;
+    private final LocalDateTime timestamp;
+    private final String transactionId;
+    private final String accountNumber;
+    private final long accountId;
+    private final BigDecimal amount;
+    private final BigDecimal balanceAfter;
+    private final String description;
+    private final String relatedAccountNumber;
+    private final String transferId;
+
+    public LedgerRecord(long sequence, Kind kind, LocalDateTime timestamp, String transactionId, String accountNumber,
+            long accountId, BigDecimal amount, BigDecimal balanceAfter, String description,
+            String relatedAccountNumber, String transferId) {
+        this.sequence = sequence;
+        this.kind = kind;
+        this.timestamp = timestamp;
+        this.transactionId = transactionId;
+        this.accountNumber = accountNumber;
+        this.accountId = accountId;
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+        this.description = description;
+        this.relatedAccountNumber = relatedAccountNumber;
+        this.transferId = transferId;
+    }
+
+    LedgerRecord withSequence(long sequence) {
+        return new LedgerRecord(sequence, kind, timestamp, transactionId, accountNumber, accountId, amount,
+                balanceAfter, description, relatedAccountNumber, transferId);
+    }
+
+    public long getSequence() { return sequence; }
+    public Kind getKind() { return kind; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public String getTransactionId() { return transactionId; }
+    public String getAccountNumber() { return accountNumber; }
+    public long getAccountId() { return accountId; }
+    public BigDecimal getAmount() { return amount; }
+    public BigDecimal getBalanceAfter() { return balanceAfter; }
+    public String getDescription() { return description; }
+    public String getRelatedAccountNumber() { return relatedAccountNumber; }
+    public String getTransferId() { return transferId; }
+
+    // Unsaved Transactions row for this posting; also what the service returns to callers
+    Transactions toTransactions(Account account) {
+        Transactions transaction = new Transactions();
+        transaction.setTransactionId(transactionId);
+        transaction.setType(kind.getTransactionType());
+        transaction.setDirection(kind.getDirection());
+        transaction.setAmount(Money.of(amount));
+        transaction.setDescription(description);
+        transaction.setTransactionDate(timestamp);
+        transaction.setBalanceAfterTransaction(Money.of(balanceAfter));
+        transaction.setRelatedAccountNumber(relatedAccountNumber);
+        transaction.setAccount(account);
+        return transaction;
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(sequence);
+            out.writeByte(kind.ordinal());
+            out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(timestamp.getNano());
+            out.writeUTF(transactionId);
+            out.writeUTF(accountNumber);
+            out.writeLong(accountId);
+            out.writeUTF(amount.toPlainString());
+            out.writeUTF(balanceAfter.toPlainString());
+            writeNullable(out, description);
+            writeNullable(out, relatedAccountNumber);
+            writeNullable(out, transferId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static LedgerRecord decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long sequence = in.readLong();
+        Kind kind = Kind.values()[in.readByte()];
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        return new LedgerRecord(sequence, kind, timestamp, in.readUTF(), in.readUTF(), in.readLong(),
+                new BigDecimal(in.readUTF()), new BigDecimal(in.readUTF()), readNullable(in), readNullable(in),
+                readNullable(in));
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerRecord{" +
+                "sequence=" + sequence +
+                ", kind=" + kind +
+                ", transactionId='" + transactionId + '\'' +
+                ", accountNumber='" + accountNumber + '\'' +
+                ", amount=" + amount +
+                ", balanceAfter=" + balanceAfter +
+                '}';
+    }
+}
@@ -0,0 +1,174 @@
+package com.BankingApp.Ledger;
+
+import com.BankingApp.Ledger.LedgerRecord.Kind;
+import com.BankingApp.Util.Money;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Owns the balances of the accounts hashed to it. Everything touching those
+ * balances runs on the shard's single thread, so postings to one account are
+ * applied strictly one after another without any locking. An account is
+ * loaded from the database the first time the shard sees it and then stays in
+ * memory.
+ */
+class LedgerShard {
+    private final ExecutorService thread;
+    private final Function<String, AccountState> loader;
+    private final WriteAheadLog log;
+    private final Map<String, AccountState> accounts = new HashMap<>(); // shard thread only
+
+    LedgerShard(int index, Function<String, AccountState> loader, WriteAheadLog log) {
+        this.loader = loader;
+        this.log = log;
+        this.thread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread t = new Thread(runnable, "ledger-shard-" + index);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Validates and applies the posting, then appends it to the log. The future
+     * completes once the record is durable, or with an IllegalArgumentException
+     * if the posting was rejected (nothing is applied or logged then). A
+     * TRANSFER_IN whose headroom was taken with reserveCredit is never rejected
+     * for the balance limit: its debit is already in the log.
+     */
+    CompletableFuture<LedgerRecord> post(Kind kind, String accountNumber, Money amount, String description,
+            String relatedAccountNumber, String transferId, String transactionId, boolean reserved) {
+        CompletableFuture<LedgerRecord> result = new CompletableFuture<>();
+        execute(result, () -> {
+            AccountState account = account(accountNumber);
+            if (account == null) {
+                throw new IllegalArgumentException(kind == Kind.DEPOSIT || kind == Kind.WITHDRAWAL
+                        ? "Account not found: " + accountNumber
+                        : "One or both accounts not found");
+            }
+            if (kind == Kind.WITHDRAWAL && account.balance.isLessThan(amount)) {
+                throw new IllegalArgumentException("Insufficient balance. Available: " + account.balance);
+            }
+            if (kind == Kind.TRANSFER_OUT && account.balance.isLessThan(amount)) {
+                throw new IllegalArgumentException("Insufficient balance for transfer. Available: " + account.balance);
+            }
+            boolean credit = kind == Kind.DEPOSIT || kind == Kind.TRANSFER_IN;
+            if (credit && reserved) {
+                account.reservedPaise -= amount.getPaise();
+            } else if (credit) {
+                checkCanCredit(accountNumber, account, amount);
+            }
+
+            account.balance = credit ? account.balance.plus(amount) : account.balance.minus(amount);
+            LedgerRecord record = new LedgerRecord(0, kind, LocalDateTime.now(), transactionId, accountNumber,
+                    account.id, amount.toBigDecimal(), account.balance.toBigDecimal(), description,
+                    relatedAccountNumber, transferId);
+            log.append(record).whenComplete((durable, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(durable);
+                }
+            });
+        });
+        return result;
+    }
+
+    /** Current balance, or null if the account does not exist. */
+    CompletableFuture<BigDecimal> balance(String accountNumber) {
+        CompletableFuture<BigDecimal> result = new CompletableFuture<>();
+        execute(result, () -> {
+            AccountState account = account(accountNumber);
+            result.complete(account == null ? null : account.balance.toBigDecimal());
+        });
+        return result;
+    }
+
+    /**
+     * Holds back room under the balance limit for a transfer's credit leg, so
+     * deposits arriving between the debit and the credit cannot use it up.
+     * Fails with an IllegalArgumentException if the account does not exist or
+     * the credit would not fit.
+     */
+    CompletableFuture<Void> reserveCredit(String accountNumber, Money amount) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        execute(result, () -> {
+            AccountState account = account(accountNumber);
+            if (account == null) {
+                throw new IllegalArgumentException("One or both accounts not found");
+            }
+            checkCanCredit(accountNumber, account, amount);
+            account.reservedPaise += amount.getPaise();
+            result.complete(null);
+        });
+        return result;
+    }
+
+    // For a transfer whose debit was rejected after reserveCredit
+    void releaseCredit(String accountNumber, Money amount) {
+        execute(new CompletableFuture<Void>(), () -> account(accountNumber).reservedPaise -= amount.getPaise());
+    }
+
+    /** Lets already submitted work finish, then stops the thread. */
+    void shutdown() throws InterruptedException {
+        thread.shutdown();
+        thread.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    void shutdownNow() {
+        thread.shutdownNow();
+    }
+
+    private void execute(CompletableFuture<?> result, Runnable task) {
+        try {
+            thread.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new IllegalStateException("Ledger is shut down"));
+        }
+    }
+
+    private AccountState account(String accountNumber) {
+        AccountState account = accounts.get(accountNumber);
+        if (account == null) {
+            account = loader.apply(accountNumber);
+            if (account != null) {
+                accounts.put(accountNumber, account);
+            }
+        }
+        return account;
+    }
+
+    // Same limit and message as AccountService: the balance must still fit its DECIMAL(15,2) column
+    private static void checkCanCredit(String accountNumber, AccountState account, Money amount) {
+        if (account.balance.getPaise() > Money.MAX_PAISE - account.reservedPaise - amount.getPaise()) {
+            throw new IllegalArgumentException("Balance of account " + accountNumber
+                    + " would exceed the maximum of " + Money.ofPaise(Money.MAX_PAISE));
+        }
+    }
+
+    static class AccountState {
+        final long id;
+        Money balance;
+        // Credits promised to transfers whose debit is still in flight
+        long reservedPaise;
+
+        AccountState(long id, Money balance) {
+            this.id = id;
+            this.balance = balance;
+        }
+    }
+}
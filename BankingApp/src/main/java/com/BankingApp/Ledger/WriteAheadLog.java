@@ -0,0 +1,337 @@
+package com.BankingApp.Ledger;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of ledger postings, split into segment files named after the
+ * first sequence number they hold (ledger-00000000000000000001.wal).
+ *
+ * Each entry is [payload length][CRC32 of payload][payload]. Appends from any
+ * thread are queued; one writer thread writes everything queued so far, fsyncs
+ * once for the whole group and only then completes the appends' futures, so a
+ * posting is acknowledged only once it is on disk.
+ *
+ * A torn entry at the end of the last segment (crash mid-write) is cut off on
+ * recovery; it was never acknowledged. A bad entry anywhere else is corruption
+ * and recovery refuses to continue.
+ */
+public class WriteAheadLog implements AutoCloseable {
+    private static final String PREFIX = "ledger-";
+    private static final String SUFFIX = ".wal";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_PAYLOAD_BYTES = 1 << 20;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final Consumer<List<LedgerRecord>> onDurable;
+
+    private final Object lock = new Object();
+    private List<PendingAppend> pending = new ArrayList<>(); // guarded by lock
+    private long lastSequence; // guarded by lock
+    private boolean closed; // guarded by lock
+    private volatile long durableSequence;
+    private volatile Exception failure;
+
+    // first sequence -> segment file; the last entry is the one being appended to
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel channel;
+    private Thread writer;
+
+    /**
+     * @param onDurable called on the writer thread with each group of records,
+     *                  in sequence order, right after they were fsynced
+     */
+    public WriteAheadLog(Path directory, long segmentBytes, Consumer<List<LedgerRecord>> onDurable) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.onDurable = onDurable;
+    }
+
+    /**
+     * Reads every segment and returns the records with a sequence above
+     * afterSequence, in order. New appends continue after the highest sequence
+     * seen, and never at or below afterSequence. Must be called once, before start().
+     */
+    public List<LedgerRecord> recover(long afterSequence) throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                segments.put(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())), file);
+            }
+        }
+
+        List<LedgerRecord> replay = new ArrayList<>();
+        long highest = afterSequence;
+        for (Iterator<Map.Entry<Long, Path>> it = segments.entrySet().iterator(); it.hasNext();) {
+            Path segment = it.next().getValue();
+            List<LedgerRecord> records = new ArrayList<>();
+            long validBytes = readSegment(segment, records);
+            if (validBytes < Files.size(segment)) {
+                if (it.hasNext()) {
+                    throw new IOException("Corrupt ledger segment " + segment + " at byte " + validBytes);
+                }
+                try (FileChannel tail = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                    tail.truncate(validBytes);
+                    tail.force(true);
+                }
+            }
+            for (LedgerRecord record : records) {
+                if (record.getSequence() <= highest && record.getSequence() > afterSequence) {
+                    throw new IOException("Out-of-order sequence " + record.getSequence() + " in " + segment);
+                }
+                highest = Math.max(highest, record.getSequence());
+                if (record.getSequence() > afterSequence) {
+                    replay.add(record);
+                }
+            }
+        }
+
+        synchronized (lock) {
+            lastSequence = highest;
+        }
+        durableSequence = highest;
+        if (segments.isEmpty()) {
+            openSegment(highest + 1);
+        } else {
+            channel = FileChannel.open(segments.lastEntry().getValue(), StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+        return replay;
+    }
+
+    public void start() {
+        writer = new Thread(this::writeLoop, "ledger-wal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Queues the record under the next sequence number; the future completes once it is fsynced. */
+    public CompletableFuture<LedgerRecord> append(LedgerRecord record) {
+        CompletableFuture<LedgerRecord> future = new CompletableFuture<>();
+        synchronized (lock) {
+            if (failure != null) {
+                future.completeExceptionally(new IllegalStateException("Ledger log failed", failure));
+                return future;
+            }
+            if (closed) {
+                future.completeExceptionally(new IllegalStateException("Ledger log is closed"));
+                return future;
+            }
+            pending.add(new PendingAppend(record.withSequence(++lastSequence), future));
+            if (pending.size() == 1) {
+                lock.notify();
+            }
+        }
+        return future;
+    }
+
+    /** Highest sequence handed out so far (possibly not yet durable). */
+    public long getLastSequence() {
+        synchronized (lock) {
+            return lastSequence;
+        }
+    }
+
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    /** Deletes segments whose records all have a sequence at or below the given one. Never deletes the active segment. */
+    public void deleteSegmentsThrough(long sequence) {
+        List<Path> obsolete = new ArrayList<>();
+        synchronized (segments) {
+            Iterator<Map.Entry<Long, Path>> it = segments.entrySet().iterator();
+            Map.Entry<Long, Path> current = it.hasNext() ? it.next() : null;
+            while (current != null && it.hasNext()) {
+                Map.Entry<Long, Path> next = it.next();
+                if (next.getKey() - 1 > sequence) {
+                    break;
+                }
+                obsolete.add(current.getValue());
+                current = next;
+            }
+            for (Path path : obsolete) {
+                segments.values().remove(path);
+            }
+        }
+        for (Path path : obsolete) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                System.err.println("Could not delete ledger segment " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /** Writes and fsyncs everything already appended, then stops the writer. */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notify();
+        }
+        try {
+            if (writer != null) {
+                writer.join();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Error closing ledger log: " + e.getMessage());
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            List<PendingAppend> batch;
+            synchronized (lock) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+
+            try {
+                writeBatch(batch);
+            } catch (IOException | RuntimeException e) {
+                fail(e, batch);
+                return;
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingAppend> batch) throws IOException {
+        if (channel.size() >= segmentBytes) {
+            channel.force(true);
+            channel.close();
+            openSegment(batch.get(0).record.getSequence());
+        }
+
+        List<byte[]> payloads = new ArrayList<>(batch.size());
+        int size = 0;
+        for (PendingAppend append : batch) {
+            byte[] payload = append.record.encode();
+            payloads.add(payload);
+            size += HEADER_BYTES + payload.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        CRC32 crc = new CRC32();
+        for (byte[] payload : payloads) {
+            crc.reset();
+            crc.update(payload, 0, payload.length);
+            buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+
+        List<LedgerRecord> records = new ArrayList<>(batch.size());
+        for (PendingAppend append : batch) {
+            records.add(append.record);
+        }
+        durableSequence = records.get(records.size() - 1).getSequence();
+        onDurable.accept(records);
+        for (PendingAppend append : batch) {
+            append.future.complete(append.record);
+        }
+    }
+
+    // The in-memory balances may already include postings that never reached the disk,
+    // so after a write failure nothing more is acknowledged until the ledger is restarted
+    private void fail(Exception e, List<PendingAppend> batch) {
+        List<PendingAppend> failed = new ArrayList<>(batch);
+        synchronized (lock) {
+            failure = e;
+            failed.addAll(pending);
+            pending = new ArrayList<>();
+        }
+        System.err.println("Ledger log write failed, refusing further postings: " + e.getMessage());
+        for (PendingAppend append : failed) {
+            append.future.completeExceptionally(new IllegalStateException("Ledger log failed", e));
+        }
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        synchronized (segments) {
+            segments.put(firstSequence, path);
+        }
+        // Make the new directory entry itself durable (not supported on every platform)
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException ignored) {
+        }
+    }
+
+    // Reads entries until the end of the file or the first incomplete/corrupt one; returns the valid length
+    private static long readSegment(Path segment, List<LedgerRecord> records) throws IOException {
+        long validBytes = 0;
+        try (InputStream file = Files.newInputStream(segment);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+            CRC32 crc = new CRC32();
+            while (true) {
+                int length = in.readInt();
+                if (length <= 0 || length > MAX_PAYLOAD_BYTES) {
+                    break;
+                }
+                int expectedCrc = in.readInt();
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != expectedCrc) {
+                    break;
+                }
+                records.add(LedgerRecord.decode(payload));
+                validBytes += HEADER_BYTES + length;
+            }
+        } catch (EOFException endOfSegment) {
+            // Clean end of file, or a torn last entry
+        }
+        return validBytes;
+    }
+
+    private static class PendingAppend {
+        final LedgerRecord record;
+        final CompletableFuture<LedgerRecord> future;
+
+        PendingAppend(LedgerRecord record, CompletableFuture<LedgerRecord> future) {
+            this.record = record;
+            this.future = future;
+        }
+    }
+}
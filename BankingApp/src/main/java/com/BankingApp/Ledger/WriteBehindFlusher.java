@@ -0,0 +1,337 @@
+package com.BankingApp.Ledger;
+
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.LedgerCheckpoint;
+import com.BankingApp.Entities.Transactions;
+import com.BankingApp.Journal.JournalEntry;
+import com.BankingApp.Journal.TransactionJournal;
+import com.BankingApp.Ledger.LedgerRecord.Kind;
+import com.BankingApp.Service.BalanceSnapshotService;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * Writes durable ledger records to the transactions/accounts tables in batches,
+ * in sequence order, and advances the checkpoint in the same database
+ * transaction. A batch goes out when flushBatchSize records are waiting, when
+ * flushIntervalMillis has passed, or when someone waits in awaitFlushed().
+ *
+ * The checkpoint never passes a transfer debit whose credit has not been
+ * written yet, so the log keeps both legs until the transfer is complete.
+ * Records between the checkpoint and what was already written (held back that
+ * way) are replayed after a restart; those batches skip transaction ids that
+ * already exist. Account balances are written as absolute values, so
+ * re-applying them is harmless. Rows it inserts go to the transaction journal,
+ * if one is given, once their batch has committed.
+ */
+class WriteBehindFlusher {
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 30000;
+
+    private final int batchSize;
+    private final long intervalMillis;
+    private final LongConsumer onCheckpoint;
+    private final TransactionJournal journal;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<LedgerRecord> queue = new ArrayDeque<>(); // guarded by lock
+    private long flushedSequence; // guarded by lock
+    private boolean urgent; // guarded by lock
+    private volatile boolean closed;
+    private volatile boolean aborted;
+    // Set when a batch failed in a way retrying cannot fix; the flusher has stopped
+    private volatile RuntimeException failure;
+
+    // Flusher thread only
+    private final Map<String, Long> openTransfers = new HashMap<>();
+    private long checkpoint;
+    private long recoveredThrough;
+    private Thread thread;
+
+    /** @param journal where committed rows are appended; null for none */
+    WriteBehindFlusher(int batchSize, long intervalMillis, LongConsumer onCheckpoint, TransactionJournal journal) {
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+        this.onCheckpoint = onCheckpoint;
+        this.journal = journal;
+    }
+
+    /**
+     * @param recoveredThrough highest sequence replayed from the log at startup;
+     *                         batches up to it check for rows that already exist
+     */
+    void start(long checkpoint, long recoveredThrough) {
+        this.checkpoint = checkpoint;
+        this.recoveredThrough = recoveredThrough;
+        synchronized (lock) {
+            flushedSequence = checkpoint;
+        }
+        thread = new Thread(this::flushLoop, "ledger-flusher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void enqueue(List<LedgerRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            queue.addAll(records);
+            if (queue.size() >= batchSize) {
+                lock.notify();
+            }
+        }
+    }
+
+    /** Flushes immediately and waits until every record up to sequence is in the database. */
+    boolean awaitFlushed(long sequence, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (lock) {
+            while (flushedSequence < sequence) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0 || aborted || failure != null) {
+                    return false;
+                }
+                urgent = true;
+                lock.notifyAll();
+                lock.wait(Math.min(remaining, 50));
+            }
+            return true;
+        }
+    }
+
+    /** Why the flusher stopped writing, or null while it is running normally. */
+    RuntimeException getFailure() {
+        return failure;
+    }
+
+    long getFlushedSequence() {
+        synchronized (lock) {
+            return flushedSequence;
+        }
+    }
+
+    /** Writes everything still queued, then stops. */
+    void close() throws InterruptedException {
+        closed = true;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    /** Stops without writing what is queued (it stays in the log for recovery). */
+    void abort() throws InterruptedException {
+        aborted = true;
+        close();
+    }
+
+    private void flushLoop() {
+        while (!aborted) {
+            List<LedgerRecord> batch = new ArrayList<>();
+            synchronized (lock) {
+                long deadline = System.currentTimeMillis() + intervalMillis;
+                while (!closed && !urgent && queue.size() < batchSize) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    try {
+                        lock.wait(remaining);
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                if (aborted) {
+                    return;
+                }
+                if (queue.isEmpty()) {
+                    urgent = false;
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                while (batch.size() < batchSize && !queue.isEmpty()) {
+                    batch.add(queue.poll());
+                }
+                if (queue.isEmpty()) {
+                    urgent = false;
+                }
+            }
+
+            if (!writeWithRetry(batch)) {
+                return;
+            }
+            synchronized (lock) {
+                flushedSequence = batch.get(batch.size() - 1).getSequence();
+                lock.notifyAll();
+            }
+            onCheckpoint.accept(checkpoint);
+        }
+    }
+
+    // The records are safe in the log, so a database outage only delays them. A failure that is not the
+    // database's (a record the tables cannot hold, an account that is gone) would fail the same way forever,
+    // so the flusher parks instead: waiters are released with the error and the records stay in the log.
+    private boolean writeWithRetry(List<LedgerRecord> batch) {
+        long backoff = 1000;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write(batch);
+                return true;
+            } catch (RuntimeException e) {
+                System.err.println("Ledger flush of " + batch.size() + " records failed (attempt " + attempt + "): "
+                        + e.getMessage());
+                if (!isTransient(e)) {
+                    System.err.println("Ledger flusher stopped at sequence " + batch.get(0).getSequence()
+                            + "; the batch cannot be written as it is");
+                    synchronized (lock) {
+                        failure = e;
+                        lock.notifyAll();
+                    }
+                    return false;
+                }
+                if (aborted || (closed && attempt >= 3)) {
+                    return false;
+                }
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    return false;
+                }
+                backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    // Only SQL errors that may clear up by themselves (connection loss, lock timeouts, deadlocks)
+    static boolean isTransient(Throwable error) {
+        boolean sql = false;
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLNonTransientException) {
+                return false;
+            }
+            sql |= cause instanceof SQLException;
+        }
+        return sql;
+    }
+
+    private void write(List<LedgerRecord> batch) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = null;
+        List<JournalEntry> journalEntries = new ArrayList<>(batch.size());
+        try {
+            transaction = session.beginTransaction();
+
+            Set<String> existing = batch.get(0).getSequence() <= recoveredThrough
+                    ? existingTransactionIds(session, batch)
+                    : Collections.<String>emptySet();
+
+            // Last balance per account in this batch, accounts loaded in one round trip
+            Map<Long, BigDecimal> balances = new LinkedHashMap<>();
+            for (LedgerRecord record : batch) {
+                balances.put(record.getAccountId(), record.getBalanceAfter());
+            }
+            Map<Long, Account> accounts = new HashMap<>();
+            for (Account account : session.byMultipleIds(Account.class).multiLoad(new ArrayList<>(balances.keySet()))) {
+                if (account != null) {
+                    accounts.put(account.getId(), account);
+                }
+            }
+
+            for (LedgerRecord record : batch) {
+                Account account = accounts.get(record.getAccountId());
+                if (account == null) {
+                    throw new IllegalStateException("Account " + record.getAccountNumber() + " no longer exists");
+                }
+                if (!existing.contains(record.getTransactionId())) {
+                    Transactions row = record.toTransactions(account);
+                    session.persist(row);
+                    journalEntries.add(JournalEntry.of(JournalEntry.Kind.valueOf(record.getKind().name()), row));
+                }
+            }
+            for (Map.Entry<Long, BigDecimal> balance : balances.entrySet()) {
+                accounts.get(balance.getKey()).setBalance(Money.of(balance.getValue()));
+            }
+
+            long newCheckpoint = nextCheckpoint(batch);
+            LedgerCheckpoint stored = session.get(LedgerCheckpoint.class, LedgerCheckpoint.ID);
+            if (stored == null) {
+                session.persist(new LedgerCheckpoint(newCheckpoint));
+            } else {
+                stored.setLastSequence(newCheckpoint);
+            }
+
+            // Only rows inserted now: replayed ones were already counted when first written
+            BalanceSnapshotService.applyPostings(session, journalEntries);
+            transaction.commit();
+            checkpoint = newCheckpoint;
+            appendToJournal(journalEntries);
+        } catch (RuntimeException e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            session.close();
+        }
+    }
+
+    // After commit, like AccountService: a journal failure must not make the batch look unwritten
+    private void appendToJournal(List<JournalEntry> entries) {
+        if (journal == null || entries.isEmpty()) {
+            return;
+        }
+        try {
+            journal.append(entries).join();
+        } catch (RuntimeException e) {
+            System.err.println("Could not journal " + entries.size() + " ledger transactions: " + e.getMessage());
+        }
+    }
+
+    // Highest sequence below every transfer still waiting for its credit leg
+    private long nextCheckpoint(List<LedgerRecord> batch) {
+        for (LedgerRecord record : batch) {
+            if (record.getKind() == Kind.TRANSFER_OUT) {
+                openTransfers.put(record.getTransferId(), record.getSequence());
+            } else if (record.getKind() == Kind.TRANSFER_IN) {
+                openTransfers.remove(record.getTransferId());
+            }
+        }
+        long next = batch.get(batch.size() - 1).getSequence();
+        for (long debitSequence : openTransfers.values()) {
+            next = Math.min(next, debitSequence - 1);
+        }
+        return Math.max(checkpoint, next);
+    }
+
+    private Set<String> existingTransactionIds(Session session, List<LedgerRecord> batch) {
+        List<String> ids = new ArrayList<>(batch.size());
+        for (LedgerRecord record : batch) {
+            ids.add(record.getTransactionId());
+        }
+        return new HashSet<>(session
+                .createQuery("SELECT t.transactionId FROM Transactions t WHERE t.transactionId IN :ids", String.class)
+                .setParameter("ids", ids)
+                .list());
+    }
+}
@@ -0,0 +1,204 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.Util.AppConfig;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-process locks that line up postings to the same account before they open
+ * a Session, so they queue here instead of on the database row lock (and its
+ * lock wait timeouts and deadlock rollbacks). Postings to different accounts
+ * almost never share a lock.
+ *
+ * Accounts are hashed onto a fixed array of banking.locks.stripes locks
+ * (rounded up to a power of two), so memory stays constant however many
+ * accounts there are. A transfer takes its two stripes in stripe order; two
+ * accounts on the same stripe take it once. Only this JVM is covered: other
+ * app nodes are still kept in line by the database locks.
+ *
+ * Every acquisition records how long it waited in a histogram of
+ * power-of-two microsecond buckets.
+ */
+public class AccountLockManager {
+
+    // Bucket i counts waits of less than 2^i microseconds; the last bucket takes the rest
+    private static final int BUCKETS = 24;
+
+    private static final AccountLockManager instance = new AccountLockManager(
+            AppConfig.getInt("banking.locks.stripes", 1024),
+            AppConfig.getLong("banking.locks.wait_timeout_ms", 10000));
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long waitTimeoutNanos;
+
+    private final LongAdder[] waitBuckets = new LongAdder[BUCKETS];
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder contendedCount = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder timeoutCount = new LongAdder();
+
+    public AccountLockManager(int stripeCount, long waitTimeoutMillis) {
+        if (stripeCount <= 0 || waitTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("stripeCount and waitTimeoutMillis must be positive");
+        }
+        int size = Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ReentrantLock[Math.max(size, 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = stripes.length - 1;
+        this.waitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(waitTimeoutMillis);
+        for (int i = 0; i < BUCKETS; i++) {
+            waitBuckets[i] = new LongAdder();
+        }
+    }
+
+    public static AccountLockManager getInstance() {
+        return instance;
+    }
+
+    /** Runs the action holding the account's stripe. A null account number takes no lock. */
+    public <T> T withLock(String accountNumber, Supplier<T> action) {
+        if (accountNumber == null) {
+            return action.get();
+        }
+        ReentrantLock lock = stripes[stripeOf(accountNumber)];
+        acquire(lock, accountNumber);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Runs the action holding both accounts' stripes, taken lowest stripe first. */
+    public <T> T withLocks(String accountNumber, String otherAccountNumber, Supplier<T> action) {
+        if (accountNumber == null || otherAccountNumber == null) {
+            return withLock(accountNumber != null ? accountNumber : otherAccountNumber, action);
+        }
+        int stripe = stripeOf(accountNumber);
+        int otherStripe = stripeOf(otherAccountNumber);
+        if (stripe == otherStripe) {
+            return withLock(accountNumber, action);
+        }
+        ReentrantLock first = stripes[Math.min(stripe, otherStripe)];
+        ReentrantLock second = stripes[Math.max(stripe, otherStripe)];
+        acquire(first, stripe < otherStripe ? accountNumber : otherAccountNumber);
+        try {
+            acquire(second, stripe < otherStripe ? otherAccountNumber : accountNumber);
+            try {
+                return action.get();
+            } finally {
+                second.unlock();
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+
+    int stripeOf(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void acquire(ReentrantLock lock, String accountNumber) {
+        acquireCount.increment();
+        if (lock.tryLock()) {
+            waitBuckets[0].increment();
+            return;
+        }
+        contendedCount.increment();
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for lock on account " + accountNumber, e);
+        }
+        long waited = System.nanoTime() - start;
+        record(waited);
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new RuntimeException("Timed out after " + TimeUnit.NANOSECONDS.toMillis(waited)
+                    + " ms waiting for lock on account " + accountNumber);
+        }
+    }
+
+    private void record(long waited) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(waited);
+        int bucket = micros == 0 ? 0 : 64 - Long.numberOfLeadingZeros(micros);
+        waitBuckets[Math.min(bucket, BUCKETS - 1)].increment();
+        waitNanos.add(waited);
+        maxWaitNanos.accumulate(waited);
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    /** Acquisitions that found the stripe held and had to wait. */
+    public long getContendedCount() {
+        return contendedCount.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getTotalWaitNanos());
+    }
+
+    public long getTotalWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    public long getMaxWaitMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get());
+    }
+
+    /**
+     * Lock waits by bucket: each key is a bucket's exclusive upper bound in
+     * microseconds (Long.MAX_VALUE for the last), each value the number of
+     * acquisitions that waited that long. Uncontended acquisitions are in the
+     * first bucket. Empty buckets are left out.
+     */
+    public Map<Long, Long> getWaitHistogram() {
+        Map<Long, Long> histogram = new TreeMap<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = waitBuckets[i].sum();
+            if (count > 0) {
+                histogram.put(i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i, count);
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * The same buckets cumulatively, every bucket included, for a Prometheus
+     * histogram: each value counts the acquisitions that waited less than its
+     * key, so the last one (Long.MAX_VALUE) is all of them.
+     */
+    public Map<Long, Long> getCumulativeWaitHistogram() {
+        Map<Long, Long> histogram = new TreeMap<>();
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += waitBuckets[i].sum();
+            histogram.put(i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i, count);
+        }
+        return histogram;
+    }
+}
@@ -1,263 +1,876 @@
 package com.BankingApp.Service;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.PessimisticLockException;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StaleStateException;
+import org.hibernate.StatelessSession;
 import org.hibernate.Transaction; // Import Hibernate Transaction
+import org.hibernate.exception.LockAcquisitionException;
 import org.hibernate.query.Query;
 import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.AccountSubBalance;
 import com.BankingApp.Entities.Customer;
 import com.BankingApp.Entities.Transactions;
+import com.BankingApp.Journal.JournalEntry;
+import com.BankingApp.Journal.TransactionJournal;
+import com.BankingApp.Ledger.LedgerEngine;
+import com.BankingApp.Util.AppConfig;
 import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.IdGenerator;
+import com.BankingApp.Util.Money;
 
 import java.math.BigDecimal; 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public class AccountService {
 
+    private static final int MAX_ATTEMPTS = AppConfig.getInt("banking.retry.max_attempts", 5);
+    private static final long BACKOFF_MILLIS = AppConfig.getLong("banking.retry.backoff_ms", 10);
+    private static final long MAX_BACKOFF_MILLIS = AppConfig.getLong("banking.retry.max_backoff_ms", 500);
+    private static final int BATCH_CHUNK_SIZE = AppConfig.getInt("banking.batch.chunk_size", 500);
+    private static final int HISTORY_FETCH_SIZE = AppConfig.getInt("banking.history.fetch_size", 500);
+    private static final ConcurrencyMode CONCURRENCY_MODE = ConcurrencyMode
+            .valueOf(AppConfig.get("banking.concurrency.mode", "PESSIMISTIC").toUpperCase());
+    // When enabled, postings and balance reads go through the in-memory ledger instead of the database
+    private static final LedgerEngine LEDGER = LedgerEngine.isEnabled() ? LedgerEngine.getInstance() : null;
+    // Every committed Transactions row is also appended here (the ledger's flusher does the same for its rows).
+    // The same entries feed the daily balance snapshots, inside the posting transaction.
+    private static final TransactionJournal JOURNAL = TransactionJournal.isEnabled()
+            ? TransactionJournal.getInstance()
+            : null;
+    // deposit/withdraw/transfer queue per account in this JVM before taking database row locks
+    private static final AccountLockManager LOCKS = AppConfig.getBoolean("banking.locks.enabled", true)
+            ? AccountLockManager.getInstance()
+            : null;
+
     public Account createAccount(Customer customer, String accountType) {
-        String accountNumber = generateAccountNumber();
+        return OperationMetrics.time("AccountService.createAccount", () -> {
+            String accountNumber = generateAccountNumber();
+
+            Account account = new Account(accountNumber, accountType, customer);
+
+            Session session = HibernateUtil.getSessionFactory().openSession();
+            Transaction dbTransaction = null; // Now using Hibernate Transaction
+
+            try {
+                dbTransaction = session.beginTransaction();
+                session.persist(account);
+                dbTransaction.commit();
+                HibernateUtil.recordWrite(accountNumber);
+                return account;
+            } catch (Exception e) {
+                if (dbTransaction != null)
+                    dbTransaction.rollback();
+                throw new RuntimeException("Error creating account: " + e.getMessage(), e);
+            } finally {
+                session.close();
+            }
+        });
+    }
+
+    public Account getAccountByNumber(String accountNumber) {
+        return OperationMetrics.time("AccountService.getAccountByNumber", () -> {
+            Session session = readSessionFactory(accountNumber).openSession();
+            try {
+                Account account = session.bySimpleNaturalId(Account.class).load(accountNumber);
+                if (account != null && LEDGER != null) {
+                    // The row only has what the flusher has written so far; the ledger has every posting
+                    session.detach(account);
+                    account.setBalance(Money.of(LEDGER.getBalance(accountNumber)));
+                } else if (account != null && account.getSubBalanceCount() > 0) {
+                    // Callers see the whole balance of a split account
+                    session.detach(account);
+                    account.setBalance(SubBalanceManager.total(session, account));
+                }
+                return account;
+            } finally {
+                session.close();
+            }
+        });
+    }
 
-        Account account = new Account(accountNumber, accountType, customer);
+    public Transactions deposit(String accountNumber, BigDecimal amount, String description) {
+        return OperationMetrics.time("AccountService.deposit", () -> {
+            try {
+                if (LEDGER != null) {
+                    return LEDGER.deposit(accountNumber, amount, description);
+                }
+                int slots = subBalanceCount(accountNumber);
+                if (slots > 0) {
+                    // Split account: deposits to different slots neither share a stripe nor a row lock
+                    int slot = ThreadLocalRandom.current().nextInt(slots);
+                    List<JournalEntry> journal = new ArrayList<>(1);
+                    Transactions transaction = executeWithRetry("deposit", () -> underLock(accountNumber + "#" + slot,
+                            () -> doSubBalanceDeposit(accountNumber, slot, amount, description, journal)));
+                    appendToJournal(journal);
+                    return transaction;
+                }
+                List<JournalEntry> journal = new ArrayList<>(1);
+                Transactions transaction = executeWithRetry("deposit",
+                        () -> underLock(accountNumber, () -> doDeposit(accountNumber, amount, description, journal)));
+                appendToJournal(journal);
+                return transaction;
+            } catch (Exception e) {
+                throw new RuntimeException("Deposit failed for account " + accountNumber + ": " + e.getMessage(), e);
+            }
+        });
+    }
 
+    // Fills journal with the committed postings; the caller appends them once the stripe is released
+    private Transactions doDeposit(String accountNumber, BigDecimal amount, String description,
+            List<JournalEntry> journal) {
         Session session = HibernateUtil.getSessionFactory().openSession();
-        Transaction dbTransaction = null; // Now using Hibernate Transaction
+        Transaction dbTransaction = null; // Using Hibernate Transaction
+        journal.clear();
 
         try {
             dbTransaction = session.beginTransaction();
-            session.persist(account);
+
+            // Get account
+            Account account = loadForUpdate(session, accountNumber);
+            Transactions transaction = postDeposit(session, accountNumber, account, toMoney(amount), description,
+                    journal);
+
+            BalanceSnapshotService.applyPostings(session, journal);
             dbTransaction.commit();
-            return account;
-        } catch (Exception e) {
-            if (dbTransaction != null)
+            recordWrites(journal);
+            return transaction;
+
+        } catch (RuntimeException e) {
+            if (dbTransaction != null && dbTransaction.isActive()) {
                 dbTransaction.rollback();
-            throw new RuntimeException("Error creating account: " + e.getMessage(), e);
+            }
+            throw e;
         } finally {
             session.close();
         }
     }
 
-    public Account getAccountByNumber(String accountNumber) {
+    private Transactions doSubBalanceDeposit(String accountNumber, int slot, BigDecimal amount, String description,
+            List<JournalEntry> journal) {
         Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction dbTransaction = null;
+        journal.clear();
+
         try {
-            Query<Account> query = session.createQuery("FROM Account WHERE accountNumber = :accountNumber",
-                    Account.class);
-            query.setParameter("accountNumber", accountNumber);
-            return query.uniqueResult();
+            dbTransaction = session.beginTransaction();
+
+            // The accounts row is only read; the slot row is the one locked and updated
+            Account account = session.bySimpleNaturalId(Account.class).load(accountNumber);
+            AccountSubBalance subBalance = account == null ? null
+                    : session.get(AccountSubBalance.class, new AccountSubBalance.Key(account.getId(), slot),
+                            LockMode.PESSIMISTIC_WRITE);
+            Transactions transaction;
+            if (subBalance == null) {
+                // No longer split (or gone): the usual row-locked deposit
+                transaction = postDeposit(session, accountNumber, loadForUpdate(session, accountNumber),
+                        toMoney(amount), description, journal);
+            } else {
+                transaction = postSubBalanceDeposit(session, account, subBalance, toMoney(amount), description,
+                        journal);
+            }
+
+            BalanceSnapshotService.applyPostings(session, journal);
+            dbTransaction.commit();
+            recordWrites(journal);
+            return transaction;
+
+        } catch (RuntimeException e) {
+            if (dbTransaction != null && dbTransaction.isActive()) {
+                dbTransaction.rollback();
+            }
+            throw e;
         } finally {
             session.close();
         }
     }
 
-    public Transactions deposit(String accountNumber, BigDecimal amount, String description) {
+    public Transactions withdraw(String accountNumber, BigDecimal amount, String description) {
+        return OperationMetrics.time("AccountService.withdraw", () -> {
+            try {
+                if (LEDGER != null) {
+                    return LEDGER.withdraw(accountNumber, amount, description);
+                }
+                List<JournalEntry> journal = new ArrayList<>(1);
+                Transactions transaction = executeWithRetry("withdraw",
+                        () -> underLock(accountNumber, () -> doWithdraw(accountNumber, amount, description, journal)));
+                appendToJournal(journal);
+                return transaction;
+            } catch (Exception e) {
+                throw new RuntimeException("Error processing withdrawal: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private Transactions doWithdraw(String accountNumber, BigDecimal amount, String description,
+            List<JournalEntry> journal) {
         Session session = HibernateUtil.getSessionFactory().openSession();
         Transaction dbTransaction = null; // Using Hibernate Transaction
+        journal.clear();
 
         try {
             dbTransaction = session.beginTransaction();
 
-            // Get account
-            Account account = session.createQuery("FROM Account WHERE accountNumber = :accountNumber", Account.class)
-                    .setParameter("accountNumber", accountNumber)
-                    .uniqueResult();
-
-            // Validations
-            if (account == null) {
-                throw new IllegalArgumentException("Account not found: " + accountNumber);
-            }
-            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-                throw new IllegalArgumentException("Deposit amount must be positive");
-            }
-
-            // Update balance
-            account.deposit(amount);
-
-            // Create transaction record
-            Transactions transaction = new Transactions(
-                generateTransactionId(), 
-                "DEPOSIT", 
-                amount, 
-                description, 
-                account
-            );
-            transaction.setBalanceAfterTransaction(account.getBalance());
-            session.persist(transaction);
+            // Get account within the same session
+            Account account = loadForUpdate(session, accountNumber);
+            Transactions transaction = postWithdrawal(session, accountNumber, account, toMoney(amount),
+                    description, journal);
 
+            BalanceSnapshotService.applyPostings(session, journal);
             dbTransaction.commit();
+            recordWrites(journal);
             return transaction;
 
-        } catch (Exception e) {
-            if (dbTransaction != null) {
+        } catch (RuntimeException e) {
+            if (dbTransaction != null && dbTransaction.isActive())
                 dbTransaction.rollback();
-            }
-            throw new RuntimeException("Deposit failed for account " + accountNumber + ": " + e.getMessage(), e);
+            throw e;
         } finally {
-            if (session != null && session.isOpen()) {
-                session.close();
-            }
+            session.close();
         }
     }
 
-    public Transactions withdraw(String accountNumber, BigDecimal amount, String description) {
+    public Transactions transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount,
+            String description) {
+        return OperationMetrics.time("AccountService.transfer", () -> {
+            try {
+                if (LEDGER != null) {
+                    return LEDGER.transfer(fromAccountNumber, toAccountNumber, amount, description);
+                }
+                List<JournalEntry> journal = new ArrayList<>(2);
+                Transactions transaction = executeWithRetry("transfer", () -> underLocks(fromAccountNumber,
+                        toAccountNumber, () -> doTransfer(fromAccountNumber, toAccountNumber, amount, description,
+                                journal)));
+                appendToJournal(journal);
+                return transaction;
+            } catch (Exception e) {
+                throw new RuntimeException("Error processing transfer: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private Transactions doTransfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount,
+            String description, List<JournalEntry> journal) {
         Session session = HibernateUtil.getSessionFactory().openSession();
         Transaction dbTransaction = null; // Using Hibernate Transaction
+        journal.clear();
 
         try {
             dbTransaction = session.beginTransaction();
 
-            // Get account within the same session
-            Account account = session.createQuery("FROM Account WHERE accountNumber = :accountNumber", Account.class)
-                    .setParameter("accountNumber", accountNumber)
-                    .uniqueResult();
+            // Lock both rows in ascending account number order so that two transfers
+            // going in opposite directions can never wait on each other
+            boolean fromFirst = fromAccountNumber.compareTo(toAccountNumber) <= 0;
+            Account first = lockAccount(session, fromFirst ? fromAccountNumber : toAccountNumber);
+            Account second = lockAccount(session, fromFirst ? toAccountNumber : fromAccountNumber);
+            Account fromAccount = fromFirst ? first : second;
+            Account toAccount = fromFirst ? second : first;
+
+            Transactions debitTransaction = postTransfer(session, fromAccountNumber, toAccountNumber, fromAccount,
+                    toAccount, toMoney(amount), description, journal);
+
+            BalanceSnapshotService.applyPostings(session, journal);
+            dbTransaction.commit();
+            recordWrites(journal);
+            return debitTransaction;
 
-            if (account == null) {
-                throw new IllegalArgumentException("Account not found: " + accountNumber);
+        } catch (RuntimeException e) {
+            if (dbTransaction != null && dbTransaction.isActive())
+                dbTransaction.rollback();
+            throw e;
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * Runs a whole payment file of deposits, withdrawals and transfers. Items are
+     * posted in chunks of banking.batch.chunk_size, one session and database
+     * transaction per chunk, with all accounts of a chunk locked by a single IN
+     * query. An item that fails validation is rejected on its own; the rest of the
+     * chunk still commits. Results are returned in request order.
+     */
+    public List<BatchItemResult> processBatch(List<TransferRequest> requests) {
+        return OperationMetrics.time("AccountService.processBatch", () -> {
+            if (LEDGER != null) {
+                return processBatchInLedger(requests);
+            }
+            List<BatchItemResult> results = new ArrayList<>(requests.size());
+            for (int start = 0; start < requests.size(); start += BATCH_CHUNK_SIZE) {
+                List<TransferRequest> chunk = requests.subList(start,
+                        Math.min(start + BATCH_CHUNK_SIZE, requests.size()));
+                results.addAll(processChunkOrSplit(start, chunk));
             }
+            return results;
+        });
+    }
 
-            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-                throw new IllegalArgumentException("Withdrawal amount must be positive");
+    // Submits every item before waiting on any, so the shards work through the batch in parallel
+    private List<BatchItemResult> processBatchInLedger(List<TransferRequest> requests) {
+        List<CompletableFuture<Transactions>> submitted = new ArrayList<>(requests.size());
+        for (TransferRequest request : requests) {
+            CompletableFuture<Transactions> future;
+            try {
+                future = submitToLedger(request);
+            } catch (RuntimeException e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
             }
+            submitted.add(future);
+        }
 
-            // Check sufficient balance
-            if (account.getBalance().compareTo(amount) < 0) {
-                throw new IllegalArgumentException("Insufficient balance. Available: " + account.getBalance());
+        List<BatchItemResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                results.add(BatchItemResult.accepted(i, requests.get(i), LedgerEngine.await(submitted.get(i))));
+            } catch (IllegalArgumentException e) {
+                results.add(BatchItemResult.rejected(i, requests.get(i), e.getMessage()));
+            } catch (RuntimeException e) {
+                results.add(BatchItemResult.rejected(i, requests.get(i), "Ledger error: " + e.getMessage()));
             }
+        }
+        return results;
+    }
+
+    private CompletableFuture<Transactions> submitToLedger(TransferRequest request) {
+        if (request.getType() == null) {
+            throw new IllegalArgumentException("Transaction type is required");
+        }
+        switch (request.getType()) {
+            case "DEPOSIT":
+                return LEDGER.submitDeposit(request.getAccountNumber(), request.getAmount(), request.getDescription());
+            case "WITHDRAWAL":
+                return LEDGER.submitWithdrawal(request.getAccountNumber(), request.getAmount(),
+                        request.getDescription());
+            case "TRANSFER":
+                return LEDGER.submitTransfer(request.getAccountNumber(), request.getToAccountNumber(),
+                        request.getAmount(), request.getDescription());
+            default:
+                throw new IllegalArgumentException("Unsupported transaction type: " + request.getType());
+        }
+    }
 
-            // Update account balance
-            boolean success = account.withdraw(amount);
-            if (!success) {
-                throw new IllegalArgumentException("Withdrawal failed");
+    // A chunk can still fail at flush/commit (e.g. a constraint only the database
+    // checks). Re-run its items one at a time so only the offending item is rejected.
+    private List<BatchItemResult> processChunkOrSplit(int offset, List<TransferRequest> chunk) {
+        try {
+            return executeWithRetry("batch", () -> processChunk(offset, chunk));
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                return Collections.singletonList(
+                        BatchItemResult.rejected(offset, chunk.get(0), "Database error: " + e.getMessage()));
+            }
+            List<BatchItemResult> results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                results.addAll(processChunkOrSplit(offset + i, chunk.subList(i, i + 1)));
             }
+            return results;
+        }
+    }
+
+    private List<BatchItemResult> processChunk(int offset, List<TransferRequest> chunk) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction dbTransaction = null;
+        List<JournalEntry> journal = new ArrayList<>(chunk.size());
 
-            // Create transaction record
-            Transactions transaction = new Transactions(
-                generateTransactionId(), 
-                "WITHDRAWAL", 
-                amount, 
-                description,
-                account
-            );
-            transaction.setBalanceAfterTransaction(account.getBalance());
-            session.persist(transaction);
+        try {
+            dbTransaction = session.beginTransaction();
 
+            Map<String, Account> accounts = lockAccounts(session, chunk);
+            List<BatchItemResult> results = new ArrayList<>(chunk.size());
+
+            for (int i = 0; i < chunk.size(); i++) {
+                TransferRequest request = chunk.get(i);
+                try {
+                    Transactions transaction = postRequest(session, request, accounts, journal);
+                    results.add(BatchItemResult.accepted(offset + i, request, transaction));
+                } catch (IllegalArgumentException e) {
+                    results.add(BatchItemResult.rejected(offset + i, request, e.getMessage()));
+                }
+            }
+
+            BalanceSnapshotService.applyPostings(session, journal);
             dbTransaction.commit();
-            return transaction;
+            recordWrites(journal);
+            appendToJournal(journal);
+            return results;
 
-        } catch (Exception e) {
-            if (dbTransaction != null)
+        } catch (RuntimeException e) {
+            if (dbTransaction != null && dbTransaction.isActive())
                 dbTransaction.rollback();
-            throw new RuntimeException("Error processing withdrawal: " + e.getMessage(), e);
+            throw e;
         } finally {
             session.close();
         }
     }
 
-    public Transactions transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount,
-            String description) {
-        Session session = HibernateUtil.getSessionFactory().openSession();
-        Transaction dbTransaction = null; // Using Hibernate Transaction
+    // One SELECT ... FOR UPDATE for every account the chunk touches, rows locked in
+    // account number order like transfer()
+    private Map<String, Account> lockAccounts(Session session, List<TransferRequest> chunk) {
+        Set<String> accountNumbers = new TreeSet<>();
+        for (TransferRequest request : chunk) {
+            if (request.getAccountNumber() != null) {
+                accountNumbers.add(request.getAccountNumber());
+            }
+            if (request.getToAccountNumber() != null) {
+                accountNumbers.add(request.getToAccountNumber());
+            }
+        }
 
-        try {
-            dbTransaction = session.beginTransaction();
+        Map<String, Account> accounts = new HashMap<>();
+        if (accountNumbers.isEmpty()) {
+            return accounts;
+        }
+        List<Account> locked = session
+                .createQuery("FROM Account a WHERE a.accountNumber IN :accountNumbers ORDER BY a.accountNumber",
+                        Account.class)
+                .setParameter("accountNumbers", accountNumbers)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .list();
+        for (Account account : locked) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+        return accounts;
+    }
+
+    private Transactions postRequest(Session session, TransferRequest request, Map<String, Account> accounts,
+            List<JournalEntry> journal) {
+        if (request.getType() == null) {
+            throw new IllegalArgumentException("Transaction type is required");
+        }
+        switch (request.getType()) {
+            case "DEPOSIT":
+                return postDeposit(session, request.getAccountNumber(), accounts.get(request.getAccountNumber()),
+                        toMoney(request.getAmount()), request.getDescription(), journal);
+            case "WITHDRAWAL":
+                return postWithdrawal(session, request.getAccountNumber(), accounts.get(request.getAccountNumber()),
+                        toMoney(request.getAmount()), request.getDescription(), journal);
+            case "TRANSFER":
+                return postTransfer(session, request.getAccountNumber(), request.getToAccountNumber(),
+                        accounts.get(request.getAccountNumber()), accounts.get(request.getToAccountNumber()),
+                        toMoney(request.getAmount()), request.getDescription(), journal);
+            default:
+                throw new IllegalArgumentException("Unsupported transaction type: " + request.getType());
+        }
+    }
+
+    // Validates and applies a deposit to an already loaded account and queues its record
+    // (and its journal entry, appended once the transaction commits)
+    private Transactions postDeposit(Session session, String accountNumber, Account account, Money amount,
+            String description, List<JournalEntry> journal) {
+        // Validations
+        if (account == null) {
+            throw new IllegalArgumentException("Account not found: " + accountNumber);
+        }
+        if (amount == null || !amount.isPositive()) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        checkCanCredit(account, amount);
+
+        // Update balance
+        account.deposit(amount);
+
+        // Create transaction record
+        Transactions transaction = new Transactions(
+            generateTransactionId(), 
+            "DEPOSIT", 
+            amount, 
+            description, 
+            account
+        );
+        transaction.setDirection("CREDIT");
+        transaction.setBalanceAfterTransaction(account.getBalance());
+        session.persist(transaction);
+        journal.add(JournalEntry.of(JournalEntry.Kind.DEPOSIT, transaction));
+        return transaction;
+    }
+
+    // The balance of a split account is only all in one place once its slots are drained
+    private Transactions postSubBalanceDeposit(Session session, Account account, AccountSubBalance subBalance,
+            Money amount, String description, List<JournalEntry> journal) {
+        if (amount == null || !amount.isPositive()) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        Money total = SubBalanceManager.total(session, account);
+        if (total.getPaise() > Money.MAX_PAISE - amount.getPaise()) {
+            throw new IllegalArgumentException("Balance of account " + account.getAccountNumber()
+                    + " would exceed the maximum of " + Money.ofPaise(Money.MAX_PAISE));
+        }
+
+        subBalance.setBalance(subBalance.getBalance().plus(amount));
+
+        Transactions transaction = new Transactions(generateTransactionId(), "DEPOSIT", amount, description, account);
+        transaction.setDirection("CREDIT");
+        // The total as this deposit saw it; deposits to other slots committing alongside may be missing
+        transaction.setBalanceAfterTransaction(total.plus(amount));
+        session.persist(transaction);
+        journal.add(JournalEntry.of(JournalEntry.Kind.DEPOSIT, transaction));
+        return transaction;
+    }
+
+    private Transactions postWithdrawal(Session session, String accountNumber, Account account, Money amount,
+            String description, List<JournalEntry> journal) {
+        if (account == null) {
+            throw new IllegalArgumentException("Account not found: " + accountNumber);
+        }
+        SubBalanceManager.drain(session, account);
+
+        if (amount == null || !amount.isPositive()) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+
+        // Check sufficient balance
+        if (account.getBalance().isLessThan(amount)) {
+            throw new IllegalArgumentException("Insufficient balance. Available: " + account.getBalance());
+        }
 
-            // Get both accounts within the same session
-            Account fromAccount = session
-                    .createQuery("FROM Account WHERE accountNumber = :accountNumber", Account.class)
-                    .setParameter("accountNumber", fromAccountNumber)
-                    .uniqueResult();
+        // Update account balance
+        boolean success = account.withdraw(amount);
+        if (!success) {
+            throw new IllegalArgumentException("Withdrawal failed");
+        }
+
+        // Create transaction record
+        Transactions transaction = new Transactions(
+            generateTransactionId(), 
+            "WITHDRAWAL", 
+            amount, 
+            description,
+            account
+        );
+        transaction.setDirection("DEBIT");
+        transaction.setBalanceAfterTransaction(account.getBalance());
+        session.persist(transaction);
+        journal.add(JournalEntry.of(JournalEntry.Kind.WITHDRAWAL, transaction));
+        return transaction;
+    }
+
+    // Returns the debit leg; the credit leg is persisted alongside it
+    private Transactions postTransfer(Session session, String fromAccountNumber, String toAccountNumber,
+            Account fromAccount, Account toAccount, Money amount, String description,
+            List<JournalEntry> journal) {
+        if (fromAccount == null || toAccount == null) {
+            throw new IllegalArgumentException("One or both accounts not found");
+        }
+
+        if (fromAccountNumber.equals(toAccountNumber)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+        SubBalanceManager.drain(session, fromAccount);
+
+        if (amount == null || !amount.isPositive()) {
+            throw new IllegalArgumentException("Transfer amount must be positive");
+        }
 
-            Account toAccount = session.createQuery("FROM Account WHERE accountNumber = :accountNumber", Account.class)
-                    .setParameter("accountNumber", toAccountNumber)
-                    .uniqueResult();
+        // Check sufficient balance in source account
+        if (fromAccount.getBalance().isLessThan(amount)) {
+            throw new IllegalArgumentException(
+                    "Insufficient balance for transfer. Available: " + fromAccount.getBalance());
+        }
+        checkCanCredit(toAccount, amount);
+
+        // Perform transfer
+        fromAccount.withdraw(amount);
+        toAccount.deposit(amount);
+
+        // Create transaction for source account
+        Transactions debitTransaction = new Transactions(
+            generateTransactionId(), 
+            "TRANSFER", 
+            amount,
+            description + " (To: " + toAccountNumber + ")", 
+            fromAccount
+        );
+        debitTransaction.setDirection("DEBIT");
+        debitTransaction.setBalanceAfterTransaction(fromAccount.getBalance());
+        debitTransaction.setRelatedAccountNumber(toAccountNumber);
+        session.persist(debitTransaction);
+
+        // Create transaction for destination account
+        Transactions creditTransaction = new Transactions(
+            generateTransactionId(), 
+            "TRANSFER", 
+            amount,
+            description + " (From: " + fromAccountNumber + ")", 
+            toAccount
+        );
+        creditTransaction.setDirection("CREDIT");
+        creditTransaction.setBalanceAfterTransaction(toAccount.getBalance());
+        creditTransaction.setRelatedAccountNumber(fromAccountNumber);
+        session.persist(creditTransaction);
+        journal.add(JournalEntry.of(JournalEntry.Kind.TRANSFER_OUT, debitTransaction));
+        journal.add(JournalEntry.of(JournalEntry.Kind.TRANSFER_IN, creditTransaction));
+
+        return debitTransaction;
+    }
 
-            if (fromAccount == null || toAccount == null) {
-                throw new IllegalArgumentException("One or both accounts not found");
+    // Loads the whole history into memory; use getTransactionHistoryPage or
+    // streamTransactionHistory for accounts that may have many rows
+    public List<Transactions> getTransactionHistory(String accountNumber) {
+        return OperationMetrics.time("AccountService.getTransactionHistory", () -> {
+            flushLedger();
+            Session session = readSessionFactory(accountNumber).openSession();
+            try {
+                Query<Transactions> query = session
+                        .createQuery("FROM Transactions t WHERE t.account.accountNumber = :accountNumber "
+                                + "ORDER BY t.transactionDate DESC, t.id DESC", Transactions.class);
+                query.setParameter("accountNumber", accountNumber);
+                return query.list();
+            } finally {
+                session.close();
             }
+        });
+    }
 
-            if (fromAccountNumber.equals(toAccountNumber)) {
-                throw new IllegalArgumentException("Cannot transfer to the same account");
+    /**
+     * Up to pageSize transactions, newest first, starting after the given
+     * cursor (null for the first page). Pass the returned page's nextCursor to
+     * get the following page.
+     */
+    public TransactionPage getTransactionHistoryPage(String accountNumber, HistoryCursor after, int pageSize) {
+        return OperationMetrics.time("AccountService.getTransactionHistoryPage", () -> {
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("Page size must be positive");
+            }
+            flushLedger();
+            Session session = readSessionFactory(accountNumber).openSession();
+            try {
+                Query<Transactions> query;
+                if (after == null) {
+                    query = session.createQuery("FROM Transactions t WHERE t.account.accountNumber = :accountNumber "
+                            + "ORDER BY t.transactionDate DESC, t.id DESC", Transactions.class);
+                } else {
+                    query = session.createQuery("FROM Transactions t WHERE t.account.accountNumber = :accountNumber "
+                            + "AND (t.transactionDate < :lastDate "
+                            + "OR (t.transactionDate = :lastDate AND t.id < :lastId)) "
+                            + "ORDER BY t.transactionDate DESC, t.id DESC", Transactions.class);
+                    query.setParameter("lastDate", after.getTransactionDate());
+                    query.setParameter("lastId", after.getId());
+                }
+                query.setParameter("accountNumber", accountNumber);
+                // One extra row tells us whether there is a next page without a count query
+                query.setMaxResults(pageSize + 1);
+                List<Transactions> rows = query.list();
+
+                if (rows.size() <= pageSize) {
+                    return new TransactionPage(rows, null);
+                }
+                List<Transactions> page = new ArrayList<>(rows.subList(0, pageSize));
+                return new TransactionPage(page, HistoryCursor.after(page.get(pageSize - 1)));
+            } finally {
+                session.close();
             }
+        });
+    }
 
-            if (amount.compareTo(BigDecimal.ZERO) <= 0) {
-                throw new IllegalArgumentException("Transfer amount must be positive");
+    /**
+     * The full history, newest first, read through a cursor banking.history.fetch_size
+     * rows at a time so memory stays flat however long the history is. Meant for
+     * exports. The stream holds a database connection until it is closed, so
+     * always use it in try-with-resources. Rows come from a StatelessSession:
+     * their account is an uninitialized reference and must not be navigated.
+     */
+    public Stream<Transactions> streamTransactionHistory(String accountNumber) {
+        return OperationMetrics.time("AccountService.streamTransactionHistory", () -> {
+            flushLedger();
+            StatelessSession session = readSessionFactory(accountNumber).openStatelessSession();
+            try {
+                return session
+                        .createQuery("FROM Transactions t WHERE t.account.accountNumber = :accountNumber "
+                                + "ORDER BY t.transactionDate DESC, t.id DESC", Transactions.class)
+                        .setParameter("accountNumber", accountNumber)
+                        .setFetchSize(HISTORY_FETCH_SIZE)
+                        .stream()
+                        .onClose(session::close);
+            } catch (RuntimeException e) {
+                session.close();
+                throw e;
             }
+        });
+    }
 
-            // Check sufficient balance in source account
-            if (fromAccount.getBalance().compareTo(amount) < 0) {
-                throw new IllegalArgumentException(
-                        "Insufficient balance for transfer. Available: " + fromAccount.getBalance());
+    public BigDecimal getAccountBalance(String accountNumber) {
+        return OperationMetrics.time("AccountService.getAccountBalance", () -> {
+            if (LEDGER != null) {
+                return LEDGER.getBalance(accountNumber);
             }
+            Session session = readSessionFactory(accountNumber).openSession();
+            try {
+                Account account = session.bySimpleNaturalId(Account.class).load(accountNumber);
+                return account != null ? SubBalanceManager.total(session, account).toBigDecimal() : null;
+            } finally {
+                session.close();
+            }
+        });
+    }
 
-            // Perform transfer
-            fromAccount.withdraw(amount);
-            toAccount.deposit(amount);
-
-            // Create transaction for source account
-            Transactions debitTransaction = new Transactions(
-                generateTransactionId(), 
-                "TRANSFER", 
-                amount,
-                description + " (To: " + toAccountNumber + ")", 
-                fromAccount
-            );
-            debitTransaction.setBalanceAfterTransaction(fromAccount.getBalance());
-            debitTransaction.setRelatedAccountNumber(toAccountNumber);
-            session.persist(debitTransaction);
-
-            // Create transaction for destination account
-            Transactions creditTransaction = new Transactions(
-                generateTransactionId(), 
-                "TRANSFER", 
-                amount,
-                description + " (From: " + fromAccountNumber + ")", 
-                toAccount
-            );
-            creditTransaction.setBalanceAfterTransaction(toAccount.getBalance());
-            creditTransaction.setRelatedAccountNumber(fromAccountNumber);
-            session.persist(creditTransaction);
+    // History is read from the database; with the ledger on, first write out what it has acknowledged
+    private void flushLedger() {
+        if (LEDGER != null) {
+            LEDGER.flush();
+        }
+    }
 
-            dbTransaction.commit();
-            return debitTransaction;
+    // Balance and history reads may go to the replica. With the ledger on they stay on the primary:
+    // its rows are written behind, and flushLedger only guarantees they have reached the primary.
+    private static SessionFactory readSessionFactory(String accountNumber) {
+        return LEDGER != null ? HibernateUtil.getSessionFactory() : HibernateUtil.getReadSessionFactory(accountNumber);
+    }
 
-        } catch (Exception e) {
-            if (dbTransaction != null)
-                dbTransaction.rollback();
-            throw new RuntimeException("Error processing transfer: " + e.getMessage(), e);
-        } finally {
-            session.close();
+    // Keeps the posted accounts' reads on the primary for the read-your-writes window
+    private static void recordWrites(List<JournalEntry> entries) {
+        for (JournalEntry entry : entries) {
+            HibernateUtil.recordWrite(entry.getAccountNumber());
         }
     }
 
-    public List<Transactions> getTransactionHistory(String accountNumber) {
-        Session session = HibernateUtil.getSessionFactory().openSession();
+    // Amounts arrive from the console and payment files as BigDecimal; postings work in Money.
+    // Null is left for the post* methods to reject with their usual message.
+    private static Money toMoney(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
         try {
-            Query<Transactions> query = session
-                    .createQuery("FROM Transactions t WHERE t.account.accountNumber = :accountNumber "
-                            + "ORDER BY t.transactionDate DESC", Transactions.class);
-            query.setParameter("accountNumber", accountNumber);
-            return query.list();
-        } finally {
-            session.close();
+            return Money.of(amount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount out of range: " + amount);
         }
     }
 
-    public BigDecimal getAccountBalance(String accountNumber) {
+    // Checked before any balance changes, so a rejected batch item leaves its chunk's accounts untouched
+    private static void checkCanCredit(Account account, Money amount) {
+        if (account.getBalance().getPaise() > Money.MAX_PAISE - amount.getPaise()) {
+            throw new IllegalArgumentException("Balance of account " + account.getAccountNumber()
+                    + " would exceed the maximum of " + Money.ofPaise(Money.MAX_PAISE));
+        }
+    }
+
+    // Called after commit and, for single postings, after the account stripe is released, so
+    // the group fsync never holds up other postings to the account. The rows exist whatever
+    // happens here, so a journal failure is reported rather than turned into a failed posting.
+    private void appendToJournal(List<JournalEntry> entries) {
+        if (JOURNAL == null || entries.isEmpty()) {
+            return;
+        }
+        try {
+            JOURNAL.append(entries).join();
+        } catch (RuntimeException e) {
+            System.err.println("Could not journal " + entries.size() + " transactions: " + e.getMessage());
+        }
+    }
+
+    // SELECT ... FOR UPDATE on the account row. Only the natural id -> id step may come
+    // from the cache; a locking load always reads the row itself from the database.
+    private Account lockAccount(Session session, String accountNumber) {
+        return session.bySimpleNaturalId(Account.class)
+                .with(new LockOptions(LockMode.PESSIMISTIC_WRITE))
+                .load(accountNumber);
+    }
+
+    // PESSIMISTIC: lock the row for the rest of the transaction.
+    // OPTIMISTIC: plain read; the @Version check at commit catches concurrent writers.
+    private Account loadForUpdate(Session session, String accountNumber) {
+        if (CONCURRENCY_MODE == ConcurrencyMode.PESSIMISTIC) {
+            return lockAccount(session, accountNumber);
+        }
+        return session.bySimpleNaturalId(Account.class).load(accountNumber);
+    }
+
+    // 0 for accounts that are not split (or do not exist); the lookup is normally a cache hit
+    private int subBalanceCount(String accountNumber) {
+        if (accountNumber == null) {
+            return 0;
+        }
         Session session = HibernateUtil.getSessionFactory().openSession();
         try {
-            Query<BigDecimal> query = session.createQuery(
-                    "SELECT a.balance FROM Account a WHERE a.accountNumber = :accountNumber", BigDecimal.class);
-            query.setParameter("accountNumber", accountNumber);
-            return query.uniqueResult();
+            Account account = session.bySimpleNaturalId(Account.class).load(accountNumber);
+            return account == null ? 0 : account.getSubBalanceCount();
         } finally {
             session.close();
         }
     }
 
+    // Held for one attempt, so a retry's backoff does not keep other postings to the account waiting
+    private static <T> T underLock(String accountNumber, Supplier<T> posting) {
+        return LOCKS == null ? posting.get() : LOCKS.withLock(accountNumber, posting);
+    }
+
+    private static <T> T underLocks(String accountNumber, String otherAccountNumber, Supplier<T> posting) {
+        return LOCKS == null ? posting.get() : LOCKS.withLocks(accountNumber, otherAccountNumber, posting);
+    }
+
+    // Re-runs the operation in a fresh session when it lost a race (lock wait timeout,
+    // deadlock victim or stale @Version), backing off exponentially with jitter in between
+    private <T> T executeWithRetry(String operation, Supplier<T> attemptOperation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptOperation.get();
+            } catch (RuntimeException e) {
+                if (!isLockFailure(e) && !isOptimisticLockFailure(e)) {
+                    throw e;
+                }
+                if (attempt >= MAX_ATTEMPTS) {
+                    RetryMetrics.recordGiveUp(operation);
+                    throw e;
+                }
+                RetryMetrics.recordRetry(operation);
+                long backoff = Math.min(BACKOFF_MILLIS << (attempt - 1), MAX_BACKOFF_MILLIS);
+                try {
+                    Thread.sleep(backoff + ThreadLocalRandom.current().nextLong(backoff + 1));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean isLockFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof PessimisticLockException || t instanceof LockAcquisitionException
+                    || t instanceof jakarta.persistence.PessimisticLockException
+                    || t instanceof jakarta.persistence.LockTimeoutException) {
+                return true;
+            }
+            // SQLState class 40 = transaction rollback (deadlock, serialization failure)
+            if (t instanceof SQLException && ((SQLException) t).getSQLState() != null
+                    && ((SQLException) t).getSQLState().startsWith("40")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOptimisticLockFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OptimisticLockException || t instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private String generateAccountNumber() {
-        Random random = new Random();
-        return "ACC" + System.currentTimeMillis() + random.nextInt(1000);
+        return IdGenerator.getInstance().nextAccountNumber();
     }
 
     private String generateTransactionId() {
-        return "TXN" + System.currentTimeMillis();
+        return IdGenerator.getInstance().nextTransactionId();
     }
-}
\ No newline at end of file
+}
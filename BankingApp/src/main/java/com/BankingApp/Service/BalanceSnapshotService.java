@@ -0,0 +1,213 @@
+package com.BankingApp.Service;
+
+import org.hibernate.Session;
+import org.hibernate.SharedSessionContract;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.DailyBalanceSnapshot;
+import com.BankingApp.Journal.JournalEntry;
+import com.BankingApp.Ledger.LedgerEngine;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Point-in-time balances and period summaries answered from
+ * daily_balance_snapshots, a fixed number of indexed single-row or range
+ * queries whatever the length of the account's history.
+ */
+public class BalanceSnapshotService {
+
+    // Rows are keyed (account_id, snapshot_date): the first posting of the day inserts, later ones add to the
+    // totals. A later posting moves the closing balance by its own credits and debits rather than replacing it,
+    // so a split account's deposits, each of which may have missed the others' slots, still add up
+    private static final String UPSERT_SQL = "INSERT INTO daily_balance_snapshots "
+            + "(account_id, snapshot_date, closing_balance, total_debits, total_credits, transaction_count) "
+            + "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE "
+            + "closing_balance = closing_balance + VALUES(total_credits) - VALUES(total_debits), "
+            + "total_debits = total_debits + VALUES(total_debits), "
+            + "total_credits = total_credits + VALUES(total_credits), "
+            + "transaction_count = transaction_count + VALUES(transaction_count)";
+
+    /**
+     * Folds postings into the snapshot rows, in the session's open transaction
+     * so the rows commit or roll back with the postings. Entries must be in
+     * posting order for each account; the last one of a day gives the closing
+     * balance of a day not yet in the table, an existing row's closing balance
+     * moves by the credits and debits added. Rows are written in (account,
+     * date) order, one JDBC batch.
+     */
+    public static void applyPostings(SharedSessionContract session, List<JournalEntry> postings) {
+        if (postings.isEmpty()) {
+            return;
+        }
+        Map<DailyBalanceSnapshot.Key, DayTotals> days = new TreeMap<>();
+        for (JournalEntry posting : postings) {
+            LocalDate date = posting.getTransactionDate().toLocalDate();
+            DailyBalanceSnapshot.Key key = new DailyBalanceSnapshot.Key(posting.getAccountId(), date);
+            DayTotals totals = days.get(key);
+            if (totals == null) {
+                totals = new DayTotals(posting.getAccountId(), date);
+                days.put(key, totals);
+            }
+            totals.add(isDebit(posting.getKind()), posting.getAmountPaise(), posting.getBalanceAfterPaise());
+        }
+        write(session, days.values());
+    }
+
+    static void write(SharedSessionContract session, Collection<DayTotals> days) {
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_SQL)) {
+                for (DayTotals day : days) {
+                    statement.setLong(1, day.accountId);
+                    statement.setDate(2, Date.valueOf(day.date));
+                    statement.setBigDecimal(3, Money.ofPaise(day.closingPaise).toBigDecimal());
+                    statement.setBigDecimal(4, Money.ofPaise(day.debitPaise).toBigDecimal());
+                    statement.setBigDecimal(5, Money.ofPaise(day.creditPaise).toBigDecimal());
+                    statement.setInt(6, day.count);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private static boolean isDebit(JournalEntry.Kind kind) {
+        return kind == JournalEntry.Kind.WITHDRAWAL || kind == JournalEntry.Kind.TRANSFER_OUT;
+    }
+
+    /**
+     * Balance at the end of the given day: the closing balance of the latest
+     * snapshot on or before it, zero if the account had no transactions by
+     * then, null if the account does not exist.
+     */
+    public BigDecimal getBalanceAsOf(String accountNumber, LocalDate date) {
+        flushLedger();
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            Account account = session.bySimpleNaturalId(Account.class).load(accountNumber);
+            if (account == null) {
+                return null;
+            }
+            return closingBalance(session, account.getId(), date).toBigDecimal();
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * Opening and closing balance and debit/credit totals for the days from..to,
+     * both inclusive; null if the account does not exist.
+     */
+    public PeriodSummary getPeriodSummary(String accountNumber, LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid period: " + from + " to " + to);
+        }
+        flushLedger();
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            Account account = session.bySimpleNaturalId(Account.class).load(accountNumber);
+            if (account == null) {
+                return null;
+            }
+            Money opening = closingBalance(session, account.getId(), from.minusDays(1));
+            Money closing = closingBalance(session, account.getId(), to);
+            Object[] totals = session.createQuery("SELECT SUM(s.totalDebits), SUM(s.totalCredits), "
+                    + "SUM(s.transactionCount) FROM DailyBalanceSnapshot s "
+                    + "WHERE s.accountId = :accountId AND s.snapshotDate BETWEEN :from AND :to", Object[].class)
+                    .setParameter("accountId", account.getId())
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .getSingleResult();
+            return new PeriodSummary(accountNumber, from, to, opening.toBigDecimal(), toBigDecimal(totals[0]),
+                    toBigDecimal(totals[1]), closing.toBigDecimal(),
+                    totals[2] != null ? ((Number) totals[2]).longValue() : 0);
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * Credits minus debits, in paise, posted after the given day to each account
+     * with an id in firstId..lastId; subtracted from a current balance it gives
+     * the balance at the end of that day. Accounts with no later postings are
+     * absent from the map.
+     */
+    static Map<Long, Long> netChangeAfter(Session session, long firstId, long lastId, LocalDate date) {
+        List<Object[]> rows = session.createQuery("SELECT s.accountId, SUM(s.totalCredits), SUM(s.totalDebits) "
+                + "FROM DailyBalanceSnapshot s WHERE s.accountId BETWEEN :firstId AND :lastId "
+                + "AND s.snapshotDate > :date GROUP BY s.accountId", Object[].class)
+                .setParameter("firstId", firstId)
+                .setParameter("lastId", lastId)
+                .setParameter("date", date)
+                .list();
+        Map<Long, Long> changes = new HashMap<>();
+        for (Object[] row : rows) {
+            long credits = Money.of(toBigDecimal(row[1])).getPaise();
+            long debits = Money.of(toBigDecimal(row[2])).getPaise();
+            changes.put((Long) row[0], credits - debits);
+        }
+        return changes;
+    }
+
+    // Balance at the end of the day per the snapshots; zero before the account's first transaction
+    static Money closingBalance(SharedSessionContract session, Long accountId, LocalDate date) {
+        List<Money> rows = session.createQuery("SELECT s.closingBalance FROM DailyBalanceSnapshot s "
+                + "WHERE s.accountId = :accountId AND s.snapshotDate <= :date "
+                + "ORDER BY s.snapshotDate DESC", Money.class)
+                .setParameter("accountId", accountId)
+                .setParameter("date", date)
+                .setMaxResults(1)
+                .list();
+        return rows.isEmpty() ? Money.ZERO : rows.get(0);
+    }
+
+    // SUM over a converted column comes back as Money or BigDecimal depending on the dialect
+    private static BigDecimal toBigDecimal(Object sum) {
+        if (sum == null) {
+            return Money.ZERO.toBigDecimal();
+        }
+        return sum instanceof Money ? ((Money) sum).toBigDecimal() : ((BigDecimal) sum).setScale(2);
+    }
+
+    // Snapshots are written with the rows; with the ledger on, write out what it has acknowledged first
+    private static void flushLedger() {
+        if (LedgerEngine.isEnabled()) {
+            LedgerEngine.getInstance().flush();
+        }
+    }
+
+    /** One account-day being accumulated, in paise. */
+    static final class DayTotals {
+        final long accountId;
+        final LocalDate date;
+        long closingPaise;
+        long debitPaise;
+        long creditPaise;
+        int count;
+
+        DayTotals(long accountId, LocalDate date) {
+            this.accountId = accountId;
+            this.date = date;
+        }
+
+        void add(boolean debit, long amountPaise, long balanceAfterPaise) {
+            if (debit) {
+                debitPaise = Math.addExact(debitPaise, amountPaise);
+            } else {
+                creditPaise = Math.addExact(creditPaise, amountPaise);
+            }
+            closingPaise = balanceAfterPaise;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.Entities.Transactions;
+
+import java.math.BigDecimal;
+
+/**
+ * Outcome of one {@link TransferRequest} in a batch. index is the position of
+ * the request in the submitted list.
+ */
+public class BatchItemResult {
+    private final int index;
+    private final TransferRequest request;
+    private final boolean success;
+    private final String transactionId;
+    private final BigDecimal balanceAfterTransaction;
+    private final String reason;
+
+    private BatchItemResult(int index, TransferRequest request, boolean success, String transactionId,
+            BigDecimal balanceAfterTransaction, String reason) {
+        this.index = index;
+        this.request = request;
+        this.success = success;
+        this.transactionId = transactionId;
+        this.balanceAfterTransaction = balanceAfterTransaction;
+        this.reason = reason;
+    }
+
+    static BatchItemResult accepted(int index, TransferRequest request, Transactions transaction) {
+        return new BatchItemResult(index, request, true, transaction.getTransactionId(),
+                transaction.getBalanceAfterTransaction().toBigDecimal(), null);
+    }
+
+    static BatchItemResult rejected(int index, TransferRequest request, String reason) {
+        return new BatchItemResult(index, request, false, null, null, reason);
+    }
+
+    public int getIndex() { return index; }
+    public TransferRequest getRequest() { return request; }
+    public boolean isSuccess() { return success; }
+    public String getTransactionId() { return transactionId; }
+    public BigDecimal getBalanceAfterTransaction() { return balanceAfterTransaction; }
+    public String getReason() { return reason; }
+
+    @Override
+    public String toString() {
+        return "BatchItemResult{" +
+                "index=" + index +
+                ", success=" + success +
+                (success ? ", transactionId='" + transactionId + '\'' : ", reason='" + reason + '\'') +
+                '}';
+    }
+}
@@ -0,0 +1,12 @@
+package com.BankingApp.Service;
+
+/**
+ * How single-account postings (deposit/withdraw) protect the balance row,
+ * selected with banking.concurrency.mode.
+ */
+public enum ConcurrencyMode {
+    /** SELECT ... FOR UPDATE on the account row; writers queue on the row lock. */
+    PESSIMISTIC,
+    /** Plain read plus @Version check at commit; losers are replayed. */
+    OPTIMISTIC
+}
@@ -0,0 +1,40 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.Util.Money;
+
+/**
+ * One row of the customer listing: a customer and one of their accounts. The
+ * account fields are null for a customer without accounts.
+ */
+public class CustomerAccountSummary {
+    private final Long customerId;
+    private final String firstName;
+    private final String lastName;
+    private final String panNumber;
+    private final String email;
+    private final String accountNumber;
+    private final String accountType;
+    private final Money balance;
+
+    public CustomerAccountSummary(Long customerId, String firstName, String lastName, String panNumber,
+            String email, String accountNumber, String accountType, Money balance) {
+        this.customerId = customerId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.panNumber = panNumber;
+        this.email = email;
+        this.accountNumber = accountNumber;
+        this.accountType = accountType;
+        this.balance = balance;
+    }
+
+    public Long getCustomerId() { return customerId; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public String getPanNumber() { return panNumber; }
+    public String getEmail() { return email; }
+    public String getAccountNumber() { return accountNumber; }
+    public String getAccountType() { return accountType; }
+    public Money getBalance() { return balance; }
+    public boolean hasAccount() { return accountNumber != null; }
+}
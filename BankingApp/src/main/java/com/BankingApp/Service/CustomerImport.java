@@ -0,0 +1,506 @@
+package com.BankingApp.Service;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Service.CustomerUniquenessIndex.Field;
+import com.BankingApp.Util.AppConfig;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.IdGenerator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Bulk customer onboarding from a CSV file with a header row naming at least
+ * first_name, last_name, email, pan_number and aadhar_number (phone and
+ * address are optional), one record per line.
+ *
+ * The file is streamed in chunks of banking.import.chunk_size lines. A reader
+ * thread hands each chunk to banking.import.threads validators (CSV parsing,
+ * lengths, PAN/Aadhar format), at most two chunks per validator ahead of the
+ * writer, so memory stays flat however long the file is. The calling thread
+ * writes chunks in file order: it drops keys repeated within the chunk, asks
+ * the database about the keys CustomerUniquenessIndex cannot rule out in one
+ * IN query per key type, and inserts the rest (plus one account each when an
+ * account type is given) in one batched transaction. Rows of earlier chunks
+ * are committed by then, so a key repeated across chunks is found in the
+ * database like any other existing customer. A chunk that fails at commit is
+ * re-run one row at a time so only the offending rows are rejected.
+ *
+ * Every rejected row goes to the rejects file with its line number and reason.
+ */
+public class CustomerImport {
+
+    private static final int CHUNK_SIZE = AppConfig.getInt("banking.import.chunk_size", 1000);
+    private static final int THREADS = AppConfig.getInt("banking.import.threads",
+            Runtime.getRuntime().availableProcessors());
+    private static final long PROGRESS_ROWS = AppConfig.getLong("banking.import.progress_rows", 100000);
+    // Keeps IN lists well inside every database's parameter limit
+    private static final int IN_LIST_SIZE = 1000;
+
+    private static final String[] REQUIRED_COLUMNS = { "first_name", "last_name", "email", "pan_number",
+            "aadhar_number" };
+
+    private final CustomerUniquenessIndex index = CustomerUniquenessIndex.getInstance();
+
+    /**
+     * Imports csvFile and writes rejected rows to rejectsFile (replaced if it
+     * exists). accountType, if not blank, opens an account of that type for
+     * every imported customer. progress, if not null, is called from this
+     * thread about every banking.import.progress_rows rows.
+     */
+    public CustomerImportReport run(Path csvFile, Path rejectsFile, String accountType,
+            Consumer<CustomerImportReport> progress) {
+        String type = accountType == null || accountType.trim().isEmpty() ? null : accountType.trim();
+        Progress counts = new Progress();
+        BlockingQueue<CompletableFuture<List<Row>>> pending = new ArrayBlockingQueue<>(2 * THREADS);
+        ExecutorService validators = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "customer-import-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        Thread readerThread = null;
+
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8);
+                BufferedWriter rejects = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8)) {
+            Map<String, Integer> columns = readHeader(reader.readLine());
+            rejects.write("line,reason,record");
+            rejects.newLine();
+
+            readerThread = new Thread(() -> readChunks(reader, columns, validators, pending, counts),
+                    "customer-import-reader");
+            readerThread.setDaemon(true);
+            readerThread.start();
+
+            long nextProgress = PROGRESS_ROWS;
+            while (true) {
+                List<Row> rows = pending.take().join();
+                if (rows == null) {
+                    break;
+                }
+                writeChunk(rows, type, rejects, counts);
+                if (progress != null && counts.processed() >= nextProgress) {
+                    progress.accept(counts.report(false));
+                    nextProgress = (counts.processed() / PROGRESS_ROWS + 1) * PROGRESS_ROWS;
+                }
+            }
+            return counts.report(true);
+        } catch (IOException e) {
+            throw new RuntimeException("Error importing customers: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Customer import interrupted", e);
+        } catch (CompletionException e) {
+            // A validator or the reader failed
+            throw new RuntimeException("Error importing customers: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            if (readerThread != null) {
+                // Normally finished already; after a failure this unblocks it
+                readerThread.interrupt();
+                try {
+                    readerThread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            validators.shutdownNow();
+        }
+    }
+
+    private static Map<String, Integer> readHeader(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        List<String> names = parseLine(stripByteOrderMark(header));
+        if (names == null) {
+            throw new IllegalArgumentException("Malformed header row");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Missing column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    // Runs on the reader thread. The queue's capacity is what keeps the reader from running ahead.
+    private static void readChunks(BufferedReader reader, Map<String, Integer> columns, ExecutorService validators,
+            BlockingQueue<CompletableFuture<List<Row>>> pending, Progress counts) {
+        try {
+            try {
+                List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+                long lineNumber = 1;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    chunk.add(new Row(lineNumber, line));
+                    counts.rowsRead.incrementAndGet();
+                    if (chunk.size() == CHUNK_SIZE) {
+                        pending.put(validateAsync(chunk, columns, validators));
+                        chunk = new ArrayList<>(CHUNK_SIZE);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    pending.put(validateAsync(chunk, columns, validators));
+                }
+                pending.put(CompletableFuture.completedFuture(null));
+            } catch (IOException | RuntimeException e) {
+                CompletableFuture<List<Row>> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                pending.put(failed);
+            }
+        } catch (InterruptedException e) {
+            // The writer gave up
+        }
+    }
+
+    private static CompletableFuture<List<Row>> validateAsync(List<Row> chunk, Map<String, Integer> columns,
+            ExecutorService validators) {
+        return CompletableFuture.supplyAsync(() -> {
+            for (Row row : chunk) {
+                row.parse(columns);
+            }
+            return chunk;
+        }, validators);
+    }
+
+    private void writeChunk(List<Row> rows, String accountType, BufferedWriter rejects, Progress counts)
+            throws IOException {
+        List<Row> rejected = new ArrayList<>();
+        insertOrSplit(dropDuplicates(rows, rejected), accountType, rejected, counts);
+        rejected.sort(Comparator.comparingLong(row -> row.lineNumber));
+        for (Row row : rejected) {
+            rejects.write(row.lineNumber + "," + quote(row.rejectReason) + "," + quote(row.line));
+            rejects.newLine();
+        }
+        counts.rowsRejected.addAndGet(rejected.size());
+    }
+
+    // A chunk can still fail at commit (a customer inserted since the IN queries, or by
+    // another node). Re-run its rows one at a time so only the offending rows are rejected.
+    private void insertOrSplit(List<Row> rows, String accountType, List<Row> rejected, Progress counts) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            insert(rows, accountType, counts);
+        } catch (RuntimeException e) {
+            if (rows.size() == 1) {
+                Row row = rows.get(0);
+                Field taken = index.findTakenInDatabase(row.panNumber, row.aadharNumber, row.email);
+                rejected.add(row.reject(taken != null ? taken.getLabel() + " already exists"
+                        : "Database error: " + e.getMessage()));
+                return;
+            }
+            for (Row row : rows) {
+                insertOrSplit(Collections.singletonList(row), accountType, rejected, counts);
+            }
+        }
+    }
+
+    private void insert(List<Row> rows, String accountType, Progress counts) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        // A million fresh customers would only push everything else out of the second-level cache
+        session.setCacheMode(CacheMode.IGNORE);
+        Transaction transaction = null;
+        try {
+            transaction = session.beginTransaction();
+            List<Customer> customers = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                Customer customer = row.toCustomer();
+                session.persist(customer);
+                customers.add(customer);
+                if (accountType != null) {
+                    session.persist(new Account(IdGenerator.getInstance().nextAccountNumber(), accountType, customer));
+                }
+            }
+            transaction.commit();
+            for (Customer customer : customers) {
+                index.add(customer.getPanNumber(), customer.getAadharNumber(), customer.getEmail());
+            }
+            counts.customersImported.addAndGet(rows.size());
+            if (accountType != null) {
+                counts.accountsOpened.addAndGet(rows.size());
+            }
+        } catch (RuntimeException e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            session.close();
+        }
+    }
+
+    // Rows that failed validation, repeat a key of an earlier row in the chunk, or
+    // hold a key some customer already has go to rejected; the rest are returned
+    private List<Row> dropDuplicates(List<Row> rows, List<Row> rejected) {
+        Field[] fields = Field.values();
+        List<Map<String, Long>> seen = new ArrayList<>(fields.length);
+        for (int f = 0; f < fields.length; f++) {
+            seen.add(new HashMap<>());
+        }
+        List<Row> candidates = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (row.rejectReason != null) {
+                rejected.add(row);
+                continue;
+            }
+            String reason = null;
+            for (int f = 0; f < fields.length && reason == null; f++) {
+                Long firstLine = seen.get(f).get(row.keys[f]);
+                if (firstLine != null) {
+                    reason = "Duplicate " + fields[f].getLabel() + " in file (line " + firstLine + ")";
+                }
+            }
+            if (reason != null) {
+                rejected.add(row.reject(reason));
+                continue;
+            }
+            for (int f = 0; f < fields.length; f++) {
+                seen.get(f).put(row.keys[f], row.lineNumber);
+            }
+            candidates.add(row);
+        }
+
+        // Only keys the index cannot rule out are looked up
+        List<Set<String>> taken = new ArrayList<>(fields.length);
+        for (Field field : fields) {
+            Set<String> maybe = new HashSet<>();
+            for (Row row : candidates) {
+                if (index.mightBeTaken(field, row.keys[field.ordinal()])) {
+                    maybe.add(row.keys[field.ordinal()]);
+                }
+            }
+            taken.add(findInDatabase(field, maybe));
+        }
+
+        List<Row> accepted = new ArrayList<>(candidates.size());
+        for (Row row : candidates) {
+            String reason = null;
+            for (int f = 0; f < fields.length && reason == null; f++) {
+                if (taken.get(f).contains(row.keys[f])) {
+                    reason = fields[f].getLabel() + " already exists";
+                }
+            }
+            if (reason != null) {
+                rejected.add(row.reject(reason));
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    // The given normalized keys that some customer holds, normalized
+    private static Set<String> findInDatabase(Field field, Collection<String> keys) {
+        Set<String> found = new HashSet<>();
+        if (keys.isEmpty()) {
+            return found;
+        }
+        List<String> all = new ArrayList<>(keys);
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            for (int start = 0; start < all.size(); start += IN_LIST_SIZE) {
+                List<String> slice = all.subList(start, Math.min(start + IN_LIST_SIZE, all.size()));
+                List<String> existing = session
+                        .createQuery("SELECT c." + field.getAttribute() + " FROM Customer c WHERE c."
+                                + field.getAttribute() + " IN :keys", String.class)
+                        .setParameter("keys", slice)
+                        .list();
+                for (String key : existing) {
+                    found.add(CustomerUniquenessIndex.normalize(field, key));
+                }
+            }
+            return found;
+        } finally {
+            session.close();
+        }
+    }
+
+    // Returns null for a line with an unterminated quoted field
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String stripByteOrderMark(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    private static final class Row {
+        final long lineNumber;
+        final String line;
+        String firstName;
+        String lastName;
+        String email;
+        String panNumber;
+        String aadharNumber;
+        String phone;
+        String address;
+        // Normalized PAN, Aadhar and email, indexed by Field ordinal
+        String[] keys;
+        String rejectReason;
+
+        Row(long lineNumber, String line) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+
+        // Runs on a validator thread; leaves rejectReason set if the row cannot be imported
+        void parse(Map<String, Integer> columns) {
+            List<String> fields = parseLine(line);
+            if (fields == null) {
+                reject("Unterminated quoted field");
+                return;
+            }
+            if (fields.size() < columns.size()) {
+                reject("Expected " + columns.size() + " columns, found " + fields.size());
+                return;
+            }
+            firstName = value(fields, columns, "first_name");
+            lastName = value(fields, columns, "last_name");
+            email = value(fields, columns, "email");
+            panNumber = value(fields, columns, "pan_number");
+            aadharNumber = value(fields, columns, "aadhar_number");
+            phone = value(fields, columns, "phone");
+            address = value(fields, columns, "address");
+
+            // Same limits as the customers columns, and the same messages as createCustomer
+            if (firstName == null || firstName.length() > 50) {
+                reject("First name is required (at most 50 characters)");
+            } else if (lastName == null || lastName.length() > 50) {
+                reject("Last name is required (at most 50 characters)");
+            } else if (email == null || email.length() > 255 || email.indexOf('@') <= 0
+                    || email.indexOf('@') == email.length() - 1) {
+                reject("Invalid email");
+            } else if (panNumber == null || !CustomerService.isValidPan(panNumber)) {
+                reject("Invalid PAN number format");
+            } else if (aadharNumber == null || !CustomerService.isValidAadhar(aadharNumber)) {
+                reject("Invalid Aadhar number format");
+            } else if (phone != null && phone.length() > 15) {
+                reject("Phone is longer than 15 characters");
+            } else if (address != null && address.length() > 255) {
+                reject("Address is longer than 255 characters");
+            } else {
+                keys = new String[] { CustomerUniquenessIndex.normalize(Field.PAN, panNumber),
+                        CustomerUniquenessIndex.normalize(Field.AADHAR, aadharNumber),
+                        CustomerUniquenessIndex.normalize(Field.EMAIL, email) };
+            }
+        }
+
+        Row reject(String reason) {
+            this.rejectReason = reason;
+            return this;
+        }
+
+        // Email stored normalized, as createCustomer does, so findInDatabase can compare the indexed column
+        Customer toCustomer() {
+            Customer customer = new Customer(firstName, lastName, keys[Field.EMAIL.ordinal()], panNumber,
+                    aadharNumber);
+            customer.setPhone(phone);
+            customer.setAddress(address);
+            return customer;
+        }
+
+        private static String value(List<String> fields, Map<String, Integer> columns, String column) {
+            Integer position = columns.get(column);
+            if (position == null) {
+                return null;
+            }
+            String value = fields.get(position);
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    // Written by the reader (rowsRead) and the writer (the rest)
+    private static final class Progress {
+        final long startNanos = System.nanoTime();
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong customersImported = new AtomicLong();
+        final AtomicLong accountsOpened = new AtomicLong();
+        final AtomicLong rowsRejected = new AtomicLong();
+
+        long processed() {
+            return customersImported.get() + rowsRejected.get();
+        }
+
+        CustomerImportReport report(boolean finished) {
+            return new CustomerImportReport(rowsRead.get(), customersImported.get(), accountsOpened.get(),
+                    rowsRejected.get(), System.nanoTime() - startNanos, finished);
+        }
+    }
+}
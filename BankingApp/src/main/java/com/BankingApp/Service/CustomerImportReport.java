@@ -0,0 +1,47 @@
+package com.BankingApp.Service;
+
+/** Progress of a CustomerImport run so far, or its outcome once finished. */
+public class CustomerImportReport {
+    private final long rowsRead;
+    private final long customersImported;
+    private final long accountsOpened;
+    private final long rowsRejected;
+    private final long elapsedNanos;
+    private final boolean finished;
+
+    CustomerImportReport(long rowsRead, long customersImported, long accountsOpened, long rowsRejected,
+            long elapsedNanos, boolean finished) {
+        this.rowsRead = rowsRead;
+        this.customersImported = customersImported;
+        this.accountsOpened = accountsOpened;
+        this.rowsRejected = rowsRejected;
+        this.elapsedNanos = elapsedNanos;
+        this.finished = finished;
+    }
+
+    // Data rows read from the file; some may still be in validation
+    public long getRowsRead() { return rowsRead; }
+    public long getCustomersImported() { return customersImported; }
+    public long getAccountsOpened() { return accountsOpened; }
+    public long getRowsRejected() { return rowsRejected; }
+    public long getRowsProcessed() { return customersImported + rowsRejected; }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+    public boolean isFinished() { return finished; }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : getRowsProcessed() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerImportReport{" +
+                "rowsRead=" + rowsRead +
+                ", customersImported=" + customersImported +
+                ", accountsOpened=" + accountsOpened +
+                ", rowsRejected=" + rowsRejected +
+                ", elapsedMillis=" + getElapsedMillis() +
+                ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) +
+                (finished ? ", finished" : "") +
+                '}';
+    }
+}
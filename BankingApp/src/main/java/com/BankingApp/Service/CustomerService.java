@@ -1,13 +1,22 @@
 package com.BankingApp.Service;
 
+import org.hibernate.Hibernate;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
-import org.hibernate.query.Query;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.graph.RootGraph;
 
+import com.BankingApp.Entities.Account;
 import com.BankingApp.Entities.Customer;
 import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 public class CustomerService {
@@ -17,113 +26,216 @@ public class CustomerService {
 
 	public Customer createCustomer(String firstName, String lastName, String email, String panNumber,
 			String aadharNumber, String phone, String address) {
-
-		if (!isValidPan(panNumber)) {
-			throw new IllegalArgumentException("Invalid PAN number format");
-		}
-
-		// Validate Aadhar format
-		if (!isValidAadhar(aadharNumber)) {
-			throw new IllegalArgumentException("Invalid Aadhar number format");
-		}
-
-		// Check if PAN or Aadhar already exists
-		if (isPanExists(panNumber)) {
-			throw new IllegalArgumentException("PAN number already exists");
-		}
-
-		if (isAadharExists(aadharNumber)) {
-			throw new IllegalArgumentException("Aadhar number already exists");
-		}
-
-		Customer customer = new Customer(firstName, lastName, email, panNumber, aadharNumber);
-		customer.setPhone(phone);
-		customer.setAddress(address);
-
-		Session session = HibernateUtil.getSessionFactory().openSession();
-		Transaction transaction = null;
-
-		try {
-			transaction = session.beginTransaction();
-			session.persist(customer);
-			transaction.commit();
-			return customer;
-		} catch (Exception e) {
-			if (transaction != null)
-				transaction.rollback();
-			throw new RuntimeException("Error creating customer: " + e.getMessage(), e);
-		} finally {
-			session.close();
-
-		}
+		return OperationMetrics.time("CustomerService.createCustomer", () -> {
+			if (!isValidPan(panNumber)) {
+				throw new IllegalArgumentException("Invalid PAN number format");
+			}
+
+			// Validate Aadhar format
+			if (!isValidAadhar(aadharNumber)) {
+				throw new IllegalArgumentException("Invalid Aadhar number format");
+			}
+
+			// Check if PAN, Aadhar or email already exists. Keys that are not taken are answered
+			// in memory; the unique constraints catch anything the index has not seen
+			CustomerUniquenessIndex index = CustomerUniquenessIndex.getInstance();
+			CustomerUniquenessIndex.Field taken = index.findTaken(panNumber, aadharNumber, email);
+			if (taken != null) {
+				throw new IllegalArgumentException(taken.getLabel() + " already exists");
+			}
+
+			// Stored normalized, so uniqueness checks can compare the indexed column as it is
+			String storedEmail = email == null ? null
+					: CustomerUniquenessIndex.normalize(CustomerUniquenessIndex.Field.EMAIL, email);
+			Customer customer = new Customer(firstName, lastName, storedEmail, panNumber, aadharNumber);
+			customer.setPhone(phone);
+			customer.setAddress(address);
+
+			Session session = HibernateUtil.getSessionFactory().openSession();
+			Transaction transaction = null;
+
+			try {
+				transaction = session.beginTransaction();
+				session.persist(customer);
+				transaction.commit();
+				index.add(customer.getPanNumber(), customer.getAadharNumber(), customer.getEmail());
+				return customer;
+			} catch (Exception e) {
+				if (transaction != null && transaction.isActive())
+					transaction.rollback();
+				if (isConstraintViolation(e)) {
+					// Lost a race with another insert, or the customer came from outside this JVM's index
+					taken = index.findTakenInDatabase(panNumber, aadharNumber, email);
+					if (taken != null) {
+						throw new IllegalArgumentException(taken.getLabel() + " already exists");
+					}
+				}
+				throw new RuntimeException("Error creating customer: " + e.getMessage(), e);
+			} finally {
+				session.close();
+
+			}
+		});
 	}
 
 	public Customer getCustomerById(Long id) {
-		Session session = HibernateUtil.getSessionFactory().openSession();
-		try {
-			return session.get(Customer.class, id);
-		} finally {
-			session.close();
-		}
+		return OperationMetrics.time("CustomerService.getCustomerById", () -> {
+			Session session = HibernateUtil.getSessionFactory().openSession();
+			try {
+				return session.get(Customer.class, id);
+			} finally {
+				session.close();
+			}
+		});
 	}
 
 	public Customer getCustomerByPan(String panNumber) {
-		Session session = HibernateUtil.getSessionFactory().openSession();
-		try {
-			Query<Customer> query = session.createQuery("FROM Customer WHERE panNumber = :panNumber", Customer.class);
-			query.setParameter("panNumber", panNumber.toUpperCase());
-			return query.uniqueResult();
-		} finally {
-			session.close();
-		}
+		return OperationMetrics.time("CustomerService.getCustomerByPan", () -> {
+			Session session = HibernateUtil.getSessionFactory().openSession();
+			try {
+				return session.bySimpleNaturalId(Customer.class).load(panNumber.toUpperCase());
+			} finally {
+				session.close();
+			}
+		});
 	}
 
-	public List<Customer> getAllCustomers() {
-		Session session = HibernateUtil.getSessionFactory().openSession();
-		try {
-			// Use JOIN FETCH to load accounts in the same query
-			return session.createQuery("SELECT DISTINCT c FROM Customer c LEFT JOIN FETCH c.accounts", Customer.class)
-					.list();
-		} finally {
-			session.close();
-		}
+	// Same as getCustomerById/getCustomerByPan, with accounts initialized so they can be read after the session closes
+	public Customer getCustomerWithAccounts(Long id) {
+		return OperationMetrics.time("CustomerService.getCustomerWithAccounts", () -> {
+			Session session = HibernateUtil.getSessionFactory().openSession();
+			try {
+				return initializeAccounts(session, session.find(Customer.class, id,
+						Collections.singletonMap(GraphSemantic.LOAD.getJakartaHintName(), withAccounts(session))));
+			} finally {
+				session.close();
+			}
+		});
+	}
+
+	public Customer getCustomerWithAccountsByPan(String panNumber) {
+		return OperationMetrics.time("CustomerService.getCustomerWithAccountsByPan", () -> {
+			Session session = HibernateUtil.getSessionFactory().openSession();
+			try {
+				return initializeAccounts(session, session.bySimpleNaturalId(Customer.class)
+						.withLoadGraph(withAccounts(session))
+						.load(panNumber.toUpperCase()));
+			} finally {
+				session.close();
+			}
+		});
 	}
 
-	private boolean isValidPan(String panNumber) {
+	/**
+	 * Customers with their accounts, one row per account (or one row with no account
+	 * details for a customer without accounts), for up to pageSize customers with an
+	 * id greater than afterCustomerId (null for the first page). Pages never split a
+	 * customer's accounts. Pass the page's nextCursor to get the following page.
+	 * Read from the replica when one is configured, so recent changes may be missing.
+	 */
+	public CustomerSummaryPage getCustomerSummaries(Long afterCustomerId, int pageSize) {
+		return OperationMetrics.time("CustomerService.getCustomerSummaries", () -> {
+			if (pageSize <= 0) {
+				throw new IllegalArgumentException("Page size must be positive");
+			}
+			Session session = HibernateUtil.getReadSessionFactory().openSession();
+			try {
+				// Page over customer ids first, so the account join can't push a customer across pages
+				List<Long> ids = session
+						.createQuery("SELECT c.id FROM Customer c WHERE c.id > :afterId ORDER BY c.id", Long.class)
+						.setParameter("afterId", afterCustomerId == null ? Long.MIN_VALUE : afterCustomerId)
+						.setMaxResults(pageSize + 1)
+						.setCacheable(true)
+						.setCacheRegion("customer-queries")
+						.list();
+				if (ids.isEmpty()) {
+					return new CustomerSummaryPage(Collections.emptyList(), null);
+				}
+
+				Long nextCursor = null;
+				if (ids.size() > pageSize) {
+					ids = ids.subList(0, pageSize);
+					nextCursor = ids.get(pageSize - 1);
+				}
+
+				List<CustomerAccountSummary> rows = session
+						.createQuery("SELECT new com.BankingApp.Service.CustomerAccountSummary(c.id, c.firstName, "
+								+ "c.lastName, c.panNumber, c.email, a.accountNumber, a.accountType, a.balance) "
+								+ "FROM Customer c LEFT JOIN c.accounts a WHERE c.id IN :ids "
+								+ "ORDER BY c.id, a.accountNumber", CustomerAccountSummary.class)
+						.setParameter("ids", ids)
+						.setReadOnly(true)
+						.list();
+				return new CustomerSummaryPage(withSubBalances(session, ids, rows), nextCursor);
+			} finally {
+				session.close();
+			}
+		});
+	}
+
+	public static boolean isValidPan(String panNumber) {
 		return PAN_PATTERN.matcher(panNumber.toUpperCase()).matches();
 	}
 
-	private boolean isValidAadhar(String aadharNumber) {
+	public static boolean isValidAadhar(String aadharNumber) {
 		return AADHAR_PATTERN.matcher(aadharNumber).matches();
 	}
 
-	private boolean isPanExists(String panNumber) {
-		// 1. Open Hibernate Session
-		Session session = HibernateUtil.getSessionFactory().openSession();
-
-		try {
-			// 2. Create HQL Query to count customers with this PAN
-			Query<Long> query = session.createQuery("SELECT COUNT(c) FROM Customer c WHERE panNumber = :panNumber",
-					Long.class);
-			// 3. Set parameter (auto-convert to uppercase)
-			query.setParameter("panNumber", panNumber.toUpperCase());
-
-			// 4. Execute query and check if count > 0
-			return query.uniqueResult() > 0;
-		} finally {
-			session.close();
+	@SuppressWarnings("unchecked")
+	private RootGraph<Customer> withAccounts(Session session) {
+		return (RootGraph<Customer>) session.getEntityGraph(Customer.WITH_ACCOUNTS);
+	}
+
+	// The graph fetches accounts in the same SELECT, but Hibernate ignores it when the customer
+	// comes from the second-level cache; then the accounts come from the collection cache here.
+	// Split accounts are detached and given their whole balance, like AccountService.getAccountByNumber
+	private Customer initializeAccounts(Session session, Customer customer) {
+		if (customer != null) {
+			Hibernate.initialize(customer.getAccounts());
+			for (Account account : customer.getAccounts()) {
+				if (account.getSubBalanceCount() > 0) {
+					session.detach(account);
+					account.setBalance(SubBalanceManager.total(session, account));
+				}
+			}
+		}
+		return customer;
+	}
+
+	// The accounts row of a split account holds only part of its balance: the slots of the page's
+	// split accounts are added in, with one more query only when the page has any
+	private static List<CustomerAccountSummary> withSubBalances(Session session, List<Long> customerIds,
+			List<CustomerAccountSummary> rows) {
+		List<Object[]> slots = session
+				.createQuery("SELECT a.accountNumber, s.balance FROM AccountSubBalance s, Account a "
+						+ "WHERE s.accountId = a.id AND a.customer.id IN :ids AND a.subBalanceCount > 0",
+						Object[].class)
+				.setParameter("ids", customerIds)
+				.list();
+		if (slots.isEmpty()) {
+			return rows;
+		}
+		Map<String, Money> slotTotals = new HashMap<>();
+		for (Object[] slot : slots) {
+			slotTotals.merge((String) slot[0], (Money) slot[1], Money::plus);
+		}
+		List<CustomerAccountSummary> result = new ArrayList<>(rows.size());
+		for (CustomerAccountSummary row : rows) {
+			Money slotTotal = row.hasAccount() ? slotTotals.get(row.getAccountNumber()) : null;
+			result.add(slotTotal == null ? row
+					: new CustomerAccountSummary(row.getCustomerId(), row.getFirstName(), row.getLastName(),
+							row.getPanNumber(), row.getEmail(), row.getAccountNumber(), row.getAccountType(),
+							row.getBalance().plus(slotTotal)));
 		}
+		return result;
 	}
 
-	private boolean isAadharExists(String aadharNumber) {
-		Session session = HibernateUtil.getSessionFactory().openSession();
-		try {
-			Query<Long> query = session
-					.createQuery("SELECT COUNT(c) FROM Customer c WHERE aadharNumber = :aadharNumber", Long.class);
-			query.setParameter("aadharNumber", aadharNumber);
-			return query.uniqueResult() > 0;
-		} finally {
-			session.close();
+	private static boolean isConstraintViolation(Throwable e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException) {
+				return true;
+			}
 		}
+		return false;
 	}
 }
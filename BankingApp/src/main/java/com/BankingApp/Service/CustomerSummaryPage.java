@@ -0,0 +1,22 @@
+package com.BankingApp.Service;
+
+import java.util.List;
+
+/**
+ * One page of the customer listing. nextCursor is the last customer id on the
+ * page, or null on the last page.
+ */
+public class CustomerSummaryPage {
+    private final List<CustomerAccountSummary> rows;
+    private final Long nextCursor;
+
+    CustomerSummaryPage(List<CustomerAccountSummary> rows, Long nextCursor) {
+        this.rows = rows;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<CustomerAccountSummary> getRows() { return rows; }
+    public Long getNextCursor() { return nextCursor; }
+    public boolean hasNext() { return nextCursor != null; }
+    public boolean isEmpty() { return rows.isEmpty(); }
+}
@@ -0,0 +1,226 @@
+package com.BankingApp.Service;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+
+import com.BankingApp.Util.AppConfig;
+import com.BankingApp.Util.BloomFilter;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.LongHashSet;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory answer to "is this PAN / Aadhar / email already taken?" for
+ * createCustomer. Every normalized key is hashed to 64 bits: a Bloom filter
+ * turns away most new keys after a few memory reads, and a LongHashSet of the
+ * same hashes settles the rest. Only a hash match goes to the database, to tell
+ * a real duplicate from two keys that happen to share a hash, so a key that is
+ * not taken never costs a query.
+ *
+ * Loaded from the customers table on first use and updated after every insert
+ * that CustomerService commits. Customers inserted any other way (another app
+ * node, DatabaseInitializer) are not in it; the unique constraints still reject
+ * those duplicates and createCustomer reports them the same way.
+ */
+public class CustomerUniquenessIndex {
+
+    public enum Field {
+        PAN("PAN number", "panNumber"), AADHAR("Aadhar number", "aadharNumber"), EMAIL("Email", "email");
+
+        private final String label;
+        private final String attribute;
+
+        Field(String label, String attribute) {
+            this.label = label;
+            this.attribute = attribute;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        // The Customer attribute holding this key, for queries
+        public String getAttribute() {
+            return attribute;
+        }
+    }
+
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    private static CustomerUniquenessIndex instance;
+
+    private final BloomFilter bloomFilter;
+    private final LongHashSet hashes;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder bloomNegatives = new LongAdder();
+    private final LongAdder databaseChecks = new LongAdder();
+
+    // Three keys per customer. The hash set grows as needed; the Bloom filter cannot, so it is sized up front
+    private CustomerUniquenessIndex(long existingCustomers, long expectedCustomers, double falsePositiveRate) {
+        int keysPerCustomer = Field.values().length;
+        this.bloomFilter = new BloomFilter(expectedCustomers * keysPerCustomer, falsePositiveRate);
+        this.hashes = new LongHashSet((int) Math.min(1 << 30, existingCustomers * keysPerCustomer));
+    }
+
+    public static synchronized CustomerUniquenessIndex getInstance() {
+        if (instance == null) {
+            instance = load();
+        }
+        return instance;
+    }
+
+    // Bloom filter sized for twice the current customers or the configured number, whichever is larger
+    private static CustomerUniquenessIndex load() {
+        StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession();
+        try {
+            long existing = session.createQuery("SELECT COUNT(c) FROM Customer c", Long.class).uniqueResult();
+            CustomerUniquenessIndex index = new CustomerUniquenessIndex(existing,
+                    Math.max(2 * existing, AppConfig.getLong("banking.customers.index.expected_customers", 1000000)),
+                    Double.parseDouble(AppConfig.get("banking.customers.index.false_positive_rate", "0.01")));
+            try (ScrollableResults<Object[]> rows = session
+                    .createQuery("SELECT c.panNumber, c.aadharNumber, c.email FROM Customer c", Object[].class)
+                    .setFetchSize(LOAD_FETCH_SIZE)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (rows.next()) {
+                    Object[] row = rows.get();
+                    index.add((String) row[0], (String) row[1], (String) row[2]);
+                }
+            }
+            return index;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Error loading customer uniqueness index: " + e.getMessage(), e);
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * The first of PAN, Aadhar and email already held by a customer, or null if
+     * none is. Null keys are skipped.
+     */
+    public Field findTaken(String panNumber, String aadharNumber, String email) {
+        lookups.increment();
+        if (mightBeTaken(Field.PAN, panNumber) && isTakenInDatabase(Field.PAN, panNumber)) {
+            return Field.PAN;
+        }
+        if (mightBeTaken(Field.AADHAR, aadharNumber) && isTakenInDatabase(Field.AADHAR, aadharNumber)) {
+            return Field.AADHAR;
+        }
+        if (mightBeTaken(Field.EMAIL, email) && isTakenInDatabase(Field.EMAIL, email)) {
+            return Field.EMAIL;
+        }
+        return null;
+    }
+
+    /**
+     * After an insert failed on a unique constraint: which key it was, checked in
+     * the database. Whatever is found is added to the index.
+     */
+    public Field findTakenInDatabase(String panNumber, String aadharNumber, String email) {
+        Field[] fields = Field.values();
+        String[] keys = { panNumber, aadharNumber, email };
+        for (int i = 0; i < fields.length; i++) {
+            if (keys[i] != null && isTakenInDatabase(fields[i], keys[i])) {
+                addKey(fields[i], keys[i]);
+                return fields[i];
+            }
+        }
+        return null;
+    }
+
+    public void add(String panNumber, String aadharNumber, String email) {
+        addKey(Field.PAN, panNumber);
+        addKey(Field.AADHAR, aadharNumber);
+        addKey(Field.EMAIL, email);
+    }
+
+    public long getLookups() { return lookups.sum(); }
+    // Keys the Bloom filter alone showed to be new
+    public long getBloomNegatives() { return bloomNegatives.sum(); }
+    public long getDatabaseChecks() { return databaseChecks.sum(); }
+
+    public synchronized int getKeyCount() {
+        return hashes.size();
+    }
+
+    /**
+     * False only if no customer added to the index holds the key; true means the
+     * database has to be asked. Null keys are never taken.
+     */
+    public boolean mightBeTaken(Field field, String key) {
+        if (key == null) {
+            return false;
+        }
+        long hash = hash(field, key);
+        if (!bloomFilter.mightContain(hash)) {
+            bloomNegatives.increment();
+            return false;
+        }
+        synchronized (this) {
+            return hashes.contains(hash);
+        }
+    }
+
+    private void addKey(Field field, String key) {
+        if (key == null) {
+            return;
+        }
+        long hash = hash(field, key);
+        synchronized (this) {
+            hashes.add(hash);
+        }
+        bloomFilter.put(hash);
+    }
+
+    private boolean isTakenInDatabase(Field field, String key) {
+        databaseChecks.increment();
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            return session
+                    .createQuery("SELECT COUNT(c) FROM Customer c WHERE c." + field.getAttribute() + " = :key",
+                            Long.class)
+                    .setParameter("key", normalize(field, key))
+                    .setCacheable(true)
+                    .setCacheRegion("customer-queries")
+                    .uniqueResult() > 0;
+        } finally {
+            session.close();
+        }
+    }
+
+    // PAN is stored upper case and email lower case (createCustomer and CustomerImport store the
+    // normalized form), so the database check compares the bare, indexed column
+    public static String normalize(Field field, String key) {
+        String trimmed = key.trim();
+        switch (field) {
+            case PAN:
+                return trimmed.toUpperCase(Locale.ROOT);
+            case EMAIL:
+                return trimmed.toLowerCase(Locale.ROOT);
+            default:
+                return trimmed;
+        }
+    }
+
+    // FNV-1a over the field and the normalized key, finished with the MurmurHash3 64-bit mix
+    // so both 32-bit halves are usable by the Bloom filter
+    static long hash(Field field, String key) {
+        String normalized = normalize(field, key);
+        long h = 0xcbf29ce484222325L;
+        h = (h ^ field.ordinal()) * 0x100000001b3L;
+        for (int i = 0; i < normalized.length(); i++) {
+            h = (h ^ normalized.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,39 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.Entities.Transactions;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position in an account's transaction history, newest first. The next page
+ * starts strictly after (transactionDate, id) of the last row already seen, so
+ * the database seeks straight to it through the (account_id, transaction_date)
+ * index instead of counting past an offset.
+ */
+public class HistoryCursor {
+    private final LocalDateTime transactionDate;
+    private final Long id;
+
+    public HistoryCursor(LocalDateTime transactionDate, Long id) {
+        if (transactionDate == null || id == null) {
+            throw new IllegalArgumentException("Cursor needs both a transaction date and an id");
+        }
+        this.transactionDate = transactionDate;
+        this.id = id;
+    }
+
+    public static HistoryCursor after(Transactions transaction) {
+        return new HistoryCursor(transaction.getTransactionDate(), transaction.getId());
+    }
+
+    public LocalDateTime getTransactionDate() { return transactionDate; }
+    public Long getId() { return id; }
+
+    @Override
+    public String toString() {
+        return "HistoryCursor{" +
+                "transactionDate=" + transactionDate +
+                ", id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,270 @@
+package com.BankingApp.Service;
+
+import jakarta.persistence.LockModeType;
+import org.hibernate.LockMode;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.InterestAccrualCheckpoint;
+import com.BankingApp.Entities.Transactions;
+import com.BankingApp.Journal.JournalEntry;
+import com.BankingApp.Journal.TransactionJournal;
+import com.BankingApp.Ledger.LedgerEngine;
+import com.BankingApp.Util.AppConfig;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.IdGenerator;
+import com.BankingApp.Util.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * End-of-day interest for SAVINGS accounts, posted as INTEREST transactions.
+ *
+ * Accounts are split into id ranges of banking.interest.partition_accounts
+ * (aligned to multiples of it, so a rerun sees the same ranges) and the
+ * ranges run on a pool of banking.interest.threads. Each range is worked
+ * through in batches of banking.interest.batch_size accounts: one locking
+ * read, the interest rows and balance updates sent as JDBC batches, and the
+ * range's InterestAccrualCheckpoint moved forward, all in one database
+ * transaction. Running the same day again skips finished ranges and resumes
+ * unfinished ones after their last credited account.
+ *
+ * Interest is computed on the balance at the end of the accrual day, taken as
+ * the current balance less anything posted since (from the daily balance
+ * snapshots), at banking.interest.savings_rate_bps basis points a year over
+ * 365 days, rounded half up to the paisa.
+ *
+ * The in-memory ledger keeps balances outside the database, so accrual
+ * refuses to run while it is enabled.
+ */
+public class InterestAccrualEngine {
+
+    public static final String TRANSACTION_TYPE = "INTEREST";
+
+    private static final int THREADS = AppConfig.getInt("banking.interest.threads", 4);
+    private static final int PARTITION_ACCOUNTS = AppConfig.getInt("banking.interest.partition_accounts", 10000);
+    private static final int BATCH_SIZE = AppConfig.getInt("banking.interest.batch_size", 500);
+    private static final long RATE_BPS = AppConfig.getLong("banking.interest.savings_rate_bps", 350);
+    private static final int MAX_ATTEMPTS = AppConfig.getInt("banking.retry.max_attempts", 5);
+    private static final long BACKOFF_MILLIS = AppConfig.getLong("banking.retry.backoff_ms", 10);
+    // Basis points are per 10000, and the yearly rate is spread over 365 days
+    private static final long RATE_DIVISOR = 10_000L * 365;
+    // Keeps balance * rate inside a long for any balance Money allows
+    private static final long MAX_RATE_BPS = (Long.MAX_VALUE - RATE_DIVISOR) / Money.MAX_PAISE;
+
+    private static final TransactionJournal JOURNAL = TransactionJournal.isEnabled()
+            ? TransactionJournal.getInstance()
+            : null;
+
+    /** Credits interest for accrualDate, which must be a day that has ended. */
+    public InterestAccrualReport accrue(LocalDate accrualDate) {
+        if (LedgerEngine.isEnabled()) {
+            throw new IllegalStateException("Interest accrual cannot run while the in-memory ledger is enabled");
+        }
+        if (accrualDate == null || !accrualDate.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Accrual date must be before today: " + accrualDate);
+        }
+        if (RATE_BPS < 0 || RATE_BPS > MAX_RATE_BPS) {
+            throw new IllegalStateException("banking.interest.savings_rate_bps must be between 0 and " + MAX_RATE_BPS);
+        }
+        long start = System.nanoTime();
+
+        Object[] range;
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            range = session.createQuery("SELECT MIN(a.id), MAX(a.id) FROM Account a WHERE a.accountType = 'SAVINGS'",
+                    Object[].class).getSingleResult();
+        } finally {
+            session.close();
+        }
+        List<InterestAccrualReport.Partition> results = new ArrayList<>();
+        if (range[0] == null) {
+            return new InterestAccrualReport(accrualDate, results, System.nanoTime() - start);
+        }
+        long minId = ((Number) range[0]).longValue();
+        long maxId = ((Number) range[1]).longValue();
+
+        ForkJoinPool pool = new ForkJoinPool(THREADS);
+        try {
+            List<ForkJoinTask<InterestAccrualReport.Partition>> partitions = new ArrayList<>();
+            for (long low = Math.floorDiv(minId, PARTITION_ACCOUNTS) * PARTITION_ACCOUNTS; low <= maxId;
+                    low += PARTITION_ACCOUNTS) {
+                long partitionStart = low;
+                long partitionEnd = low + PARTITION_ACCOUNTS - 1;
+                partitions.add(pool.submit(() -> accruePartition(accrualDate, partitionStart, partitionEnd)));
+            }
+            for (ForkJoinTask<InterestAccrualReport.Partition> partition : partitions) {
+                results.add(partition.get());
+            }
+            return new InterestAccrualReport(accrualDate, results, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interest accrual interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error accruing interest: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private InterestAccrualReport.Partition accruePartition(LocalDate accrualDate, long partitionStart,
+            long partitionEnd) {
+        long start = System.nanoTime();
+        long[] totals = new long[3]; // accounts scanned, accounts credited, interest paise
+        boolean skipped = false;
+        while (true) {
+            BatchOutcome outcome = accrueBatchWithRetry(accrualDate, partitionStart, partitionEnd);
+            if (outcome == BatchOutcome.ALREADY_COMPLETED) {
+                skipped = totals[0] == 0;
+                break;
+            }
+            totals[0] += outcome.scanned;
+            totals[1] += outcome.credited;
+            totals[2] += outcome.interestPaise;
+            if (outcome.finished) {
+                break;
+            }
+        }
+        return new InterestAccrualReport.Partition(partitionStart, partitionEnd, totals[0], totals[1],
+                Money.ofPaise(totals[2]).toBigDecimal(), System.nanoTime() - start, skipped);
+    }
+
+    // Every attempt re-reads the checkpoint, so a retried batch never credits anyone twice
+    private BatchOutcome accrueBatchWithRetry(LocalDate accrualDate, long partitionStart, long partitionEnd) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return accrueBatch(accrualDate, partitionStart, partitionEnd);
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(BACKOFF_MILLIS << (attempt - 1));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private BatchOutcome accrueBatch(LocalDate accrualDate, long partitionStart, long partitionEnd) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        // Interest rows and balance updates go out as one JDBC batch each
+        session.setJdbcBatchSize(BATCH_SIZE);
+        Transaction dbTransaction = null;
+        List<JournalEntry> journal = new ArrayList<>(BATCH_SIZE);
+        try {
+            dbTransaction = session.beginTransaction();
+
+            // Locked first: a second run for the same day waits here instead of crediting the same accounts
+            InterestAccrualCheckpoint checkpoint = session.get(InterestAccrualCheckpoint.class,
+                    new InterestAccrualCheckpoint.Key(accrualDate, partitionStart), LockMode.PESSIMISTIC_WRITE);
+            if (checkpoint == null) {
+                checkpoint = new InterestAccrualCheckpoint(accrualDate, partitionStart, partitionEnd);
+                session.persist(checkpoint);
+            } else if (checkpoint.isCompleted()) {
+                dbTransaction.commit();
+                return BatchOutcome.ALREADY_COMPLETED;
+            }
+
+            List<Account> accounts = session.createQuery("FROM Account a WHERE a.id > :afterId AND a.id <= :endId "
+                    + "AND a.accountType = 'SAVINGS' AND a.status = 'ACTIVE' ORDER BY a.id", Account.class)
+                    .setParameter("afterId", checkpoint.getLastAccountId())
+                    .setParameter("endId", partitionEnd)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .setMaxResults(BATCH_SIZE)
+                    .list();
+            if (accounts.isEmpty()) {
+                checkpoint.markCompleted();
+                dbTransaction.commit();
+                return new BatchOutcome(0, 0, 0, true);
+            }
+
+            long firstId = accounts.get(0).getId();
+            long lastId = accounts.get(accounts.size() - 1).getId();
+            Map<Long, Long> postedSince = BalanceSnapshotService.netChangeAfter(session, firstId, lastId, accrualDate);
+            String description = "Interest for " + accrualDate;
+            long credited = 0;
+            long interestPaise = 0;
+            for (Account account : accounts) {
+                SubBalanceManager.drain(session, account);
+                Long change = postedSince.get(account.getId());
+                long endOfDayPaise = account.getBalance().getPaise() - (change != null ? change : 0);
+                long interest = interestOn(endOfDayPaise);
+                if (interest == 0 || account.getBalance().getPaise() > Money.MAX_PAISE - interest) {
+                    continue;
+                }
+                Money amount = Money.ofPaise(interest);
+                account.deposit(amount);
+                Transactions transaction = new Transactions(IdGenerator.getInstance().nextTransactionId(),
+                        TRANSACTION_TYPE, amount, description, account);
+                transaction.setDirection("CREDIT");
+                session.persist(transaction);
+                journal.add(JournalEntry.of(JournalEntry.Kind.INTEREST, transaction));
+                credited++;
+                interestPaise += interest;
+            }
+
+            BalanceSnapshotService.applyPostings(session, journal);
+            checkpoint.recordBatch(lastId, credited, Money.ofPaise(interestPaise));
+            boolean finished = accounts.size() < BATCH_SIZE;
+            if (finished) {
+                checkpoint.markCompleted();
+            }
+            dbTransaction.commit();
+            appendToJournal(journal);
+            return new BatchOutcome(accounts.size(), credited, interestPaise, finished);
+
+        } catch (RuntimeException e) {
+            if (dbTransaction != null && dbTransaction.isActive()) {
+                dbTransaction.rollback();
+            }
+            throw e;
+        } finally {
+            session.close();
+        }
+    }
+
+    // One day of interest on a balance in paise, rounded half up; nothing on zero or negative balances
+    static long interestOn(long balancePaise) {
+        if (balancePaise <= 0) {
+            return 0;
+        }
+        return (balancePaise * RATE_BPS + RATE_DIVISOR / 2) / RATE_DIVISOR;
+    }
+
+    // After commit, like AccountService: the interest is posted whatever happens here
+    private void appendToJournal(List<JournalEntry> entries) {
+        if (JOURNAL == null || entries.isEmpty()) {
+            return;
+        }
+        try {
+            JOURNAL.append(entries).join();
+        } catch (RuntimeException e) {
+            System.err.println("Could not journal " + entries.size() + " interest transactions: " + e.getMessage());
+        }
+    }
+
+    private static final class BatchOutcome {
+        static final BatchOutcome ALREADY_COMPLETED = new BatchOutcome(0, 0, 0, true);
+
+        final long scanned;
+        final long credited;
+        final long interestPaise;
+        final boolean finished;
+
+        BatchOutcome(long scanned, long credited, long interestPaise, boolean finished) {
+            this.scanned = scanned;
+            this.credited = credited;
+            this.interestPaise = interestPaise;
+            this.finished = finished;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.BankingApp.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/** Outcome of one InterestAccrualEngine run, partition by partition. */
+public class InterestAccrualReport {
+    private final LocalDate accrualDate;
+    private final List<Partition> partitions;
+    private final long elapsedNanos;
+
+    InterestAccrualReport(LocalDate accrualDate, List<Partition> partitions, long elapsedNanos) {
+        this.accrualDate = accrualDate;
+        this.partitions = Collections.unmodifiableList(partitions);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public LocalDate getAccrualDate() { return accrualDate; }
+    public List<Partition> getPartitions() { return partitions; }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+    public long getAccountsCredited() {
+        long total = 0;
+        for (Partition partition : partitions) {
+            total += partition.getAccountsCredited();
+        }
+        return total;
+    }
+
+    public BigDecimal getTotalInterest() {
+        BigDecimal total = BigDecimal.ZERO.setScale(2);
+        for (Partition partition : partitions) {
+            total = total.add(partition.getInterest());
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "InterestAccrualReport{" +
+                "accrualDate=" + accrualDate +
+                ", partitions=" + partitions.size() +
+                ", accountsCredited=" + getAccountsCredited() +
+                ", totalInterest=" + getTotalInterest() +
+                ", elapsedMillis=" + getElapsedMillis() +
+                '}';
+    }
+
+    /**
+     * Work done on one account id range in this run. A partition already
+     * completed by an earlier run for the same day is reported as skipped.
+     */
+    public static class Partition {
+        private final long startId;
+        private final long endId;
+        private final long accountsScanned;
+        private final long accountsCredited;
+        private final BigDecimal interest;
+        private final long elapsedNanos;
+        private final boolean skipped;
+
+        Partition(long startId, long endId, long accountsScanned, long accountsCredited, BigDecimal interest,
+                long elapsedNanos, boolean skipped) {
+            this.startId = startId;
+            this.endId = endId;
+            this.accountsScanned = accountsScanned;
+            this.accountsCredited = accountsCredited;
+            this.interest = interest;
+            this.elapsedNanos = elapsedNanos;
+            this.skipped = skipped;
+        }
+
+        public long getStartId() { return startId; }
+        public long getEndId() { return endId; }
+        public long getAccountsScanned() { return accountsScanned; }
+        public long getAccountsCredited() { return accountsCredited; }
+        public BigDecimal getInterest() { return interest; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+        public boolean isSkipped() { return skipped; }
+
+        public double getAccountsPerSecond() {
+            return elapsedNanos == 0 ? 0 : accountsScanned * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Partition{" +
+                    "ids=" + startId + ".." + endId +
+                    ", accountsScanned=" + accountsScanned +
+                    ", accountsCredited=" + accountsCredited +
+                    ", interest=" + interest +
+                    ", elapsedMillis=" + getElapsedMillis() +
+                    ", accountsPerSecond=" + String.format("%.0f", getAccountsPerSecond()) +
+                    (skipped ? ", skipped" : "") +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.Util.AppConfig;
+import com.BankingApp.Util.ConnectionPool;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.LatencyHistogram;
+import com.BankingApp.Util.SessionMonitor;
+import com.BankingApp.Util.SlowQueryLog;
+import com.sun.net.httpserver.HttpServer;
+
+import org.hibernate.stat.Statistics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Renders OperationMetrics, RetryMetrics, the primary SessionFactory's
+ * Hibernate statistics and per-region cache counters, SessionMonitor's
+ * session, connection and transaction times, the slow query count, the
+ * connection pool's acquire times and the account lock waits in the
+ * Prometheus text format, to a file or over HTTP.
+ * With banking.metrics.http_port set, startIfEnabled serves GET /metrics on
+ * banking.metrics.http_host (loopback by default) from one background thread.
+ * Latencies are summaries with 0.5, 0.99 and 0.999 quantiles over everything
+ * recorded since start-up; lock waits are a histogram of AccountLockManager's
+ * power-of-two buckets.
+ */
+public class MetricsExporter {
+    private static final double[] QUANTILES = { 0.5, 0.99, 0.999 };
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private static HttpServer server;
+
+    public static synchronized void startIfEnabled() {
+        int port = AppConfig.getInt("banking.metrics.http_port", 0);
+        if (server != null || port <= 0) {
+            return;
+        }
+        try {
+            String host = AppConfig.get("banking.metrics.http_host", null);
+            InetAddress address = host == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(host);
+            server = HttpServer.create(new InetSocketAddress(address, port), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Error starting metrics endpoint on port " + port + ": " + e.getMessage(), e);
+        }
+        server.createContext("/metrics", exchange -> {
+            try {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(405, -1);
+                    return;
+                }
+                byte[] body = toPrometheusText().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Metrics request failed: " + e.getMessage());
+                exchange.sendResponseHeaders(500, -1);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread t = new Thread(runnable, "metrics-http");
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+    }
+
+    public static synchronized void shutdownIfRunning() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    // Port actually bound, or 0 when the endpoint is not running
+    public static synchronized int getPort() {
+        return server == null ? 0 : server.getAddress().getPort();
+    }
+
+    /**
+     * Writes the metrics to file through a temporary file in the same directory
+     * and a rename, so a collector reading the file never sees half of it.
+     */
+    public static void writeTo(Path file) {
+        Path absolute = file.toAbsolutePath();
+        try {
+            Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temporary, toPrometheusText().getBytes(StandardCharsets.UTF_8));
+                Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing metrics to " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    public static String toPrometheusText() {
+        StringBuilder out = new StringBuilder(8192);
+
+        Map<String, LatencyHistogram> operations = OperationMetrics.getLatencies();
+        header(out, "banking_operation_seconds", "summary", "AccountService and CustomerService call latency");
+        for (Map.Entry<String, LatencyHistogram> operation : operations.entrySet()) {
+            summary(out, "banking_operation_seconds", "operation=\"" + operation.getKey() + "\"",
+                    operation.getValue());
+        }
+        header(out, "banking_operation_seconds_max", "gauge", "Slowest call since start-up");
+        for (Map.Entry<String, LatencyHistogram> operation : operations.entrySet()) {
+            sample(out, "banking_operation_seconds_max", "operation=\"" + operation.getKey() + "\"",
+                    operation.getValue().getMaxNanos() / NANOS_PER_SECOND);
+        }
+        header(out, "banking_operation_errors_total", "counter", "Calls that ended in an exception");
+        for (String operation : operations.keySet()) {
+            sample(out, "banking_operation_errors_total", "operation=\"" + operation + "\"",
+                    OperationMetrics.getErrorCount(operation));
+        }
+
+        header(out, "banking_retries_total", "counter", "Attempts replayed after a lost lock or version race");
+        for (Map.Entry<String, Long> retries : RetryMetrics.getRetryCounts().entrySet()) {
+            sample(out, "banking_retries_total", "operation=\"" + retries.getKey() + "\"", retries.getValue());
+        }
+        header(out, "banking_retry_give_ups_total", "counter", "Operations that failed after the last attempt");
+        for (Map.Entry<String, Long> giveUps : RetryMetrics.getGiveUpCounts().entrySet()) {
+            sample(out, "banking_retry_give_ups_total", "operation=\"" + giveUps.getKey() + "\"",
+                    giveUps.getValue());
+        }
+
+        Statistics statistics = HibernateUtil.getStatistics();
+        counter(out, "hibernate_sessions_opened_total", "Sessions opened", statistics.getSessionOpenCount());
+        counter(out, "hibernate_transactions_total", "Transactions completed", statistics.getTransactionCount());
+        counter(out, "hibernate_statements_prepared_total", "JDBC statements prepared",
+                statistics.getPrepareStatementCount());
+        counter(out, "hibernate_query_executions_total", "HQL/SQL queries executed",
+                statistics.getQueryExecutionCount());
+        header(out, "hibernate_query_execution_max_seconds", "gauge", "Slowest query since start-up");
+        sample(out, "hibernate_query_execution_max_seconds", null,
+                statistics.getQueryExecutionMaxTime() / 1000.0);
+        counter(out, "hibernate_entity_loads_total", "Entities loaded", statistics.getEntityLoadCount());
+        counter(out, "hibernate_entity_fetches_total", "Entities fetched lazily",
+                statistics.getEntityFetchCount());
+        counter(out, "hibernate_entity_inserts_total", "Entities inserted", statistics.getEntityInsertCount());
+        counter(out, "hibernate_entity_updates_total", "Entities updated", statistics.getEntityUpdateCount());
+        counter(out, "hibernate_flushes_total", "Session flushes", statistics.getFlushCount());
+        header(out, "hibernate_second_level_cache_requests_total", "counter", "Second-level cache lookups");
+        sample(out, "hibernate_second_level_cache_requests_total", "result=\"hit\"",
+                statistics.getSecondLevelCacheHitCount());
+        sample(out, "hibernate_second_level_cache_requests_total", "result=\"miss\"",
+                statistics.getSecondLevelCacheMissCount());
+        counter(out, "hibernate_second_level_cache_puts_total", "Second-level cache puts",
+                statistics.getSecondLevelCachePutCount());
+        header(out, "hibernate_natural_id_cache_requests_total", "counter", "Natural id cache lookups");
+        sample(out, "hibernate_natural_id_cache_requests_total", "result=\"hit\"",
+                statistics.getNaturalIdCacheHitCount());
+        sample(out, "hibernate_natural_id_cache_requests_total", "result=\"miss\"",
+                statistics.getNaturalIdCacheMissCount());
+        HibernateUtil.CacheStats cache = HibernateUtil.getCacheStats();
+        header(out, "hibernate_query_cache_requests_total", "counter", "Query cache lookups");
+        sample(out, "hibernate_query_cache_requests_total", "result=\"hit\"", cache.getQueryHits());
+        sample(out, "hibernate_query_cache_requests_total", "result=\"miss\"", cache.getQueryMisses());
+        counter(out, "hibernate_query_cache_puts_total", "Query cache puts", cache.getQueryPuts());
+        header(out, "hibernate_cache_region_requests_total", "counter", "Second-level cache lookups per region");
+        for (Map.Entry<String, HibernateUtil.RegionStats> region : cache.getRegions().entrySet()) {
+            String label = "region=\"" + region.getKey() + "\"";
+            sample(out, "hibernate_cache_region_requests_total", label + ",result=\"hit\"",
+                    region.getValue().getHits());
+            sample(out, "hibernate_cache_region_requests_total", label + ",result=\"miss\"",
+                    region.getValue().getMisses());
+        }
+        header(out, "hibernate_cache_region_puts_total", "counter", "Second-level cache puts per region");
+        for (Map.Entry<String, HibernateUtil.RegionStats> region : cache.getRegions().entrySet()) {
+            sample(out, "hibernate_cache_region_puts_total", "region=\"" + region.getKey() + "\"",
+                    region.getValue().getPuts());
+        }
+        header(out, "hibernate_cache_region_entries", "gauge", "Entries held per region (-1 if not reported)");
+        for (Map.Entry<String, HibernateUtil.RegionStats> region : cache.getRegions().entrySet()) {
+            sample(out, "hibernate_cache_region_entries", "region=\"" + region.getKey() + "\"",
+                    region.getValue().getSize());
+        }
+
+        header(out, "banking_session_open_seconds", "summary", "Time from opening a Hibernate session to closing it");
+        summary(out, "banking_session_open_seconds", null, SessionMonitor.getSessionTimes());
+        header(out, "banking_session_connection_held_seconds", "summary",
+                "Time a session held a pooled connection");
+        summary(out, "banking_session_connection_held_seconds", null, SessionMonitor.getConnectionHoldTimes());
+        header(out, "banking_session_transaction_seconds", "summary", "Time from begin to commit or rollback");
+        summary(out, "banking_session_transaction_seconds", null, SessionMonitor.getTransactionTimes());
+        counter(out, "banking_session_leaks_total", "Sessions reported open past banking.sessions.leak_threshold_ms",
+                SessionMonitor.getLeaksReported());
+        counter(out, "banking_slow_queries_total", "Statements slower than banking.sessions.slow_query_ms",
+                SlowQueryLog.getSlowQueryCount());
+
+        ConnectionPool.ConnectionPoolStats pool = ConnectionPool.getStats();
+        header(out, "banking_pool_acquire_seconds", "summary", "Time getConnection() waited on the primary pool");
+        summary(out, "banking_pool_acquire_seconds", null, ConnectionPool.getAcquireTimes());
+        counter(out, "banking_pool_acquire_timeouts_total", "getConnection() calls that timed out",
+                pool.getAcquireTimeouts());
+        header(out, "banking_pool_connections", "gauge", "Primary pool connections by state");
+        sample(out, "banking_pool_connections", "state=\"active\"", pool.getActive());
+        sample(out, "banking_pool_connections", "state=\"idle\"", pool.getIdle());
+        header(out, "banking_pool_threads_waiting", "gauge", "Threads waiting for a primary pool connection");
+        sample(out, "banking_pool_threads_waiting", null, pool.getWaiting());
+
+        AccountLockManager locks = AccountLockManager.getInstance();
+        header(out, "banking_lock_wait_seconds", "histogram", "Time a posting waited for its account lock stripe");
+        Map<Long, Long> lockWaits = locks.getCumulativeWaitHistogram();
+        for (Map.Entry<Long, Long> bucket : lockWaits.entrySet()) {
+            sample(out, "banking_lock_wait_seconds_bucket", bucket.getKey() == Long.MAX_VALUE ? "le=\"+Inf\""
+                    : "le=\"" + bucket.getKey() / 1_000_000.0 + "\"", bucket.getValue());
+        }
+        sample(out, "banking_lock_wait_seconds_sum", null, locks.getTotalWaitNanos() / NANOS_PER_SECOND);
+        sample(out, "banking_lock_wait_seconds_count", null, lockWaits.get(Long.MAX_VALUE));
+        counter(out, "banking_lock_acquires_contended_total", "Lock acquisitions that found the stripe held",
+                locks.getContendedCount());
+        counter(out, "banking_lock_timeouts_total", "Postings that gave up waiting for their account lock",
+                locks.getTimeoutCount());
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, "counter", help);
+        sample(out, name, null, value);
+    }
+
+    private static void summary(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        for (double quantile : QUANTILES) {
+            String quantileLabel = "quantile=\"" + quantile + "\"";
+            sample(out, name, labels == null ? quantileLabel : labels + "," + quantileLabel,
+                    histogram.getPercentileNanos(quantile) / NANOS_PER_SECOND);
+        }
+        sample(out, name + "_sum", labels, histogram.getSumNanos() / NANOS_PER_SECOND);
+        sample(out, name + "_count", labels, histogram.getCount());
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+}
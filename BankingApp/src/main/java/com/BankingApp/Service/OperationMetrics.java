@@ -0,0 +1,66 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.Util.AppConfig;
+import com.BankingApp.Util.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Latency and error counts for every public AccountService and CustomerService
+ * call, keyed "Service.method". A call is timed from entry to return, retries
+ * and lock waits included; one that throws is timed too and also counted as an
+ * error. streamTransactionHistory is timed up to the stream being handed back.
+ */
+public class OperationMetrics {
+    private static final boolean ENABLED = AppConfig.getBoolean("banking.metrics.enabled", true);
+    private static final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    static <T> T time(String operation, Supplier<T> call) {
+        if (!ENABLED) {
+            return call.get();
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } finally {
+            Timer timer = timers.computeIfAbsent(operation, k -> new Timer());
+            timer.latency.record(System.nanoTime() - start);
+            if (failed) {
+                timer.errors.increment();
+            }
+        }
+    }
+
+    public static LatencyHistogram getLatency(String operation) {
+        Timer timer = timers.get(operation);
+        return timer == null ? null : timer.latency;
+    }
+
+    public static long getErrorCount(String operation) {
+        Timer timer = timers.get(operation);
+        return timer == null ? 0 : timer.errors.sum();
+    }
+
+    // Operation names in sorted order, each with its histogram
+    public static Map<String, LatencyHistogram> getLatencies() {
+        Map<String, LatencyHistogram> result = new TreeMap<>();
+        timers.forEach((operation, timer) -> result.put(operation, timer.latency));
+        return result;
+    }
+
+    public static void reset() {
+        timers.clear();
+    }
+
+    private static class Timer {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+}
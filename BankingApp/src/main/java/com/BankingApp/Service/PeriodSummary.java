@@ -0,0 +1,54 @@
+package com.BankingApp.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Balance movement of one account over the days from..to, both inclusive.
+ * openingBalance is the balance at the end of the day before from.
+ */
+public class PeriodSummary {
+    private final String accountNumber;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final BigDecimal openingBalance;
+    private final BigDecimal totalDebits;
+    private final BigDecimal totalCredits;
+    private final BigDecimal closingBalance;
+    private final long transactionCount;
+
+    PeriodSummary(String accountNumber, LocalDate from, LocalDate to, BigDecimal openingBalance,
+            BigDecimal totalDebits, BigDecimal totalCredits, BigDecimal closingBalance, long transactionCount) {
+        this.accountNumber = accountNumber;
+        this.from = from;
+        this.to = to;
+        this.openingBalance = openingBalance;
+        this.totalDebits = totalDebits;
+        this.totalCredits = totalCredits;
+        this.closingBalance = closingBalance;
+        this.transactionCount = transactionCount;
+    }
+
+    public String getAccountNumber() { return accountNumber; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public BigDecimal getOpeningBalance() { return openingBalance; }
+    public BigDecimal getTotalDebits() { return totalDebits; }
+    public BigDecimal getTotalCredits() { return totalCredits; }
+    public BigDecimal getClosingBalance() { return closingBalance; }
+    public long getTransactionCount() { return transactionCount; }
+
+    @Override
+    public String toString() {
+        return "PeriodSummary{" +
+                "accountNumber='" + accountNumber + '\'' +
+                ", from=" + from +
+                ", to=" + to +
+                ", openingBalance=" + openingBalance +
+                ", totalDebits=" + totalDebits +
+                ", totalCredits=" + totalCredits +
+                ", closingBalance=" + closingBalance +
+                ", transactionCount=" + transactionCount +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package com.BankingApp.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often AccountService operations had to be replayed after losing a
+ * lock or version race, and how often they gave up after the last attempt.
+ */
+public class RetryMetrics {
+    private static final Map<String, LongAdder> retries = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> giveUps = new ConcurrentHashMap<>();
+
+    static void recordRetry(String operation) {
+        retries.computeIfAbsent(operation, k -> new LongAdder()).increment();
+    }
+
+    static void recordGiveUp(String operation) {
+        giveUps.computeIfAbsent(operation, k -> new LongAdder()).increment();
+    }
+
+    public static long getRetryCount(String operation) {
+        LongAdder counter = retries.get(operation);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public static long getGiveUpCount(String operation) {
+        LongAdder counter = giveUps.get(operation);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public static Map<String, Long> getRetryCounts() {
+        return snapshot(retries);
+    }
+
+    public static Map<String, Long> getGiveUpCounts() {
+        return snapshot(giveUps);
+    }
+
+    public static void reset() {
+        retries.clear();
+        giveUps.clear();
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((operation, counter) -> result.put(operation, counter.sum()));
+        return result;
+    }
+}
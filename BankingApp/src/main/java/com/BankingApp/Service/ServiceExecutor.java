@@ -0,0 +1,208 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.Util.AppConfig;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs service calls (AccountService, CustomerService, ...) for many concurrent
+ * clients. Each call gets its own virtual thread when the JVM has them (Java
+ * 21+), and a thread from a fixed pool of banking.executor.max_concurrent
+ * otherwise. At most banking.executor.max_concurrent calls run at once
+ * (default: the connection pool size); the rest wait for a slot instead of
+ * queueing inside the connection pool.
+ *
+ * A call that has not finished banking.executor.call_timeout_ms after it was
+ * submitted, waiting for a slot included, fails with a TimeoutException and its
+ * thread is interrupted. An interrupted posting rolls back, but one that had
+ * already committed stays committed, so a timed-out caller should check the
+ * account before retrying.
+ *
+ * mysql-connector-j 8.0 does its socket reads inside synchronized blocks,
+ * which pins a virtual thread to its carrier; run with
+ * -Djdk.virtualThreadScheduler.parallelism of at least max_concurrent so
+ * pinned calls cannot hold up the others.
+ */
+public class ServiceExecutor implements AutoCloseable {
+
+    private static final int MAX_CONCURRENT = AppConfig.getInt("banking.executor.max_concurrent",
+            AppConfig.getInt("banking.pool.maximum_pool_size", 10));
+    private static final long CALL_TIMEOUT_MILLIS = AppConfig.getLong("banking.executor.call_timeout_ms", 30000);
+
+    private final Semaphore slots;
+    private final long callTimeoutMillis;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final ScheduledExecutorService timer;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public ServiceExecutor() {
+        this(MAX_CONCURRENT, CALL_TIMEOUT_MILLIS);
+    }
+
+    public ServiceExecutor(int maxConcurrent, long callTimeoutMillis) {
+        if (maxConcurrent <= 0 || callTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("maxConcurrent and callTimeoutMillis must be positive");
+        }
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.callTimeoutMillis = callTimeoutMillis;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : Executors.newFixedThreadPool(maxConcurrent, daemon("service-call"));
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemon("service-call-timeout"));
+    }
+
+    /**
+     * Runs the operation on its own thread. The future fails with the
+     * operation's exception, or with a TimeoutException once the call timeout
+     * has passed.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(callTimeoutMillis);
+
+        Future<?> task = executor.submit(() -> run(operation, result, deadline));
+        ScheduledFuture<?> timeout = timer.schedule(() -> {
+            if (complete(result, timedOut, () -> result.completeExceptionally(
+                    new TimeoutException("Service call did not finish within " + callTimeoutMillis + " ms")))) {
+                task.cancel(true);
+            }
+        }, callTimeoutMillis, TimeUnit.MILLISECONDS);
+        // Leave nothing behind in the timer queue once the call is over
+        result.whenComplete((value, error) -> timeout.cancel(false));
+        return result;
+    }
+
+    /** Runs the operation and waits for it; its unchecked exceptions are rethrown as they are. */
+    public <T> T call(Callable<T> operation) {
+        try {
+            return submit(operation).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for service call", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Service call failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private <T> void run(Callable<T> operation, CompletableFuture<T> result, long deadline) {
+        boolean acquired = false;
+        try {
+            acquired = slots.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (!acquired || result.isDone()) {
+                // The timer reports the timeout; nothing was started
+                return;
+            }
+            active.incrementAndGet();
+            try {
+                T value = operation.call();
+                complete(result, completed, () -> result.complete(value));
+            } finally {
+                active.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            // Interrupted by the timeout, which has already completed the future
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            complete(result, failed, () -> result.completeExceptionally(e));
+        } finally {
+            if (acquired) {
+                slots.release();
+            }
+        }
+    }
+
+    // Counted before the future completes so a caller woken by it sees the count; taken back if
+    // the call had already ended another way (a timeout racing the result)
+    private static boolean complete(CompletableFuture<?> result, LongAdder counter, BooleanSupplier completion) {
+        counter.increment();
+        if (completion.getAsBoolean()) {
+            return true;
+        }
+        counter.decrement();
+        return false;
+    }
+
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getActiveCalls() {
+        return active.get();
+    }
+
+    public int getWaitingCalls() {
+        return slots.getQueueLength();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+
+    /** Stops accepting calls and waits up to the call timeout for running ones. */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(callTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    // Looked up rather than called so the code still builds and runs on Java 8-20,
+    // where it falls back to platform threads
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,193 @@
+package com.BankingApp.Service;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import com.BankingApp.Util.AppConfig;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rebuilds daily_balance_snapshots from the transactions table, for data
+ * written before snapshots existed or to repair them. Accounts are split
+ * into id ranges of banking.snapshots.backfill_chunk_accounts, each range
+ * rebuilt in its own database transaction on one of
+ * banking.snapshots.backfill_threads threads.
+ *
+ * Only days up to throughDate are rebuilt, and throughDate must be before
+ * today: live postings only touch today's rows, so the backfill can run while
+ * the bank is open.
+ */
+public class SnapshotBackfill {
+
+    private static final int THREADS = AppConfig.getInt("banking.snapshots.backfill_threads", 4);
+    private static final int CHUNK_ACCOUNTS = AppConfig.getInt("banking.snapshots.backfill_chunk_accounts", 1000);
+    private static final int FETCH_SIZE = AppConfig.getInt("banking.history.fetch_size", 500);
+    private static final int WRITE_BATCH_SIZE = 500;
+
+    public Result run(LocalDate throughDate) {
+        if (throughDate == null || !throughDate.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Backfill date must be before today: " + throughDate);
+        }
+        long start = System.nanoTime();
+
+        Object[] range;
+        StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession();
+        try {
+            range = session.createQuery("SELECT MIN(a.id), MAX(a.id) FROM Account a", Object[].class)
+                    .getSingleResult();
+        } finally {
+            session.close();
+        }
+        if (range[0] == null) {
+            return new Result(0, 0, System.nanoTime() - start);
+        }
+        long minId = ((Number) range[0]).longValue();
+        long maxId = ((Number) range[1]).longValue();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, "snapshot-backfill-" + count.incrementAndGet());
+            }
+        });
+        try {
+            List<Future<Long>> chunks = new ArrayList<>();
+            for (long low = minId; low <= maxId; low += CHUNK_ACCOUNTS) {
+                long chunkLow = low;
+                long chunkHigh = Math.min(maxId, low + CHUNK_ACCOUNTS - 1);
+                chunks.add(executor.submit(() -> rebuildChunk(chunkLow, chunkHigh, throughDate)));
+            }
+            long written = 0;
+            for (Future<Long> chunk : chunks) {
+                written += chunk.get();
+            }
+            return new Result(chunks.size(), written, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Snapshot backfill interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error backfilling snapshots: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Replaces the snapshots of accounts lowId..highId up to throughDate, reading their
+    // transactions once in (account, date) order
+    private long rebuildChunk(long lowId, long highId, LocalDate throughDate) {
+        StatelessSession session = HibernateUtil.getSessionFactory().openStatelessSession();
+        Transaction transaction = null;
+        try {
+            transaction = session.beginTransaction();
+            session.createMutationQuery("DELETE FROM DailyBalanceSnapshot s "
+                    + "WHERE s.accountId BETWEEN :low AND :high AND s.snapshotDate <= :through")
+                    .setParameter("low", lowId)
+                    .setParameter("high", highId)
+                    .setParameter("through", throughDate)
+                    .executeUpdate();
+
+            long written = 0;
+            List<BalanceSnapshotService.DayTotals> pending = new ArrayList<>(WRITE_BATCH_SIZE);
+            BalanceSnapshotService.DayTotals day = null;
+            // Carried from each account's first transaction on, as balance_after_transaction of a
+            // split account's deposit may have missed deposits to its other slots
+            long balancePaise = 0;
+            try (ScrollableResults<Object[]> rows = session.createQuery("SELECT t.account.id, t.transactionDate, "
+                    + "t.direction, t.amount, t.balanceAfterTransaction "
+                    + "FROM Transactions t WHERE t.account.id BETWEEN :low AND :high AND t.transactionDate < :end "
+                    + "ORDER BY t.account.id, t.transactionDate, t.id", Object[].class)
+                    .setParameter("low", lowId)
+                    .setParameter("high", highId)
+                    .setParameter("end", throughDate.plusDays(1).atStartOfDay())
+                    .setFetchSize(FETCH_SIZE)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (rows.next()) {
+                    Object[] row = rows.get();
+                    long accountId = ((Number) row[0]).longValue();
+                    LocalDate date = ((LocalDateTime) row[1]).toLocalDate();
+                    boolean debit = isDebit((String) row[2]);
+                    long amountPaise = ((Money) row[3]).getPaise();
+                    if (day == null || day.accountId != accountId) {
+                        long afterPaise = ((Money) row[4]).getPaise();
+                        balancePaise = debit ? afterPaise + amountPaise : afterPaise - amountPaise;
+                    }
+                    balancePaise = debit ? balancePaise - amountPaise : balancePaise + amountPaise;
+                    if (day == null || day.accountId != accountId || !day.date.equals(date)) {
+                        if (day != null) {
+                            pending.add(day);
+                        }
+                        if (pending.size() == WRITE_BATCH_SIZE) {
+                            BalanceSnapshotService.write(session, pending);
+                            written += pending.size();
+                            pending.clear();
+                        }
+                        day = new BalanceSnapshotService.DayTotals(accountId, date);
+                    }
+                    day.add(debit, amountPaise, balancePaise);
+                }
+            }
+            if (day != null) {
+                pending.add(day);
+            }
+            if (!pending.isEmpty()) {
+                BalanceSnapshotService.write(session, pending);
+                written += pending.size();
+            }
+
+            transaction.commit();
+            return written;
+        } catch (RuntimeException e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            session.close();
+        }
+    }
+
+    // Value of transactions.direction; DatabaseInitializer fills it in for rows written before it existed
+    static boolean isDebit(String direction) {
+        return "DEBIT".equals(direction);
+    }
+
+    public static class Result {
+        private final int chunks;
+        private final long snapshotsWritten;
+        private final long elapsedNanos;
+
+        Result(int chunks, long snapshotsWritten, long elapsedNanos) {
+            this.chunks = chunks;
+            this.snapshotsWritten = snapshotsWritten;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getChunks() { return chunks; }
+        public long getSnapshotsWritten() { return snapshotsWritten; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        @Override
+        public String toString() {
+            return "SnapshotBackfill.Result{" +
+                    "chunks=" + chunks +
+                    ", snapshotsWritten=" + snapshotsWritten +
+                    ", elapsedMillis=" + getElapsedMillis() +
+                    '}';
+        }
+    }
+}
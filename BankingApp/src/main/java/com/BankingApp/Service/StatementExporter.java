@@ -0,0 +1,392 @@
+package com.BankingApp.Service;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import com.BankingApp.Ledger.LedgerEngine;
+import com.BankingApp.Util.AppConfig;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Account statements for the days from..to (both inclusive), as CSV or JSON.
+ * Rows are read through a forward-only cursor banking.statements.fetch_size
+ * at a time (needs useCursorFetch on MySQL) and encoded straight into a
+ * buffered writer on an NIO channel; the running balance and totals are kept
+ * as they go, so memory stays flat however many rows an account has.
+ *
+ * The opening balance is the account's daily balance snapshot at the end of
+ * the day before from. Each account is read in one transaction, so a posting
+ * committed mid-export cannot split a statement.
+ *
+ * CSV: one table of date, transaction_id, type, description, debit, credit,
+ * balance, with an OPENING row first and a CLOSING row (period totals) last.
+ * JSON: one object with the period, openingBalance, a transactions array,
+ * totals and closingBalance.
+ */
+public class StatementExporter {
+
+    public enum Format {
+        CSV(".csv"), JSON(".json");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final int FETCH_SIZE = AppConfig.getInt("banking.statements.fetch_size", 1000);
+    private static final int THREADS = AppConfig.getInt("banking.statements.threads", 4);
+    private static final int PARTITION_ACCOUNTS = AppConfig.getInt("banking.statements.partition_accounts", 1000);
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * Writes one account's statement to out, which is flushed but left open.
+     * Returns the statement's totals, or null if the account does not exist.
+     */
+    public PeriodSummary export(String accountNumber, LocalDate from, LocalDate to, Format format,
+            WritableByteChannel out) {
+        checkPeriod(from, to);
+        StatelessSession session = sessionFactory(accountNumber).openStatelessSession();
+        Transaction transaction = null;
+        try {
+            transaction = session.beginTransaction();
+            List<Long> ids = session.createQuery("SELECT a.id FROM Account a WHERE a.accountNumber = :accountNumber",
+                    Long.class)
+                    .setParameter("accountNumber", accountNumber)
+                    .list();
+            if (ids.isEmpty()) {
+                transaction.commit();
+                return null;
+            }
+            Writer writer = Channels.newWriter(out, StandardCharsets.UTF_8.newEncoder(), BUFFER_BYTES);
+            PeriodSummary summary = write(session, ids.get(0), accountNumber, from, to, format, writer);
+            writer.flush();
+            transaction.commit();
+            return summary;
+        } catch (IOException | RuntimeException e) {
+            throw new RuntimeException("Error exporting statement: " + e.getMessage(), e);
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            session.close();
+        }
+    }
+
+    /**
+     * Writes a statement file per account into directory, named
+     * accountNumber_from_to plus the format's extension. Accounts are split
+     * into id ranges of banking.statements.partition_accounts, worked through
+     * on banking.statements.threads threads.
+     */
+    public Result exportAll(LocalDate from, LocalDate to, Format format, Path directory) {
+        checkPeriod(from, to);
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException("Error creating " + directory + ": " + e.getMessage(), e);
+        }
+
+        SessionFactory factory = sessionFactory(null);
+        Object[] range;
+        StatelessSession session = factory.openStatelessSession();
+        try {
+            range = session.createQuery("SELECT MIN(a.id), MAX(a.id) FROM Account a", Object[].class)
+                    .getSingleResult();
+        } finally {
+            session.close();
+        }
+        if (range[0] == null) {
+            return new Result(0, 0, System.nanoTime() - start);
+        }
+        long minId = ((Number) range[0]).longValue();
+        long maxId = ((Number) range[1]).longValue();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, "statement-export-" + count.incrementAndGet());
+            }
+        });
+        try {
+            List<Future<long[]>> partitions = new ArrayList<>();
+            for (long low = minId; low <= maxId; low += PARTITION_ACCOUNTS) {
+                long partitionLow = low;
+                long partitionHigh = Math.min(maxId, low + PARTITION_ACCOUNTS - 1);
+                partitions.add(executor.submit(
+                        () -> exportPartition(factory, partitionLow, partitionHigh, from, to, format, directory)));
+            }
+            long accounts = 0;
+            long transactions = 0;
+            for (Future<long[]> partition : partitions) {
+                long[] counts = partition.get();
+                accounts += counts[0];
+                transactions += counts[1];
+            }
+            return new Result(accounts, transactions, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Statement export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error exporting statements: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // One session (and connection) for the whole range; one transaction per account
+    private long[] exportPartition(SessionFactory factory, long lowId, long highId, LocalDate from, LocalDate to,
+            Format format, Path directory) throws IOException {
+        StatelessSession session = factory.openStatelessSession();
+        try {
+            List<Object[]> accounts = session.createQuery("SELECT a.id, a.accountNumber FROM Account a "
+                    + "WHERE a.id BETWEEN :low AND :high ORDER BY a.id", Object[].class)
+                    .setParameter("low", lowId)
+                    .setParameter("high", highId)
+                    .list();
+            long transactions = 0;
+            for (Object[] account : accounts) {
+                String accountNumber = (String) account[1];
+                Path file = directory.resolve(accountNumber + "_" + from + "_" + to + format.getExtension());
+                Transaction transaction = session.beginTransaction();
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(),
+                                BUFFER_BYTES)) {
+                    transactions += write(session, (Long) account[0], accountNumber, from, to, format, writer)
+                            .getTransactionCount();
+                    transaction.commit();
+                } finally {
+                    if (transaction.isActive()) {
+                        transaction.rollback();
+                    }
+                }
+            }
+            return new long[] { accounts.size(), transactions };
+        } finally {
+            session.close();
+        }
+    }
+
+    private static PeriodSummary write(StatelessSession session, Long accountId, String accountNumber,
+            LocalDate from, LocalDate to, Format format, Writer out) throws IOException {
+        long opening = BalanceSnapshotService.closingBalance(session, accountId, from.minusDays(1)).getPaise();
+        StatementWriter statement = format == Format.CSV ? new CsvStatement(out) : new JsonStatement(out);
+        statement.begin(accountNumber, from, to, opening);
+
+        long balance = opening;
+        long debits = 0;
+        long credits = 0;
+        long count = 0;
+        try (ScrollableResults<Object[]> rows = session.createQuery("SELECT t.transactionDate, t.transactionId, "
+                + "t.type, t.description, t.amount, t.direction FROM Transactions t "
+                + "WHERE t.account.id = :accountId AND t.transactionDate >= :start AND t.transactionDate < :end "
+                + "ORDER BY t.transactionDate, t.id", Object[].class)
+                .setParameter("accountId", accountId)
+                .setParameter("start", from.atStartOfDay())
+                .setParameter("end", to.plusDays(1).atStartOfDay())
+                .setFetchSize(FETCH_SIZE)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                Object[] row = rows.get();
+                String type = (String) row[2];
+                String description = (String) row[3];
+                long amount = ((Money) row[4]).getPaise();
+                boolean debit = SnapshotBackfill.isDebit((String) row[5]);
+                if (debit) {
+                    balance = Math.subtractExact(balance, amount);
+                    debits = Math.addExact(debits, amount);
+                } else {
+                    balance = Math.addExact(balance, amount);
+                    credits = Math.addExact(credits, amount);
+                }
+                count++;
+                statement.row((LocalDateTime) row[0], (String) row[1], type, description, debit, amount, balance);
+            }
+        }
+
+        statement.end(debits, credits, balance, count);
+        return new PeriodSummary(accountNumber, from, to, Money.ofPaise(opening).toBigDecimal(),
+                Money.ofPaise(debits).toBigDecimal(), Money.ofPaise(credits).toBigDecimal(),
+                Money.ofPaise(balance).toBigDecimal(), count);
+    }
+
+    // Statement rows are read from the replica when there is one. With the ledger on, first write
+    // out what it has acknowledged and stay on the primary, where those rows land first.
+    private static SessionFactory sessionFactory(String accountNumber) {
+        if (LedgerEngine.isEnabled()) {
+            LedgerEngine.getInstance().flush();
+            return HibernateUtil.getSessionFactory();
+        }
+        return accountNumber == null ? HibernateUtil.getReadSessionFactory()
+                : HibernateUtil.getReadSessionFactory(accountNumber);
+    }
+
+    private static void checkPeriod(LocalDate from, LocalDate to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Invalid period: " + from + " to " + to);
+        }
+    }
+
+    private interface StatementWriter {
+        void begin(String accountNumber, LocalDate from, LocalDate to, long openingPaise) throws IOException;
+
+        void row(LocalDateTime date, String transactionId, String type, String description, boolean debit,
+                long amountPaise, long balancePaise) throws IOException;
+
+        void end(long debitPaise, long creditPaise, long closingPaise, long count) throws IOException;
+    }
+
+    private static final class CsvStatement implements StatementWriter {
+        private final Writer out;
+        private LocalDate to;
+
+        CsvStatement(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin(String accountNumber, LocalDate from, LocalDate to, long openingPaise) throws IOException {
+            this.to = to;
+            out.write("date,transaction_id,type,description,debit,credit,balance\n");
+            out.write(from + ",,OPENING,Opening balance " + accountNumber + ",,," + Money.ofPaise(openingPaise)
+                    + "\n");
+        }
+
+        @Override
+        public void row(LocalDateTime date, String transactionId, String type, String description, boolean debit,
+                long amountPaise, long balancePaise) throws IOException {
+            String amount = Money.ofPaise(amountPaise).toString();
+            out.write(date + "," + transactionId + "," + type + "," + quote(description) + ","
+                    + (debit ? amount : "") + "," + (debit ? "" : amount) + "," + Money.ofPaise(balancePaise)
+                    + "\n");
+        }
+
+        @Override
+        public void end(long debitPaise, long creditPaise, long closingPaise, long count) throws IOException {
+            out.write(to + ",,CLOSING,Closing balance (" + count + " transactions)," + Money.ofPaise(debitPaise)
+                    + "," + Money.ofPaise(creditPaise) + "," + Money.ofPaise(closingPaise) + "\n");
+        }
+
+        private static String quote(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static final class JsonStatement implements StatementWriter {
+        private final Writer out;
+        private boolean first = true;
+
+        JsonStatement(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin(String accountNumber, LocalDate from, LocalDate to, long openingPaise) throws IOException {
+            out.write("{\"accountNumber\":" + string(accountNumber) + ",\"from\":\"" + from + "\",\"to\":\"" + to
+                    + "\",\"openingBalance\":" + Money.ofPaise(openingPaise) + ",\"transactions\":[");
+        }
+
+        @Override
+        public void row(LocalDateTime date, String transactionId, String type, String description, boolean debit,
+                long amountPaise, long balancePaise) throws IOException {
+            out.write((first ? "\n" : ",\n") + "{\"date\":\"" + date + "\",\"transactionId\":" + string(transactionId)
+                    + ",\"type\":" + string(type) + ",\"description\":" + string(description)
+                    + (debit ? ",\"debit\":" : ",\"credit\":") + Money.ofPaise(amountPaise)
+                    + ",\"balance\":" + Money.ofPaise(balancePaise) + "}");
+            first = false;
+        }
+
+        @Override
+        public void end(long debitPaise, long creditPaise, long closingPaise, long count) throws IOException {
+            out.write("\n],\"transactionCount\":" + count + ",\"totalDebits\":" + Money.ofPaise(debitPaise)
+                    + ",\"totalCredits\":" + Money.ofPaise(creditPaise) + ",\"closingBalance\":"
+                    + Money.ofPaise(closingPaise) + "}\n");
+        }
+
+        private static String string(String value) {
+            if (value == null) {
+                return "null";
+            }
+            StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    json.append('\\').append(c);
+                } else if (c < 0x20) {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+            return json.append('"').toString();
+        }
+    }
+
+    public static class Result {
+        private final long accounts;
+        private final long transactions;
+        private final long elapsedNanos;
+
+        Result(long accounts, long transactions, long elapsedNanos) {
+            this.accounts = accounts;
+            this.transactions = transactions;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getAccounts() { return accounts; }
+        public long getTransactions() { return transactions; }
+        public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+        public double getAccountsPerSecond() {
+            return elapsedNanos == 0 ? 0 : accounts * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "StatementExporter.Result{" +
+                    "accounts=" + accounts +
+                    ", transactions=" + transactions +
+                    ", elapsedMillis=" + getElapsedMillis() +
+                    ", accountsPerSecond=" + String.format("%.0f", getAccountsPerSecond()) +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.BankingApp.Service;
+
+import jakarta.persistence.LockModeType;
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.AccountSubBalance;
+import com.BankingApp.Ledger.LedgerEngine;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Splits hot accounts (merchants, payroll) into sub-balance rows. Once an
+ * account is split into N slots, AccountService.deposit adds to one slot
+ * picked at random and locks only that row; withdrawals, transfers out and
+ * interest first move every slot back into the accounts row, and
+ * getAccountBalance adds the slots up. Callers of AccountService see the same
+ * balances either way.
+ *
+ * A credit to a split account records as balance_after_transaction the total
+ * it saw, which can leave out deposits to other slots committing at the same
+ * moment; the running balance is exact again after every withdrawal and
+ * rebalance. Split accounts are not supported with the in-memory ledger.
+ */
+public class SubBalanceManager {
+
+    public static final int MAX_SLOTS = 64;
+
+    /** Splits the account into the given number of slots (moving any existing slots back first). */
+    public void enable(String accountNumber, int slots) {
+        if (slots < 1 || slots > MAX_SLOTS) {
+            throw new IllegalArgumentException("Sub-balance slots must be between 1 and " + MAX_SLOTS);
+        }
+        if (LedgerEngine.isEnabled()) {
+            throw new IllegalStateException("Sub-balances cannot be used with the in-memory ledger");
+        }
+        inAccountTransaction(accountNumber, (session, account) -> {
+            drain(session, account);
+            // Slots below the new count are kept (they are empty now), the rest removed
+            boolean[] kept = new boolean[slots];
+            for (AccountSubBalance slot : lockSlots(session, account)) {
+                if (slot.getSlot() < slots) {
+                    kept[slot.getSlot()] = true;
+                } else {
+                    session.remove(slot);
+                }
+            }
+            for (int slot = 0; slot < slots; slot++) {
+                if (!kept[slot]) {
+                    session.persist(new AccountSubBalance(account.getId(), slot));
+                }
+            }
+            account.setSubBalanceCount(slots);
+            return null;
+        });
+    }
+
+    /** Moves the slots back into the accounts row and stops splitting deposits. */
+    public void disable(String accountNumber) {
+        inAccountTransaction(accountNumber, (session, account) -> {
+            drain(session, account);
+            for (AccountSubBalance slot : lockSlots(session, account)) {
+                session.remove(slot);
+            }
+            account.setSubBalanceCount(0);
+            return null;
+        });
+    }
+
+    /** Moves the account's slots into its accounts row; returns the amount moved. */
+    public BigDecimal rebalance(String accountNumber) {
+        return inAccountTransaction(accountNumber, (session, account) -> drain(session, account).toBigDecimal());
+    }
+
+    /** One rebalance pass over every split account; returns how many were rebalanced. */
+    public int rebalanceAll() {
+        List<String> accountNumbers;
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            accountNumbers = session.createQuery(
+                    "SELECT a.accountNumber FROM Account a WHERE a.subBalanceCount > 0 ORDER BY a.id", String.class)
+                    .list();
+        } finally {
+            session.close();
+        }
+        for (String accountNumber : accountNumbers) {
+            rebalance(accountNumber);
+        }
+        return accountNumbers.size();
+    }
+
+    public int getSlotCount(String accountNumber) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            Account account = session.bySimpleNaturalId(Account.class).load(accountNumber);
+            return account == null ? 0 : account.getSubBalanceCount();
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * Moves every slot of a split account into the accounts row, locking the
+     * slots. The account must already be locked (or version-checked) by the
+     * caller. Does nothing for accounts that are not split.
+     */
+    static Money drain(Session session, Account account) {
+        if (account.getSubBalanceCount() == 0) {
+            return Money.ZERO;
+        }
+        Money moved = Money.ZERO;
+        for (AccountSubBalance slot : lockSlots(session, account)) {
+            if (slot.getBalance().isPositive()) {
+                moved = moved.plus(slot.getBalance());
+                slot.setBalance(Money.ZERO);
+            }
+        }
+        if (moved.isPositive()) {
+            account.setBalance(account.getBalance().plus(moved));
+        }
+        return moved;
+    }
+
+    /** The accounts row plus all slots, without locking anything. */
+    static Money total(Session session, Account account) {
+        Money total = account.getBalance();
+        if (account.getSubBalanceCount() == 0) {
+            return total;
+        }
+        List<Money> slots = session.createQuery(
+                "SELECT s.balance FROM AccountSubBalance s WHERE s.accountId = :accountId", Money.class)
+                .setParameter("accountId", account.getId())
+                .list();
+        for (Money slot : slots) {
+            total = total.plus(slot);
+        }
+        return total;
+    }
+
+    // In slot order, so two drains of the same account cannot deadlock
+    private static List<AccountSubBalance> lockSlots(Session session, Account account) {
+        return session.createQuery(
+                "FROM AccountSubBalance s WHERE s.accountId = :accountId ORDER BY s.slot", AccountSubBalance.class)
+                .setParameter("accountId", account.getId())
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .list();
+    }
+
+    private interface AccountWork<T> {
+        T apply(Session session, Account account);
+    }
+
+    private static <T> T inAccountTransaction(String accountNumber, AccountWork<T> work) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction dbTransaction = null;
+        try {
+            dbTransaction = session.beginTransaction();
+            Account account = session.bySimpleNaturalId(Account.class)
+                    .with(new LockOptions(LockMode.PESSIMISTIC_WRITE))
+                    .load(accountNumber);
+            if (account == null) {
+                throw new IllegalArgumentException("Account not found: " + accountNumber);
+            }
+            T result = work.apply(session, account);
+            dbTransaction.commit();
+            return result;
+        } catch (RuntimeException e) {
+            if (dbTransaction != null && dbTransaction.isActive()) {
+                dbTransaction.rollback();
+            }
+            throw e;
+        } finally {
+            session.close();
+        }
+    }
+}
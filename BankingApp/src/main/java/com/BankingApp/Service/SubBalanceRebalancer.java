@@ -0,0 +1,58 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.Util.AppConfig;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background thread that runs SubBalanceManager.rebalanceAll every
+ * banking.subbalances.rebalance_interval_ms (0 turns it off), folding the
+ * slots of split accounts back into their accounts rows so the stored balance
+ * and balance_after_transaction never drift far from the total.
+ */
+public class SubBalanceRebalancer {
+
+    private static SubBalanceRebalancer instance;
+
+    private final SubBalanceManager manager = new SubBalanceManager();
+    private final ScheduledExecutorService thread;
+
+    private SubBalanceRebalancer(long intervalMillis) {
+        thread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread t = new Thread(runnable, "sub-balance-rebalancer");
+            t.setDaemon(true);
+            return t;
+        });
+        thread.scheduleWithFixedDelay(this::rebalance, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void startIfEnabled() {
+        long intervalMillis = AppConfig.getLong("banking.subbalances.rebalance_interval_ms", 1000);
+        if (instance == null && intervalMillis > 0) {
+            instance = new SubBalanceRebalancer(intervalMillis);
+        }
+    }
+
+    public static synchronized void shutdownIfRunning() {
+        if (instance != null) {
+            instance.thread.shutdown();
+            try {
+                instance.thread.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            instance = null;
+        }
+    }
+
+    // A failed pass is retried on the next one; the slots keep their money meanwhile
+    private void rebalance() {
+        try {
+            manager.rebalanceAll();
+        } catch (RuntimeException e) {
+            System.err.println("Sub-balance rebalance failed: " + e.getMessage());
+        }
+    }
+}
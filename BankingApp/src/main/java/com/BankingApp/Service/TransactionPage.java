@@ -0,0 +1,23 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.Entities.Transactions;
+
+import java.util.List;
+
+/**
+ * One page of transaction history. nextCursor is null on the last page.
+ */
+public class TransactionPage {
+    private final List<Transactions> transactions;
+    private final HistoryCursor nextCursor;
+
+    TransactionPage(List<Transactions> transactions, HistoryCursor nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Transactions> getTransactions() { return transactions; }
+    public HistoryCursor getNextCursor() { return nextCursor; }
+    public boolean hasNext() { return nextCursor != null; }
+    public boolean isEmpty() { return transactions.isEmpty(); }
+}
@@ -0,0 +1,54 @@
+package com.BankingApp.Service;
+
+import java.math.BigDecimal;
+
+/**
+ * One posting in a batch handed to {@link AccountService#processBatch}: a
+ * DEPOSIT or WITHDRAWAL on accountNumber, or a TRANSFER from accountNumber to
+ * toAccountNumber.
+ */
+public class TransferRequest {
+    private final String type;
+    private final String accountNumber;
+    private final String toAccountNumber;
+    private final BigDecimal amount;
+    private final String description;
+
+    public TransferRequest(String type, String accountNumber, String toAccountNumber, BigDecimal amount,
+            String description) {
+        this.type = type;
+        this.accountNumber = accountNumber;
+        this.toAccountNumber = toAccountNumber;
+        this.amount = amount;
+        this.description = description;
+    }
+
+    public static TransferRequest deposit(String accountNumber, BigDecimal amount, String description) {
+        return new TransferRequest("DEPOSIT", accountNumber, null, amount, description);
+    }
+
+    public static TransferRequest withdrawal(String accountNumber, BigDecimal amount, String description) {
+        return new TransferRequest("WITHDRAWAL", accountNumber, null, amount, description);
+    }
+
+    public static TransferRequest transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount,
+            String description) {
+        return new TransferRequest("TRANSFER", fromAccountNumber, toAccountNumber, amount, description);
+    }
+
+    public String getType() { return type; }
+    public String getAccountNumber() { return accountNumber; }
+    public String getToAccountNumber() { return toAccountNumber; }
+    public BigDecimal getAmount() { return amount; }
+    public String getDescription() { return description; }
+
+    @Override
+    public String toString() {
+        return "TransferRequest{" +
+                "type='" + type + '\'' +
+                ", accountNumber='" + accountNumber + '\'' +
+                ", toAccountNumber='" + toAccountNumber + '\'' +
+                ", amount=" + amount +
+                '}';
+    }
+}
@@ -0,0 +1,60 @@
+package com.BankingApp.Util;
+
+import org.hibernate.cfg.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Settings read from hibernate.cfg.xml. Any "hibernate.*" or "banking.*" system
+ * property overrides the value from the file, so a run can point the app at a
+ * different database (e.g. an embedded one for tests) without editing it.
+ */
+public class AppConfig {
+    private static final Properties properties = loadProperties();
+
+    private static Properties loadProperties() {
+        Properties props = new Properties();
+        props.putAll(new Configuration().configure().getProperties());
+        props.putAll(getOverrides());
+        return props;
+    }
+
+    public static Properties getOverrides() {
+        Properties overrides = new Properties();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("hibernate.") || name.startsWith("banking.")) {
+                overrides.setProperty(name, System.getProperty(name));
+            }
+        }
+        return overrides;
+    }
+
+    public static List<String> getPropertyNames(String prefix) {
+        List<String> names = new ArrayList<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(prefix)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    public static String get(String name, String defaultValue) {
+        String value = System.getProperty(name, properties.getProperty(name));
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String name, int defaultValue) {
+        return Integer.parseInt(get(name, String.valueOf(defaultValue)));
+    }
+
+    public static long getLong(String name, long defaultValue) {
+        return Long.parseLong(get(name, String.valueOf(defaultValue)));
+    }
+
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        return Boolean.parseBoolean(get(name, String.valueOf(defaultValue)));
+    }
+}
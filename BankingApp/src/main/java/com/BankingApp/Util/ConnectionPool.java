@@ -0,0 +1,195 @@
+package com.BankingApp.Util;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The single pooled DataSource shared by the SessionFactory and the
+ * DatabaseInitializer. Connection settings come from banking.datasource.*,
+ * pool sizing from banking.pool.*, and every
+ * banking.pool.datasource.* property is handed to the JDBC driver (this is where
+ * the MySQL prepared-statement cache is switched on).
+ *
+ * With banking.replica.enabled a second, read-only pool is opened against
+ * banking.replica.datasource.url for the replica SessionFactory. Its driver,
+ * credentials and driver properties default to the primary's.
+ */
+public class ConnectionPool {
+    private static final String DRIVER_PROPERTY_PREFIX = "banking.pool.datasource.";
+
+    private static final LongAdder acquireCount = new LongAdder();
+    private static final LongAdder acquireNanos = new LongAdder();
+    private static final LongAccumulator maxAcquireNanos = new LongAccumulator(Long::max, 0);
+    private static final LongAdder acquireTimeouts = new LongAdder();
+    private static final LatencyHistogram acquireTimes = new LatencyHistogram();
+
+    private static final HikariDataSource dataSource = createDataSource();
+    private static final HikariDataSource replicaDataSource = AppConfig.getBoolean("banking.replica.enabled", false)
+            ? createReplicaDataSource()
+            : null;
+    // What callers get: the pools, with statements timed by SlowQueryLog when banking.sessions.slow_query_ms is set
+    private static final DataSource timedDataSource = SlowQueryLog.wrap(dataSource);
+    private static final DataSource timedReplicaDataSource = replicaDataSource != null
+            ? SlowQueryLog.wrap(replicaDataSource)
+            : null;
+
+    private static HikariDataSource createDataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("banking-pool");
+        config.setJdbcUrl(AppConfig.get("banking.datasource.url", null));
+        config.setDriverClassName(AppConfig.get("banking.datasource.driver_class", null));
+        config.setUsername(AppConfig.get("banking.datasource.username", null));
+        config.setPassword(AppConfig.get("banking.datasource.password", ""));
+
+        config.setMaximumPoolSize(AppConfig.getInt("banking.pool.maximum_pool_size", 10));
+        config.setMinimumIdle(AppConfig.getInt("banking.pool.minimum_idle", 10));
+        config.setConnectionTimeout(AppConfig.getLong("banking.pool.connection_timeout_ms", 30000));
+        config.setIdleTimeout(AppConfig.getLong("banking.pool.idle_timeout_ms", 600000));
+        config.setMaxLifetime(AppConfig.getLong("banking.pool.max_lifetime_ms", 1800000));
+        config.setLeakDetectionThreshold(AppConfig.getLong("banking.pool.leak_detection_threshold_ms", 0));
+
+        addDriverProperties(config);
+
+        config.setMetricsTrackerFactory((poolName, poolStats) -> new AcquireTimeTracker());
+        return new HikariDataSource(config);
+    }
+
+    private static HikariDataSource createReplicaDataSource() {
+        String url = AppConfig.get("banking.replica.datasource.url", null);
+        if (url == null) {
+            throw new IllegalStateException("banking.replica.enabled is set but banking.replica.datasource.url is not");
+        }
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("banking-replica-pool");
+        config.setJdbcUrl(url);
+        config.setDriverClassName(AppConfig.get("banking.replica.datasource.driver_class",
+                AppConfig.get("banking.datasource.driver_class", null)));
+        config.setUsername(AppConfig.get("banking.replica.datasource.username",
+                AppConfig.get("banking.datasource.username", null)));
+        config.setPassword(AppConfig.get("banking.replica.datasource.password",
+                AppConfig.get("banking.datasource.password", "")));
+        // Nothing routed here writes; MySQL also rejects writes on a read-only connection
+        config.setReadOnly(true);
+
+        int primaryPoolSize = AppConfig.getInt("banking.pool.maximum_pool_size", 10);
+        config.setMaximumPoolSize(AppConfig.getInt("banking.replica.pool.maximum_pool_size", primaryPoolSize));
+        config.setMinimumIdle(AppConfig.getInt("banking.replica.pool.minimum_idle", primaryPoolSize));
+        config.setConnectionTimeout(AppConfig.getLong("banking.pool.connection_timeout_ms", 30000));
+        config.setIdleTimeout(AppConfig.getLong("banking.pool.idle_timeout_ms", 600000));
+        config.setMaxLifetime(AppConfig.getLong("banking.pool.max_lifetime_ms", 1800000));
+        config.setLeakDetectionThreshold(AppConfig.getLong("banking.pool.leak_detection_threshold_ms", 0));
+
+        addDriverProperties(config);
+        return new HikariDataSource(config);
+    }
+
+    private static void addDriverProperties(HikariConfig config) {
+        for (String name : AppConfig.getPropertyNames(DRIVER_PROPERTY_PREFIX)) {
+            config.addDataSourceProperty(name.substring(DRIVER_PROPERTY_PREFIX.length()), AppConfig.get(name, ""));
+        }
+    }
+
+    public static DataSource getDataSource() {
+        return timedDataSource;
+    }
+
+    // null unless banking.replica.enabled
+    public static DataSource getReplicaDataSource() {
+        return timedReplicaDataSource;
+    }
+
+    public static ConnectionPoolStats getStats() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        long acquired = acquireCount.sum();
+        return new ConnectionPoolStats(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                acquired,
+                acquireTimeouts.sum(),
+                acquired == 0 ? 0 : acquireNanos.sum() / acquired,
+                maxAcquireNanos.get());
+    }
+
+    // How long getConnection() waited on the primary pool, for percentiles
+    public static LatencyHistogram getAcquireTimes() {
+        return acquireTimes;
+    }
+
+    public static void close() {
+        dataSource.close();
+        if (replicaDataSource != null) {
+            replicaDataSource.close();
+        }
+    }
+
+    // Hikari reports how long every getConnection() waited for a connection
+    private static class AcquireTimeTracker implements IMetricsTracker {
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquireCount.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+            acquireTimes.record(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            acquireTimeouts.increment();
+        }
+    }
+
+    public static class ConnectionPoolStats {
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int waiting;
+        private final long acquireCount;
+        private final long acquireTimeouts;
+        private final long avgAcquireNanos;
+        private final long maxAcquireNanos;
+
+        ConnectionPoolStats(int active, int idle, int total, int waiting, long acquireCount, long acquireTimeouts,
+                long avgAcquireNanos, long maxAcquireNanos) {
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.waiting = waiting;
+            this.acquireCount = acquireCount;
+            this.acquireTimeouts = acquireTimeouts;
+            this.avgAcquireNanos = avgAcquireNanos;
+            this.maxAcquireNanos = maxAcquireNanos;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getTotal() { return total; }
+        public int getWaiting() { return waiting; }
+        public long getAcquireCount() { return acquireCount; }
+        public long getAcquireTimeouts() { return acquireTimeouts; }
+        public long getAvgAcquireNanos() { return avgAcquireNanos; }
+        public long getMaxAcquireNanos() { return maxAcquireNanos; }
+
+        @Override
+        public String toString() {
+            return "ConnectionPoolStats{" +
+                    "active=" + active +
+                    ", idle=" + idle +
+                    ", total=" + total +
+                    ", waiting=" + waiting +
+                    ", acquireCount=" + acquireCount +
+                    ", acquireTimeouts=" + acquireTimeouts +
+                    ", avgAcquireMs=" + TimeUnit.NANOSECONDS.toMicros(avgAcquireNanos) / 1000.0 +
+                    ", maxAcquireMs=" + TimeUnit.NANOSECONDS.toMicros(maxAcquireNanos) / 1000.0 +
+                    '}';
+        }
+    }
+}
@@ -7,15 +7,19 @@ import org.slf4j.LoggerFactory;
 
 import com.BankingApp.Entities.Account;
 import com.BankingApp.Entities.Transactions;
+import com.BankingApp.Journal.JournalEntry;
+import com.BankingApp.Service.BalanceSnapshotService;
 
 import java.math.BigDecimal;
 import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.Statement;
+import java.util.Collections;
 
 public class DatabaseInitializer {
 	private static final Logger logger = LoggerFactory.getLogger(DatabaseInitializer.class);
 
+	// Must match allocationSize of the entities' @SequenceGenerator
+	private static final int ID_ALLOCATION_SIZE = 50;
+
 	public static void initializeDatabase() {
 		try {
 			// Step 0: Create database if it doesn't exist
@@ -30,6 +34,12 @@ public class DatabaseInitializer {
 			// Step 3: Verify tables were created using Native SQL
 			verifySchema();
 
+			// Step 4: Move ID generators past rows inserted under the old IDENTITY columns
+			alignIdSequences();
+
+			// Step 5: Give rows written before transactions.direction existed their direction
+			fillTransactionDirections();
+
 			logger.info("✅ Database initialization completed successfully!");
 
 		} catch (Exception e) {
@@ -38,23 +48,14 @@ public class DatabaseInitializer {
 		}
 	}
 
-	// NEW METHOD: Create database if it doesn't exist
+	// Create database if it doesn't exist
 	private static void createDatabaseIfNotExists() {
 		System.out.println("🗄️  Checking database existence...");
 
-		// First, try to connect without specifying the database
-		String urlWithoutDb = "jdbc:mysql://127.0.0.1:3307/";
-		String username = "root";
-		String password = ""; // Replace with your actual password
-		String dbName = "bank_db";
-
-		try (Connection connection = DriverManager.getConnection(urlWithoutDb, username, password);
-				Statement statement = connection.createStatement()) {
-
-			// Create database if it doesn't exist
-			String createDbSQL = "CREATE DATABASE IF NOT EXISTS " + dbName;
-			statement.executeUpdate(createDbSQL);
-			System.out.println("✅ Database created/verified: " + dbName);
+		// The pool's JDBC URL carries createDatabaseIfNotExist=true, so the first
+		// pooled connection creates the database when it is missing
+		try (Connection connection = ConnectionPool.getDataSource().getConnection()) {
+			System.out.println("✅ Database created/verified: " + connection.getCatalog());
 
 		} catch (Exception e) {
 			System.out.println("❌ Failed to create database: " + e.getMessage());
@@ -128,6 +129,74 @@ public class DatabaseInitializer {
 		}
 	}
 
+	private static void alignIdSequences() {
+		// On MySQL the pooled sequence generators are emulated with one-row *_seq tables.
+		// A database created before they existed already has AUTO_INCREMENT ids, so the
+		// next block handed out must start above the highest existing id.
+		Session session = null;
+		Transaction transaction = null;
+		try {
+			session = HibernateUtil.getSessionFactory().openSession();
+			transaction = session.beginTransaction();
+
+			String[] tables = { "customers", "accounts", "transactions" };
+
+			for (String table : tables) {
+				String sequenceTable = table + "_seq";
+				if (checkTableExists(session, sequenceTable)) {
+					session.createNativeMutationQuery("UPDATE " + sequenceTable + " SET next_val = GREATEST(next_val, "
+							+ "(SELECT COALESCE(MAX(id), 0) + " + (ID_ALLOCATION_SIZE + 1) + " FROM " + table + "))")
+							.executeUpdate();
+				}
+			}
+
+			transaction.commit();
+			System.out.println("✅ ID generators aligned with existing data");
+
+		} catch (Exception e) {
+			if (transaction != null)
+				transaction.rollback();
+			System.out.println("❌ ID generator alignment failed: " + e.getMessage());
+			throw new RuntimeException("ID generator alignment failed", e);
+		} finally {
+			if (session != null && session.isOpen()) {
+				session.close();
+			}
+		}
+	}
+
+	private static void fillTransactionDirections() {
+		// The debit leg of a transfer was only recognisable by its description, which
+		// postTransfer ended with "(To: <related account>)"; new rows store the direction
+		Session session = null;
+		Transaction transaction = null;
+		try {
+			session = HibernateUtil.getSessionFactory().openSession();
+			transaction = session.beginTransaction();
+
+			int filled = session.createNativeMutationQuery("UPDATE transactions SET direction = CASE "
+					+ "WHEN type = 'WITHDRAWAL' OR (type = 'TRANSFER' "
+					+ "AND description LIKE CONCAT('%(To: ', related_account_number, ')')) THEN 'DEBIT' "
+					+ "ELSE 'CREDIT' END WHERE direction IS NULL")
+					.executeUpdate();
+
+			transaction.commit();
+			if (filled > 0) {
+				System.out.println("✅ Transaction directions filled for " + filled + " existing rows");
+			}
+
+		} catch (Exception e) {
+			if (transaction != null)
+				transaction.rollback();
+			System.out.println("❌ Filling transaction directions failed: " + e.getMessage());
+			throw new RuntimeException("Filling transaction directions failed", e);
+		} finally {
+			if (session != null && session.isOpen()) {
+				session.close();
+			}
+		}
+	}
+
 	private static boolean checkTableExists(Session session, String tableName) {
 		try {
 			// MySQL specific query to check table existence
@@ -165,14 +234,17 @@ public class DatabaseInitializer {
 
 				// Create sample account
 				Account sampleAccount = new Account("ACC1000001", "SAVINGS", sampleCustomer);
-				sampleAccount.deposit(new BigDecimal("10000.00"));
+				sampleAccount.deposit(Money.of(new BigDecimal("10000.00")));
 				session.persist(sampleAccount);
 
 				// Create sample transaction
-				Transactions sampleTransaction = new Transactions("TXN1000001", "DEPOSIT", new BigDecimal("10000.00"),
+				Transactions sampleTransaction = new Transactions("TXN1000001", "DEPOSIT", Money.of(new BigDecimal("10000.00")),
 						"Initial deposit", sampleAccount);
+				sampleTransaction.setDirection("CREDIT");
 				sampleTransaction.setBalanceAfterTransaction(sampleAccount.getBalance());
 				session.persist(sampleTransaction);
+				BalanceSnapshotService.applyPostings(session,
+						Collections.singletonList(JournalEntry.of(JournalEntry.Kind.DEPOSIT, sampleTransaction)));
 
 				transaction.commit();
 				System.out.println("✅ Sample data created successfully!");
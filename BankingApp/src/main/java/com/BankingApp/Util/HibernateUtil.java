@@ -1,25 +1,210 @@
 package com.BankingApp.Util;
 
 import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.internal.DatasourceConnectionProviderImpl;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 
+import javax.sql.DataSource;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The SessionFactory on the primary database, plus an optional read-only one on
+ * a replica (banking.replica.*). Read paths that can live with replication lag
+ * ask for getReadSessionFactory; postings call recordWrite, which keeps reads of
+ * that account on the primary for banking.replica.read_your_writes_ms so a
+ * caller always sees its own posting. The window is kept per JVM.
+ */
 public class HibernateUtil {
     private static final SessionFactory sessionFactory = buildSessionFactory();
+    // null when no replica is configured; reads then go to the primary
+    private static final SessionFactory replicaSessionFactory = ConnectionPool.getReplicaDataSource() != null
+            ? buildReplicaSessionFactory()
+            : null;
+    private static final RecentWrites recentWrites = new RecentWrites(
+            AppConfig.getLong("banking.replica.read_your_writes_ms", 5000));
     
     private static SessionFactory buildSessionFactory() {
         try {
-            return new Configuration().configure().buildSessionFactory();
+            Configuration configuration = new Configuration().configure();
+            configuration.addProperties(AppConfig.getOverrides());
+            useDataSource(configuration, ConnectionPool.getDataSource());
+            return configuration.buildSessionFactory();
         } catch (Throwable ex) {
             System.err.println("Initial SessionFactory creation failed: " + ex);
             throw new ExceptionInInitializerError(ex);
         }
     }
     
+    // The replica's schema comes from replication, so Hibernate leaves it alone unless told otherwise.
+    // No second-level cache: entries read from a lagging replica must not be served to the primary's
+    // readers, and the primary's cache is already kept current by the postings themselves.
+    private static SessionFactory buildReplicaSessionFactory() {
+        try {
+            Configuration configuration = new Configuration().configure();
+            configuration.addProperties(AppConfig.getOverrides());
+            useDataSource(configuration, ConnectionPool.getReplicaDataSource());
+            configuration.setProperty(AvailableSettings.HBM2DDL_AUTO,
+                    AppConfig.get("banking.replica.hbm2ddl_auto", "none"));
+            configuration.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+            configuration.setProperty(AvailableSettings.USE_QUERY_CACHE, "false");
+            return configuration.buildSessionFactory();
+        } catch (Throwable ex) {
+            System.err.println("Replica SessionFactory creation failed: " + ex);
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    // Hand Hibernate the shared pool instead of its built-in connection provider, as a provider
+    // instance: the hibernate.connection.datasource setting is deprecated
+    private static void useDataSource(Configuration configuration, DataSource dataSource) {
+        DatasourceConnectionProviderImpl connectionProvider = new DatasourceConnectionProviderImpl();
+        connectionProvider.setDataSource(dataSource);
+        configuration.getProperties().put(AvailableSettings.CONNECTION_PROVIDER, connectionProvider);
+    }
+
     public static SessionFactory getSessionFactory() {
         return sessionFactory;
     }
+
+    // For read-only queries that are not about one account; may lag the primary
+    public static SessionFactory getReadSessionFactory() {
+        return replicaSessionFactory != null ? replicaSessionFactory : sessionFactory;
+    }
+
+    // The primary while the account is inside its read-your-writes window, otherwise the replica
+    public static SessionFactory getReadSessionFactory(String accountNumber) {
+        if (replicaSessionFactory == null || recentWrites.isRecent(accountNumber)) {
+            return sessionFactory;
+        }
+        return replicaSessionFactory;
+    }
+
+    // Called after a posting to the account commits on the primary
+    public static void recordWrite(String accountNumber) {
+        if (replicaSessionFactory != null) {
+            recentWrites.record(accountNumber);
+        }
+    }
+
+    public static boolean hasReplica() {
+        return replicaSessionFactory != null;
+    }
     
+    // The primary's query, load, flush and cache counters (hibernate.generate_statistics)
+    public static Statistics getStatistics() {
+        return sessionFactory.getStatistics();
+    }
+
+    public static CacheStats getCacheStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, RegionStats> regions = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            regions.put(region, new RegionStats(regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                    regionStatistics.getPutCount(), regionStatistics.getElementCountInMemory()));
+        }
+        return new CacheStats(
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(),
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(),
+                statistics.getNaturalIdCacheHitCount(),
+                statistics.getNaturalIdCacheMissCount(),
+                Collections.unmodifiableMap(regions));
+    }
+
     public static void shutdown() {
         getSessionFactory().close();
+        if (replicaSessionFactory != null) {
+            replicaSessionFactory.close();
+        }
+        ConnectionPool.close();
+    }
+
+    public static class CacheStats {
+        private final long hits;
+        private final long misses;
+        private final long puts;
+        private final long queryHits;
+        private final long queryMisses;
+        private final long queryPuts;
+        private final long naturalIdHits;
+        private final long naturalIdMisses;
+        private final Map<String, RegionStats> regions;
+
+        CacheStats(long hits, long misses, long puts, long queryHits, long queryMisses, long queryPuts,
+                long naturalIdHits, long naturalIdMisses, Map<String, RegionStats> regions) {
+            this.hits = hits;
+            this.misses = misses;
+            this.puts = puts;
+            this.queryHits = queryHits;
+            this.queryMisses = queryMisses;
+            this.queryPuts = queryPuts;
+            this.naturalIdHits = naturalIdHits;
+            this.naturalIdMisses = naturalIdMisses;
+            this.regions = regions;
+        }
+
+        // Entity and collection regions combined
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getPuts() { return puts; }
+        public long getQueryHits() { return queryHits; }
+        public long getQueryMisses() { return queryMisses; }
+        public long getQueryPuts() { return queryPuts; }
+        public long getNaturalIdHits() { return naturalIdHits; }
+        public long getNaturalIdMisses() { return naturalIdMisses; }
+        public Map<String, RegionStats> getRegions() { return regions; }
+
+        @Override
+        public String toString() {
+            return "CacheStats{" +
+                    "hits=" + hits +
+                    ", misses=" + misses +
+                    ", puts=" + puts +
+                    ", queryHits=" + queryHits +
+                    ", queryMisses=" + queryMisses +
+                    ", queryPuts=" + queryPuts +
+                    ", naturalIdHits=" + naturalIdHits +
+                    ", naturalIdMisses=" + naturalIdMisses +
+                    ", regions=" + regions +
+                    '}';
+        }
+    }
+
+    public static class RegionStats {
+        private final long hits;
+        private final long misses;
+        private final long puts;
+        private final long size;
+
+        RegionStats(long hits, long misses, long puts, long size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.puts = puts;
+            this.size = size;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getPuts() { return puts; }
+        // Entries currently held, or -1 if the provider does not report it
+        public long getSize() { return size; }
+
+        @Override
+        public String toString() {
+            return "{hits=" + hits + ", misses=" + misses + ", puts=" + puts + ", size=" + size + '}';
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package com.BankingApp.Util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style 63-bit ids: 41 bits of milliseconds since 2024-01-01 UTC,
+ * 10 bits of node id (banking.node_id, 0-1023, must differ between app nodes
+ * sharing a database) and a 12-bit per-millisecond sequence.
+ *
+ * Lock-free: the last (timestamp, sequence) pair lives in one AtomicLong and
+ * each id is a single accumulateAndGet. Ids from one generator are strictly
+ * increasing. When the 4096 sequence numbers of a millisecond are used up, or
+ * the wall clock steps backwards, the generator keeps counting from its last
+ * value instead of waiting, borrowing milliseconds from the future.
+ *
+ * Borrowed milliseconds are only remembered in memory. A node restarted before
+ * its clock has caught up with the last id it issued, or whose clock is set
+ * back across a restart, can issue an id again; the unique constraints on
+ * transaction_id and account_number then reject the insert.
+ */
+public class IdGenerator {
+    private static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final IdGenerator instance = new IdGenerator(AppConfig.getLong("banking.node_id", 0));
+
+    private final long nodeBits;
+    // (millis since epoch << SEQUENCE_BITS) | sequence, for the last id handed out
+    private final AtomicLong lastState = new AtomicLong();
+
+    public IdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+    }
+
+    public static IdGenerator getInstance() {
+        return instance;
+    }
+
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long state = lastState.accumulateAndGet(now, (last, candidate) -> Math.max(candidate, last + 1));
+        long timestamp = state >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (state & SEQUENCE_MASK);
+    }
+
+    /** "TXN" followed by the decimal id, at most 22 characters. */
+    public String nextTransactionId() {
+        return "TXN" + nextId();
+    }
+
+    /** "ACC" followed by the id in base 36, at most 16 characters (account_number is 20). */
+    public String nextAccountNumber() {
+        return "ACC" + Long.toString(nextId(), Character.MAX_RADIX).toUpperCase();
+    }
+}
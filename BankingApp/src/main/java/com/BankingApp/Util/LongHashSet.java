@@ -0,0 +1,85 @@
+package com.BankingApp.Util;
+
+/**
+ * Open-addressing set of longs in a single long[], 8 bytes a slot instead of
+ * the ~50 of a boxed HashSet entry. Slots hold the value or 0 for empty, so 0
+ * itself is stored in a separate flag. Not thread-safe.
+ */
+public class LongHashSet {
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] table;
+    private int mask;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet(int expectedSize) {
+        long wanted = Math.max(4, (long) (expectedSize / LOAD_FACTOR) + 1);
+        int capacity = (int) Math.min(1 << 30, Long.highestOneBit(wanted - 1) << 1);
+        this.table = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /** False if the value was already in the set. */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int slot = slotOf(value);
+        while (table[slot] != 0) {
+            if (table[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+        size++;
+        if (size > table.length * LOAD_FACTOR) {
+            grow();
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) {
+            return containsZero;
+        }
+        int slot = slotOf(value);
+        while (table[slot] != 0) {
+            if (table[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slotOf(long value) {
+        // Fibonacci hashing: the high bits of the product depend on every bit of the value
+        return (int) ((value * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length << 1];
+        mask = table.length - 1;
+        for (long value : old) {
+            if (value != 0) {
+                int slot = slotOf(value);
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = value;
+            }
+        }
+    }
+}
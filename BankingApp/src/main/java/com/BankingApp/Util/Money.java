@@ -0,0 +1,98 @@
+package com.BankingApp.Util;
+
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of rupees held as a whole number of paise. Balances and
+ * transaction amounts are DECIMAL(15,2) columns, so every value fits in a long
+ * and arithmetic is plain long addition with an overflow check instead of
+ * BigDecimal objects. BigDecimal is only used at the edges: input from the
+ * console (of) and the database columns (MoneyConverter).
+ *
+ * Immutable; @Immutable tells Hibernate it can skip deep copies when it
+ * snapshots entities for dirty checking. Serializable because that is how it
+ * is stored in second-level cache entries.
+ */
+@Immutable
+public final class Money implements Comparable<Money>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** Largest magnitude a DECIMAL(15,2) column holds: 9999999999999.99. */
+    public static final long MAX_PAISE = 999_999_999_999_999L;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long paise;
+
+    private Money(long paise) {
+        this.paise = paise;
+    }
+
+    public static Money ofPaise(long paise) {
+        if (paise > MAX_PAISE || paise < -MAX_PAISE) {
+            throw new ArithmeticException("Amount out of range: " + paise + " paise");
+        }
+        return paise == 0 ? ZERO : new Money(paise);
+    }
+
+    /**
+     * The amount rounded to paise, half away from zero as MySQL does when it
+     * stores more than two decimals into a DECIMAL(15,2).
+     */
+    public static Money of(BigDecimal amount) {
+        BigDecimal paise = amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2);
+        if (paise.abs().compareTo(BigDecimal.valueOf(MAX_PAISE)) > 0) {
+            throw new ArithmeticException("Amount out of range: " + amount);
+        }
+        return ofPaise(paise.longValue());
+    }
+
+    public long getPaise() {
+        return paise;
+    }
+
+    public Money plus(Money other) {
+        return ofPaise(paise + other.paise);
+    }
+
+    public Money minus(Money other) {
+        return ofPaise(paise - other.paise);
+    }
+
+    public boolean isPositive() {
+        return paise > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return paise < other.paise;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(paise, other.paise);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money && ((Money) o).paise == paise;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(paise);
+    }
+
+    // Same text as the DECIMAL(15,2) value, e.g. "10.50" or "-0.05"
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
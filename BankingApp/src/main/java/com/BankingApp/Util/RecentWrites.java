@@ -0,0 +1,50 @@
+package com.BankingApp.Util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keys (account numbers) written in this JVM within the last windowMillis.
+ * HibernateUtil keeps reads of such an account on the primary until the
+ * replica has had that long to catch up.
+ */
+final class RecentWrites {
+    // Expired entries are only swept once the map grows past this, and at most once per window
+    private static final int PRUNE_THRESHOLD = 10000;
+
+    private final long windowNanos;
+    private final ConcurrentHashMap<String, Long> deadlines = new ConcurrentHashMap<>();
+    private final AtomicLong nextPrune = new AtomicLong(System.nanoTime());
+
+    RecentWrites(long windowMillis) {
+        this.windowNanos = windowMillis * 1_000_000L;
+    }
+
+    void record(String key) {
+        if (windowNanos <= 0 || key == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        deadlines.put(key, now + windowNanos);
+        long prune = nextPrune.get();
+        if (deadlines.size() > PRUNE_THRESHOLD && now - prune >= 0
+                && nextPrune.compareAndSet(prune, now + windowNanos)) {
+            deadlines.values().removeIf(deadline -> deadline - now <= 0);
+        }
+    }
+
+    boolean isRecent(String key) {
+        if (key == null) {
+            return false;
+        }
+        Long deadline = deadlines.get(key);
+        if (deadline == null) {
+            return false;
+        }
+        if (deadline - System.nanoTime() > 0) {
+            return true;
+        }
+        deadlines.remove(key, deadline);
+        return false;
+    }
+}
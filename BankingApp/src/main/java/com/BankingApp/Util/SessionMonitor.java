@@ -0,0 +1,221 @@
+package com.BankingApp.Util;
+
+import org.hibernate.SessionEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Follows every Session and StatelessSession from open to close. Hibernate
+ * creates one per session (hibernate.session.events.auto in hibernate.cfg.xml),
+ * so no call site has to change. Records how long sessions stay open, how long
+ * they hold a pooled connection and how long their transactions take.
+ *
+ * With banking.sessions.leak_threshold_ms above 0, each session also keeps the
+ * stack trace of the code that opened it, and a background check prints, once,
+ * every session still open after the threshold: one that was never closed, or
+ * one held far longer than a service call should take. Those holding a
+ * connection are what starves the pool. A reported session is no longer
+ * tracked, so one that is never closed is not kept forever. Capturing the stack
+ * trace costs a few microseconds on every session open.
+ */
+public class SessionMonitor implements SessionEventListener {
+    private static final long serialVersionUID = 1L;
+
+    private static final long LEAK_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            AppConfig.getLong("banking.sessions.leak_threshold_ms", 0));
+
+    private static final Set<SessionMonitor> open = ConcurrentHashMap.newKeySet();
+    private static final LatencyHistogram sessionTimes = new LatencyHistogram();
+    private static final LatencyHistogram connectionHoldTimes = new LatencyHistogram();
+    private static final LatencyHistogram transactionTimes = new LatencyHistogram();
+    private static final LongAdder leaksReported = new LongAdder();
+    // Checked without the lock on every session open; only the first one starts the detector
+    private static volatile ScheduledExecutorService leakDetector;
+
+    private final long openedAt = System.nanoTime();
+    private final String threadName = Thread.currentThread().getName();
+    private final Throwable openedBy;
+    // Written by the session's thread, read by the leak detector
+    private volatile long connectionAcquiredAt;
+    private long transactionStartedAt;
+    private volatile int statements;
+    private volatile boolean reported;
+
+    // Instantiated by Hibernate for every session it opens
+    public SessionMonitor() {
+        if (LEAK_THRESHOLD_NANOS > 0) {
+            openedBy = new Throwable("Session opened by " + threadName);
+            open.add(this);
+            if (leakDetector == null) {
+                startLeakDetector();
+            }
+        } else {
+            openedBy = null;
+        }
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        connectionAcquiredAt = System.nanoTime();
+        transactionStartedAt = connectionAcquiredAt;
+    }
+
+    @Override
+    public void jdbcConnectionReleaseEnd() {
+        long acquiredAt = connectionAcquiredAt;
+        if (acquiredAt != 0) {
+            connectionHoldTimes.record(System.nanoTime() - acquiredAt);
+            connectionAcquiredAt = 0;
+        }
+    }
+
+    // Hibernate takes the connection when the transaction begins, so this is begin to commit/rollback.
+    // The connection may already be back in the pool: Hibernate releases it before telling listeners.
+    @Override
+    public void transactionCompletion(boolean successful) {
+        if (transactionStartedAt != 0) {
+            transactionTimes.record(System.nanoTime() - transactionStartedAt);
+            transactionStartedAt = 0;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statements++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        statements++;
+    }
+
+    // Session closed
+    @Override
+    public void end() {
+        jdbcConnectionReleaseEnd();
+        sessionTimes.record(System.nanoTime() - openedAt);
+        if (openedBy != null) {
+            open.remove(this);
+            if (reported) {
+                System.err.println("Session opened by " + threadName + " reported as leaked was closed after "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openedAt) + " ms");
+            }
+        }
+    }
+
+    public static LatencyHistogram getSessionTimes() {
+        return sessionTimes;
+    }
+
+    public static LatencyHistogram getConnectionHoldTimes() {
+        return connectionHoldTimes;
+    }
+
+    public static LatencyHistogram getTransactionTimes() {
+        return transactionTimes;
+    }
+
+    public static long getLeaksReported() {
+        return leaksReported.sum();
+    }
+
+    /**
+     * Sessions open longer than minAgeMillis and not yet reported as leaked,
+     * oldest first. Only tracked with banking.sessions.leak_threshold_ms above
+     * 0; empty otherwise.
+     */
+    public static List<OpenSession> getOpenSessions(long minAgeMillis) {
+        long now = System.nanoTime();
+        long minAgeNanos = TimeUnit.MILLISECONDS.toNanos(minAgeMillis);
+        List<OpenSession> result = new ArrayList<>();
+        for (SessionMonitor monitor : open) {
+            if (now - monitor.openedAt >= minAgeNanos) {
+                result.add(monitor.describe(now));
+            }
+        }
+        result.sort(Comparator.comparingLong(OpenSession::getAgeMillis).reversed());
+        return result;
+    }
+
+    private static synchronized void startLeakDetector() {
+        if (leakDetector != null) {
+            return;
+        }
+        ScheduledExecutorService detector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread t = new Thread(runnable, "session-leak-detector");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodNanos = Math.max(LEAK_THRESHOLD_NANOS / 2, TimeUnit.MILLISECONDS.toNanos(100));
+        detector.scheduleWithFixedDelay(SessionMonitor::reportLeaks, periodNanos, periodNanos,
+                TimeUnit.NANOSECONDS);
+        leakDetector = detector;
+    }
+
+    private static void reportLeaks() {
+        long now = System.nanoTime();
+        for (SessionMonitor monitor : open) {
+            if (!monitor.reported && now - monitor.openedAt >= LEAK_THRESHOLD_NANOS) {
+                monitor.reported = true;
+                leaksReported.increment();
+                open.remove(monitor);
+                OpenSession session = monitor.describe(now);
+                StringBuilder message = new StringBuilder("Possible session leak: ").append(session)
+                        .append(System.lineSeparator()).append(monitor.openedBy);
+                for (StackTraceElement frame : session.getOpenedAt()) {
+                    message.append(System.lineSeparator()).append("\tat ").append(frame);
+                }
+                System.err.println(message);
+            }
+        }
+    }
+
+    private OpenSession describe(long now) {
+        long acquiredAt = connectionAcquiredAt;
+        return new OpenSession(threadName, TimeUnit.NANOSECONDS.toMillis(now - openedAt),
+                acquiredAt == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(now - acquiredAt), statements,
+                openedBy.getStackTrace());
+    }
+
+    public static class OpenSession {
+        private final String threadName;
+        private final long ageMillis;
+        private final long connectionHeldMillis;
+        private final int statements;
+        private final StackTraceElement[] openedAt;
+
+        OpenSession(String threadName, long ageMillis, long connectionHeldMillis, int statements,
+                StackTraceElement[] openedAt) {
+            this.threadName = threadName;
+            this.ageMillis = ageMillis;
+            this.connectionHeldMillis = connectionHeldMillis;
+            this.statements = statements;
+            this.openedAt = openedAt;
+        }
+
+        public String getThreadName() { return threadName; }
+        public long getAgeMillis() { return ageMillis; }
+        // -1 when the session holds no connection right now
+        public long getConnectionHeldMillis() { return connectionHeldMillis; }
+        public int getStatements() { return statements; }
+        public StackTraceElement[] getOpenedAt() { return openedAt.clone(); }
+
+        @Override
+        public String toString() {
+            return "OpenSession{" +
+                    "thread='" + threadName + '\'' +
+                    ", ageMs=" + ageMillis +
+                    ", connectionHeldMs=" + connectionHeldMillis +
+                    ", statements=" + statements +
+                    '}';
+        }
+    }
+}
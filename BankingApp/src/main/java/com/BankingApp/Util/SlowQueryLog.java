@@ -0,0 +1,208 @@
+package com.BankingApp.Util;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times every JDBC statement run through the pooled DataSource and reports the
+ * ones slower than banking.sessions.slow_query_ms, with the SQL Hibernate sent
+ * and the types of the values bound to it. Works below Hibernate, so the SQL is
+ * what reached the database rather than the HQL it was generated from. With the
+ * threshold at 0 the DataSource is handed out unwrapped.
+ *
+ * Bound values include PAN, Aadhar numbers and emails, so they are only logged
+ * themselves with banking.sessions.log_bind_values=true.
+ */
+public class SlowQueryLog {
+    private static final long THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            AppConfig.getLong("banking.sessions.slow_query_ms", 0));
+    private static final boolean LOG_BIND_VALUES = AppConfig.getBoolean("banking.sessions.log_bind_values", false);
+    private static final int RECENT_LIMIT = 50;
+    private static final int MAX_VALUE_LENGTH = 100;
+
+    private static final LongAdder slowQueries = new LongAdder();
+    private static final Deque<SlowQuery> recent = new ArrayDeque<>(RECENT_LIMIT);
+
+    static DataSource wrap(DataSource dataSource) {
+        if (THRESHOLD_NANOS <= 0) {
+            return dataSource;
+        }
+        return proxy(DataSource.class, (proxy, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return result instanceof Connection ? wrap((Connection) result) : result;
+        });
+    }
+
+    public static long getSlowQueryCount() {
+        return slowQueries.sum();
+    }
+
+    // The last 50 slow statements, newest first
+    public static List<SlowQuery> getRecent() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement && method.getName().startsWith("prepare")) {
+                return wrap((Statement) result, (String) args[0]);
+            }
+            if (result instanceof Statement && method.getName().equals("createStatement")) {
+                return wrap((Statement) result, null);
+            }
+            return result;
+        });
+    }
+
+    private static Statement wrap(Statement statement, String sql) {
+        Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return proxy(type, new TimedStatement(statement, sql));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    // Hibernate keeps statements in hash maps: identity, not the target's
+                    switch (method.getName()) {
+                        case "equals":
+                            return args.length == 1 && proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            return handler.invoke(proxy, method, args);
+                    }
+                }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void record(String sql, List<Object> parameters, int batchSize, long elapsedNanos) {
+        SlowQuery query = new SlowQuery(sql, format(parameters), batchSize,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), Thread.currentThread().getName());
+        slowQueries.increment();
+        synchronized (recent) {
+            if (recent.size() == RECENT_LIMIT) {
+                recent.removeLast();
+            }
+            recent.addFirst(query);
+        }
+        System.err.println("Slow query: " + query);
+    }
+
+    private static String format(List<Object> parameters) {
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 1; i < parameters.size(); i++) {
+            if (i > 1) {
+                text.append(", ");
+            }
+            Object parameter = parameters.get(i);
+            String value = LOG_BIND_VALUES || parameter == null ? String.valueOf(parameter)
+                    : parameter.getClass().getSimpleName();
+            text.append(value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) + "..." : value);
+        }
+        return text.append(']').toString();
+    }
+
+    // One per statement, so only ever used by the thread running it
+    private static class TimedStatement implements InvocationHandler {
+        private final Statement statement;
+        private final String sql;
+        // Index 0 unused: JDBC parameters start at 1
+        private final List<Object> parameters = new ArrayList<>();
+        private int batchSize;
+
+        TimedStatement(Statement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    return SlowQueryLog.invoke(statement, method, args);
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    if (elapsed >= THRESHOLD_NANOS) {
+                        String text = args != null && args.length > 0 && args[0] instanceof String
+                                ? (String) args[0]
+                                : sql;
+                        record(text, parameters, name.endsWith("Batch") ? batchSize : 0, elapsed);
+                    }
+                    if (name.endsWith("Batch")) {
+                        batchSize = 0;
+                    }
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                int index = (Integer) args[0];
+                while (parameters.size() <= index) {
+                    parameters.add(null);
+                }
+                parameters.set(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            }
+            return SlowQueryLog.invoke(statement, method, args);
+        }
+    }
+
+    public static class SlowQuery {
+        private final String sql;
+        private final String parameters;
+        private final int batchSize;
+        private final long elapsedMillis;
+        private final String threadName;
+
+        SlowQuery(String sql, String parameters, int batchSize, long elapsedMillis, String threadName) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.batchSize = batchSize;
+            this.elapsedMillis = elapsedMillis;
+            this.threadName = threadName;
+        }
+
+        public String getSql() { return sql; }
+        // Values bound to the statement when it ran (the last row of a batch); only their types
+        // unless banking.sessions.log_bind_values is on
+        public String getParameters() { return parameters; }
+        // Rows in the batch, 0 for a single execution
+        public int getBatchSize() { return batchSize; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public String getThreadName() { return threadName; }
+
+        @Override
+        public String toString() {
+            return elapsedMillis + " ms on " + threadName + ": " + sql + " " + parameters
+                    + (batchSize > 0 ? " (batch of " + batchSize + ")" : "");
+        }
+    }
+}
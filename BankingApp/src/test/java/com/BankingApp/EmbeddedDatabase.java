@@ -0,0 +1,41 @@
+package com.BankingApp;
+
+/**
+ * Points HibernateUtil at an in-memory H2 database running in MySQL mode.
+ * Must be called before anything touches HibernateUtil or AppConfig.
+ */
+public class EmbeddedDatabase {
+
+    public static void use() {
+        use("bank_db");
+    }
+
+    public static void use(String name) {
+        setDefault("banking.datasource.url",
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        setDefault("banking.datasource.driver_class", "org.h2.Driver");
+        setDefault("banking.datasource.username", "sa");
+        setDefault("banking.datasource.password", "");
+        setDefault("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        setDefault("hibernate.hbm2ddl.auto", "create");
+        // Tests that want the journal point banking.journal.dir at a temporary directory
+        setDefault("banking.journal.enabled", "false");
+    }
+
+    /**
+     * Adds a second in-memory database as the read replica. Nothing replicates
+     * into it, so it shows whatever the test writes to it directly.
+     */
+    public static void useReplica(String name) {
+        setDefault("banking.replica.enabled", "true");
+        setDefault("banking.replica.datasource.url",
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        setDefault("banking.replica.hbm2ddl_auto", "create");
+    }
+
+    private static void setDefault(String name, String value) {
+        if (System.getProperty(name) == null) {
+            System.setProperty(name, value);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.BankingApp.Journal;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Journal.JournalEntry.Kind;
+import com.BankingApp.Service.AccountService;
+import com.BankingApp.Service.CustomerService;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TransactionJournalTest extends TestCase {
+
+    private static Path serviceJournal;
+
+    private Path directory;
+
+    @Override
+    protected void setUp() throws IOException {
+        if (serviceJournal == null) {
+            serviceJournal = Files.createTempDirectory("journal-service");
+            System.setProperty("banking.journal.enabled", "true");
+            System.setProperty("banking.journal.dir", serviceJournal.toString());
+            System.setProperty("banking.journal.segment_entries", "16");
+        }
+        EmbeddedDatabase.use();
+        directory = Files.createTempDirectory("journal-test");
+    }
+
+    public void testConcurrentAppendsAreReadBackInSequenceFromAnyOffset() throws Exception {
+        TransactionJournal journal = new TransactionJournal(directory, 64);
+        journal.open();
+
+        int threads = 8;
+        int appendsPerThread = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < appendsPerThread; i++) {
+                    journal.append(Collections.singletonList(entry("TXN" + thread + "_" + i, "ACC" + thread, i)))
+                            .join();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        journal.close();
+
+        int total = threads * appendsPerThread;
+        assertEquals(total, journal.getDurableSequence());
+        // 800 entries at 64 per segment
+        assertEquals(13, JournalReader.listSegments(directory).size());
+
+        try (JournalReader reader = new JournalReader(directory, 1)) {
+            for (long sequence = 1; sequence <= total; sequence++) {
+                assertTrue(reader.hasNext());
+                assertEquals(sequence, reader.next().getSequence());
+            }
+            assertFalse(reader.hasNext());
+        }
+        try (JournalReader reader = new JournalReader(directory, 700)) {
+            JournalEntry entry = reader.next();
+            assertEquals(700, entry.getSequence());
+            assertEquals(Kind.DEPOSIT, entry.getKind());
+            assertTrue(entry.getTransactionId().startsWith("TXN"));
+            int remaining = 1;
+            while (reader.hasNext()) {
+                reader.next();
+                remaining++;
+            }
+            assertEquals(101, remaining);
+        }
+    }
+
+    public void testEntryRoundTripsEveryField() {
+        TransactionJournal journal = new TransactionJournal(directory, 8);
+        journal.open();
+        LocalDateTime date = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123456789);
+        JournalEntry written = new JournalEntry(0, Kind.TRANSFER_IN, date, 42, 7, "TXN1234567890123456789",
+                "ACCABCDEFGHIJKLMNOP", "ACC2", 1234567, -5);
+        journal.append(Collections.singletonList(written)).join();
+        journal.close();
+
+        try (JournalReader reader = new JournalReader(directory, 1)) {
+            JournalEntry read = reader.next();
+            assertEquals(1, read.getSequence());
+            assertEquals(Kind.TRANSFER_IN, read.getKind());
+            assertEquals(date, read.getTransactionDate());
+            assertEquals(42, read.getId());
+            assertEquals(7, read.getAccountId());
+            assertEquals("TXN1234567890123456789", read.getTransactionId());
+            assertEquals("ACCABCDEFGHIJKLMNOP", read.getAccountNumber());
+            assertEquals("ACC2", read.getRelatedAccountNumber());
+            assertEquals(new BigDecimal("12345.67"), read.getAmount());
+            assertEquals(new BigDecimal("-0.05"), read.getBalanceAfter());
+        }
+    }
+
+    public void testReopenStopsAtATornEntryAndDiscardsWhatFollows() throws Exception {
+        TransactionJournal journal = new TransactionJournal(directory, 16);
+        journal.open();
+        for (int i = 0; i < 10; i++) {
+            journal.append(Collections.singletonList(entry("TXN" + i, "ACC1", i))).join();
+        }
+        journal.close();
+
+        // Entry 6 half written by a crash; 7-10 made it to disk but were never acknowledged
+        Path segment = directory.resolve(TransactionJournal.segmentName(1));
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(5 * JournalEntry.BYTES + 70);
+            file.writeLong(0x5EADBEEFL);
+        }
+
+        TransactionJournal reopened = new TransactionJournal(directory, 16);
+        reopened.open();
+        assertEquals(5, reopened.getLastSequence());
+        reopened.append(Collections.singletonList(entry("TXNNEW", "ACC1", 99))).join();
+        reopened.close();
+
+        List<String> ids = new ArrayList<>();
+        try (JournalReader reader = new JournalReader(directory, 1)) {
+            while (reader.hasNext()) {
+                ids.add(reader.next().getTransactionId());
+            }
+        }
+        assertEquals(6, ids.size());
+        assertEquals("TXNNEW", ids.get(5));
+    }
+
+    public void testReaderSeesEntriesAppendedAfterItReachedTheEnd() {
+        TransactionJournal journal = new TransactionJournal(directory, 4);
+        journal.open();
+        journal.append(Collections.singletonList(entry("TXN1", "ACC1", 1))).join();
+        try (JournalReader reader = new JournalReader(directory, 1)) {
+            assertEquals(1, reader.next().getSequence());
+            assertFalse(reader.hasNext());
+            List<JournalEntry> more = new ArrayList<>();
+            for (int i = 2; i <= 6; i++) {
+                more.add(entry("TXN" + i, "ACC1", i));
+            }
+            CompletableFuture<Long> appended = journal.append(more);
+            assertEquals(Long.valueOf(6), appended.join());
+            for (long sequence = 2; sequence <= 6; sequence++) {
+                assertEquals(sequence, reader.next().getSequence());
+            }
+        }
+        journal.close();
+    }
+
+    public void testAccountServiceJournalsEveryCommittedTransaction() {
+        Customer customer = new CustomerService().createCustomer("Journal", "Test", "journal@test.com",
+                "JRNLT1234J", "345678901234", "9876543210", "Journal Street");
+        AccountService accountService = new AccountService();
+        Account from = accountService.createAccount(customer, "SAVINGS");
+        Account to = accountService.createAccount(customer, "SAVINGS");
+
+        for (int i = 0; i < 20; i++) {
+            accountService.deposit(from.getAccountNumber(), new BigDecimal("10.00"), "deposit " + i);
+        }
+        accountService.withdraw(from.getAccountNumber(), new BigDecimal("15.50"), "cash");
+        accountService.transfer(from.getAccountNumber(), to.getAccountNumber(), new BigDecimal("30.25"), "rent");
+        try {
+            accountService.withdraw(to.getAccountNumber(), new BigDecimal("1000.00"), "rejected");
+            fail();
+        } catch (RuntimeException expected) {
+        }
+
+        // 20 deposits, 1 withdrawal, 2 transfer legs; the rejected withdrawal left nothing
+        List<JournalEntry> entries = new ArrayList<>();
+        try (JournalReader reader = new JournalReader(serviceJournal, 1)) {
+            while (reader.hasNext()) {
+                entries.add(reader.next());
+            }
+        }
+        assertEquals(23, entries.size());
+        assertEquals(Kind.TRANSFER_OUT, entries.get(21).getKind());
+        assertEquals(Kind.TRANSFER_IN, entries.get(22).getKind());
+        assertEquals(to.getAccountNumber(), entries.get(21).getRelatedAccountNumber());
+
+        Map<String, BigDecimal> balances = JournalReader.latestBalances(serviceJournal, 1);
+        assertEquals(accountService.getAccountBalance(from.getAccountNumber()),
+                balances.get(from.getAccountNumber()));
+        assertEquals(accountService.getAccountBalance(to.getAccountNumber()), balances.get(to.getAccountNumber()));
+    }
+
+    private static JournalEntry entry(String transactionId, String accountNumber, long paise) {
+        return new JournalEntry(0, Kind.DEPOSIT, LocalDateTime.now(), paise, 1, transactionId, accountNumber, null,
+                paise, paise);
+    }
+}
@@ -0,0 +1,300 @@
+package com.BankingApp.Ledger;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Entities.Transactions;
+import com.BankingApp.Ledger.LedgerRecord.Kind;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import junit.framework.TestCase;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class LedgerEngineTest extends TestCase {
+
+    private static int customers;
+
+    private Path directory;
+
+    @Override
+    protected void setUp() throws IOException {
+        EmbeddedDatabase.use();
+        directory = Files.createTempDirectory("ledger-test");
+    }
+
+    public void testPostingsAreAppliedInMemoryAndWrittenBehind() {
+        List<Account> accounts = createAccounts(2, "100.00");
+        String first = accounts.get(0).getAccountNumber();
+        String second = accounts.get(1).getAccountNumber();
+        LedgerEngine engine = new LedgerEngine(directory, 2, 1 << 20, 100, 50);
+        engine.start();
+
+        engine.deposit(first, new BigDecimal("50.00"), "salary");
+        engine.withdraw(first, new BigDecimal("30.00"), "cash");
+        Transactions debit = engine.transfer(first, second, new BigDecimal("20.00"), "rent");
+        assertEquals(new BigDecimal("100.00"), debit.getBalanceAfterTransaction().toBigDecimal());
+        assertEquals("DEBIT", debit.getDirection());
+        try {
+            engine.withdraw(first, new BigDecimal("1000.00"), "too much");
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().startsWith("Insufficient balance"));
+        }
+        try {
+            engine.deposit("ACCMISSING", BigDecimal.ONE, "unknown");
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(new BigDecimal("100.00"), engine.getBalance(first));
+        assertEquals(new BigDecimal("120.00"), engine.getBalance(second));
+
+        engine.flush();
+        assertEquals(new BigDecimal("100.00"), databaseBalance(first));
+        assertEquals(new BigDecimal("120.00"), databaseBalance(second));
+        assertEquals(3, transactionCount(first));
+        assertEquals(1, transactionCount(second));
+        engine.shutdown();
+    }
+
+    public void testSubPaisaAndOverRangeAmountsAreRejectedBeforeLogging() {
+        List<Account> accounts = createAccounts(2, "100.00");
+        String first = accounts.get(0).getAccountNumber();
+        String second = accounts.get(1).getAccountNumber();
+        LedgerEngine engine = new LedgerEngine(directory, 2, 1 << 20, 100, 50);
+        engine.start();
+
+        // Rounded to paise like the database path: 0.004 is nothing, 0.005 is one paisa
+        for (int i = 0; i < 10; i++) {
+            try {
+                engine.deposit(first, new BigDecimal("0.004"), "dust");
+                fail();
+            } catch (IllegalArgumentException expected) {
+                assertEquals("Deposit amount must be positive", expected.getMessage());
+            }
+        }
+        engine.deposit(first, new BigDecimal("0.005"), "rounded");
+        assertEquals(new BigDecimal("100.01"), engine.getBalance(first));
+
+        try {
+            engine.deposit(first, new BigDecimal("99999999999999.00"), "too large for the column");
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().startsWith("Amount out of range"));
+        }
+        try {
+            engine.deposit(first, new BigDecimal("9999999999999.00"), "past the balance limit");
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("would exceed the maximum"));
+        }
+        engine.deposit(second, new BigDecimal("9999999999899.00"), "up to the limit");
+        try {
+            engine.transfer(first, second, new BigDecimal("1.00"), "no room");
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("would exceed the maximum"));
+        }
+        assertEquals(new BigDecimal("100.01"), engine.getBalance(first));
+        assertEquals(new BigDecimal("9999999999999.00"), engine.getBalance(second));
+
+        // Nothing rejected reached the log, so the flusher keeps up and the database agrees
+        engine.flush();
+        assertNull(engine.getFlushFailure());
+        assertEquals(new BigDecimal("100.01"), databaseBalance(first));
+        assertEquals(new BigDecimal("9999999999999.00"), databaseBalance(second));
+        assertEquals(1, transactionCount(first));
+        engine.shutdown();
+
+        // Anything else that cannot be written parks the flusher instead of retrying it forever
+        assertFalse(WriteBehindFlusher.isTransient(new ArithmeticException("Amount out of range")));
+        assertFalse(WriteBehindFlusher.isTransient(
+                new RuntimeException(new SQLIntegrityConstraintViolationException())));
+        assertTrue(WriteBehindFlusher.isTransient(new RuntimeException(new SQLTransientConnectionException())));
+    }
+
+    public void testSplitAccountsAreRefused() {
+        List<Account> accounts = createAccounts(2, "100.00");
+        String split = accounts.get(0).getAccountNumber();
+        String plain = accounts.get(1).getAccountNumber();
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = session.beginTransaction();
+        session.createMutationQuery("UPDATE Account a SET a.subBalanceCount = 2 WHERE a.accountNumber = :number")
+                .setParameter("number", split)
+                .executeUpdate();
+        transaction.commit();
+        session.close();
+        LedgerEngine engine = new LedgerEngine(directory, 2, 1 << 20, 100, 50);
+        engine.start();
+
+        try {
+            engine.deposit(split, new BigDecimal("10.00"), "salary");
+            fail();
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().contains("sub-balances"));
+        }
+        try {
+            engine.transfer(plain, split, new BigDecimal("10.00"), "rent");
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals(new BigDecimal("100.00"), engine.getBalance(plain));
+
+        engine.flush();
+        assertEquals(new BigDecimal("100.00"), databaseBalance(split));
+        assertEquals(0, transactionCount(split));
+        assertEquals(0, transactionCount(plain));
+        engine.shutdown();
+    }
+
+    public void testConcurrentPostingsAreAllWritten() throws Exception {
+        List<Account> accounts = createAccounts(4, "0.00");
+        LedgerEngine engine = new LedgerEngine(directory, 4, 1 << 16, 500, 20);
+        engine.start();
+
+        int threads = 8;
+        int postingsPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                List<CompletableFuture<Transactions>> pending = new ArrayList<>();
+                for (int i = 0; i < postingsPerThread; i++) {
+                    String account = accounts.get(i % accounts.size()).getAccountNumber();
+                    pending.add(engine.submitDeposit(account, BigDecimal.ONE, "load"));
+                }
+                for (CompletableFuture<Transactions> posting : pending) {
+                    LedgerEngine.await(posting);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        engine.shutdown();
+
+        BigDecimal total = BigDecimal.ZERO;
+        long rows = 0;
+        for (Account account : accounts) {
+            total = total.add(databaseBalance(account.getAccountNumber()));
+            rows += transactionCount(account.getAccountNumber());
+        }
+        assertEquals(0, new BigDecimal(threads * postingsPerThread).compareTo(total));
+        assertEquals(threads * postingsPerThread, rows);
+    }
+
+    public void testRecoveryWritesPostingsThatNeverReachedTheDatabase() throws Exception {
+        String number = createAccounts(1, "0.00").get(0).getAccountNumber();
+        // Nothing is flushed before the crash: huge batch, hour-long interval
+        LedgerEngine engine = new LedgerEngine(directory, 2, 1 << 20, 1000000, 3600000);
+        engine.start();
+        for (int i = 0; i < 10; i++) {
+            engine.deposit(number, new BigDecimal("5.00"), "before crash");
+        }
+        engine.crash();
+        assertEquals(new BigDecimal("0.00"), databaseBalance(number));
+
+        // Half-written entry at the tail, as if the process died mid-write
+        File[] segments = directory.toFile().listFiles();
+        assertEquals(1, segments.length);
+        try (RandomAccessFile tail = new RandomAccessFile(segments[0], "rw")) {
+            tail.seek(tail.length());
+            tail.writeInt(200);
+            tail.writeInt(12345);
+            tail.write(new byte[20]);
+        }
+
+        LedgerEngine recovered = new LedgerEngine(directory, 2, 1 << 20, 100, 50);
+        recovered.start();
+        assertEquals(new BigDecimal("50.00"), databaseBalance(number));
+        assertEquals(10, transactionCount(number));
+        assertEquals(new BigDecimal("50.00"), recovered.getBalance(number));
+        recovered.deposit(number, new BigDecimal("1.00"), "after recovery");
+        recovered.shutdown();
+        assertEquals(new BigDecimal("51.00"), databaseBalance(number));
+    }
+
+    public void testRecoveryCompletesATransferWhoseCreditWasNeverLogged() throws Exception {
+        List<Account> accounts = createAccounts(2, "100.00");
+        Account from = accounts.get(0);
+        Account to = accounts.get(1);
+
+        // Only the debit leg made it to the log
+        WriteAheadLog log = new WriteAheadLog(directory, 1 << 20, records -> {
+        });
+        log.recover(LedgerEngine.readCheckpoint());
+        log.start();
+        log.append(new LedgerRecord(0, Kind.TRANSFER_OUT, LocalDateTime.now(), "TXNHALF1", from.getAccountNumber(),
+                from.getId(), new BigDecimal("40.00"), new BigDecimal("60.00"), "half (To: " + to.getAccountNumber()
+                        + ")", to.getAccountNumber(), "TXNHALF1"))
+                .join();
+        log.close();
+
+        LedgerEngine engine = new LedgerEngine(directory, 2, 1 << 20, 100, 50);
+        engine.start();
+        assertEquals(new BigDecimal("60.00"), databaseBalance(from.getAccountNumber()));
+        assertEquals(new BigDecimal("140.00"), databaseBalance(to.getAccountNumber()));
+        assertEquals(1, transactionCount(to.getAccountNumber()));
+        engine.shutdown();
+    }
+
+    private List<Account> createAccounts(int count, String openingBalance) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = session.beginTransaction();
+        int id = ++customers;
+        Customer customer = new Customer("Ledger", "Test", "ledger" + id + "@test.com", "LEDGR000" + id + "L",
+                "23456789010" + id);
+        session.persist(customer);
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Account account = new Account("ACCLDG" + id + "X" + i, "SAVINGS", customer);
+            account.setBalance(Money.of(new BigDecimal(openingBalance)));
+            session.persist(account);
+            accounts.add(account);
+        }
+        transaction.commit();
+        session.close();
+        return accounts;
+    }
+
+    private BigDecimal databaseBalance(String accountNumber) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            return session.createQuery("SELECT a.balance FROM Account a WHERE a.accountNumber = :accountNumber",
+                    Money.class).setParameter("accountNumber", accountNumber).uniqueResult().toBigDecimal();
+        } finally {
+            session.close();
+        }
+    }
+
+    private long transactionCount(String accountNumber) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            return session.createQuery(
+                    "SELECT COUNT(t) FROM Transactions t WHERE t.account.accountNumber = :accountNumber", Long.class)
+                    .setParameter("accountNumber", accountNumber).uniqueResult();
+        } finally {
+            session.close();
+        }
+    }
+}
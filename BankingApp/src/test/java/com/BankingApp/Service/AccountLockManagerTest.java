@@ -0,0 +1,149 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Customer;
+
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class AccountLockManagerTest extends TestCase {
+
+    // With the locks on, concurrent postings to one hot account queue in the JVM and never race on
+    // the row, so optimistic mode needs no retries
+    public void testServicePostingsQueueOnTheAccountStripe() throws Exception {
+        System.setProperty("banking.concurrency.mode", "OPTIMISTIC");
+        System.setProperty("banking.locks.enabled", "true");
+        EmbeddedDatabase.use();
+        AccountService accountService = new AccountService();
+        Customer customer = new CustomerService().createCustomer("Lock", "Stripe", "stripe@test.com", "STRIP1234E",
+                "345678901299", "9876543210", "Stripe Street");
+        String accountNumber = accountService.createAccount(customer, "CURRENT").getAccountNumber();
+        long acquired = AccountLockManager.getInstance().getAcquireCount();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    accountService.deposit(accountNumber, BigDecimal.ONE, "striped");
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(new BigDecimal("200.00"), accountService.getAccountBalance(accountNumber));
+        assertEquals(acquired + 200, AccountLockManager.getInstance().getAcquireCount());
+        assertEquals(0, RetryMetrics.getRetryCount("deposit"));
+
+        long waits = AccountLockManager.getInstance().getCumulativeWaitHistogram().get(Long.MAX_VALUE);
+        assertTrue(waits >= 200);
+        String text = MetricsExporter.toPrometheusText();
+        assertTrue(text, text.contains("# TYPE banking_lock_wait_seconds histogram\n"));
+        assertTrue(text, text.contains("\nbanking_lock_wait_seconds_bucket{le=\"1.0E-6\"} "));
+        assertTrue(text, text.contains("\nbanking_lock_wait_seconds_bucket{le=\"+Inf\"} " + waits + "\n"));
+        assertTrue(text, text.contains("\nbanking_lock_wait_seconds_count " + waits + "\n"));
+        assertTrue(text, text.contains("\nbanking_lock_timeouts_total 0\n"));
+    }
+
+    public void testPostingsToOneAccountRunOneAtATime() throws Exception {
+        AccountLockManager locks = new AccountLockManager(64, 10000);
+        int[] balance = new int[1];
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> postings = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                postings.add(pool.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        locks.withLock("ACC1", () -> balance[0]++);
+                    }
+                }));
+            }
+            for (Future<?> posting : postings) {
+                posting.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(8000, balance[0]);
+        assertEquals(8000, locks.getAcquireCount());
+    }
+
+    public void testOppositeTransfersDoNotDeadlock() throws Exception {
+        // Four stripes: most account pairs are on different stripes, some share one
+        AccountLockManager locks = new AccountLockManager(4, 5000);
+        String[] accounts = { "ACCA", "ACCB", "ACCC", "ACCD", "ACCE" };
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> transfers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int offset = i;
+                transfers.add(pool.submit(() -> {
+                    for (int j = 0; j < 2000; j++) {
+                        String from = accounts[(offset + j) % accounts.length];
+                        String to = accounts[(offset + j * 3 + 1) % accounts.length];
+                        locks.withLocks(from, to, () -> null);
+                    }
+                }));
+            }
+            for (Future<?> transfer : transfers) {
+                transfer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(0, locks.getTimeoutCount());
+    }
+
+    public void testWaitsAreRecordedInTheHistogram() throws Exception {
+        AccountLockManager locks = new AccountLockManager(16, 10000);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> locks.withLock("ACCH", () -> {
+            held.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+            return null;
+        }));
+        holder.start();
+        held.await();
+
+        Thread waiter = new Thread(() -> locks.withLock("ACCH", () -> null));
+        waiter.start();
+        Thread.sleep(50);
+        release.countDown();
+        waiter.join();
+        holder.join();
+
+        assertEquals(2, locks.getAcquireCount());
+        assertEquals(1, locks.getContendedCount());
+        assertTrue(locks.getMaxWaitMicros() >= 40000);
+        long waited = 0;
+        for (Map.Entry<Long, Long> bucket : locks.getWaitHistogram().entrySet()) {
+            if (bucket.getKey() > 32768) {
+                waited += bucket.getValue();
+            }
+        }
+        assertEquals(1, waited);
+    }
+
+    public void testStripeCountIsRoundedUpToAPowerOfTwo() {
+        assertEquals(1024, new AccountLockManager(1000, 1000).getStripeCount());
+        assertEquals(1, new AccountLockManager(1, 1000).getStripeCount());
+    }
+}
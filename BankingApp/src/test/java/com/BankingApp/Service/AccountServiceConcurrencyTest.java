@@ -0,0 +1,111 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import junit.framework.TestCase;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires random transfers between a small set of accounts from many threads and
+ * checks that no money is created or destroyed.
+ */
+public class AccountServiceConcurrencyTest extends TestCase {
+
+    private static final int ACCOUNTS = 10;
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 300;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+
+    private AccountService accountService;
+    private final List<String> accountNumbers = new ArrayList<>();
+
+    @Override
+    protected void setUp() {
+        // Exercise the ordered database row locks, not the in-process account locks in front of them
+        System.setProperty("banking.locks.enabled", "false");
+        EmbeddedDatabase.use();
+        accountService = new AccountService();
+
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = session.beginTransaction();
+        Customer customer = new Customer("Stress", "Test", "stress" + System.nanoTime() + "@test.com",
+                "STRES" + (1000 + new Random().nextInt(9000)) + "T", "2" + (System.nanoTime() % 100000000000L));
+        session.persist(customer);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account("ACCST" + System.nanoTime() % 1000000000L + i, "SAVINGS", customer);
+            account.deposit(Money.of(OPENING_BALANCE));
+            session.persist(account);
+            accountNumbers.add(account.getAccountNumber());
+        }
+        transaction.commit();
+        session.close();
+    }
+
+    public void testConcurrentTransfersConserveMoney() throws Exception {
+        BigDecimal before = totalBalance();
+        AtomicInteger succeeded = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final long seed = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    String from = accountNumbers.get(random.nextInt(ACCOUNTS));
+                    String to = accountNumbers.get(random.nextInt(ACCOUNTS));
+                    if (from.equals(to)) {
+                        continue;
+                    }
+                    BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(20000), 2);
+                    try {
+                        accountService.transfer(from, to, amount, "stress");
+                        succeeded.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // Running out of money is expected; anything else is a concurrency bug
+                        if (!(e.getCause() instanceof IllegalArgumentException)) {
+                            throw e;
+                        }
+                    }
+                }
+            }));
+        }
+        executor.shutdown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertTrue("no transfer went through", succeeded.get() > 0);
+        assertEquals(0, before.compareTo(totalBalance()));
+        for (String accountNumber : accountNumbers) {
+            assertTrue(accountService.getAccountBalance(accountNumber).signum() >= 0);
+        }
+    }
+
+    private BigDecimal totalBalance() {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            return session.createQuery("SELECT SUM(a.balance) FROM Account a WHERE a.accountNumber IN :numbers",
+                    BigDecimal.class).setParameter("numbers", accountNumbers).uniqueResult();
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Ledger.LedgerEngine;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+
+public class AccountServiceLedgerTest extends TestCase {
+
+    @Override
+    protected void setUp() throws IOException {
+        System.setProperty("banking.ledger.enabled", "true");
+        System.setProperty("banking.ledger.dir", Files.createTempDirectory("ledger-service").toString());
+        // Long enough that nothing is written behind while the test reads
+        System.setProperty("banking.ledger.flush_interval_ms", "60000");
+        EmbeddedDatabase.use();
+    }
+
+    @Override
+    protected void tearDown() {
+        LedgerEngine.shutdownIfRunning();
+    }
+
+    public void testAccountReadsShowPostingsNotYetWrittenBehind() {
+        AccountService accountService = new AccountService();
+        Customer customer = new CustomerService().createCustomer("Ledger", "Reader", "ledgerreader@test.com",
+                "LEDGR9001R", "345678901399", "9876543210", "Ledger Street");
+        String accountNumber = accountService.createAccount(customer, "SAVINGS").getAccountNumber();
+        // Cached with the opening balance
+        assertEquals(new BigDecimal("0.00"), accountService.getAccountByNumber(accountNumber).getBalance()
+                .toBigDecimal());
+
+        accountService.deposit(accountNumber, new BigDecimal("75.00"), "Salary");
+        accountService.withdraw(accountNumber, new BigDecimal("25.00"), "Cash");
+
+        Account account = accountService.getAccountByNumber(accountNumber);
+        assertEquals(new BigDecimal("50.00"), account.getBalance().toBigDecimal());
+        assertEquals(new BigDecimal("50.00"), accountService.getAccountBalance(accountNumber));
+    }
+}
@@ -0,0 +1,123 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Entities.Transactions;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import junit.framework.TestCase;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class BalanceSnapshotTest extends TestCase {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2024, 3, 1);
+
+    private AccountService accountService;
+    private BalanceSnapshotService snapshotService;
+
+    @Override
+    protected void setUp() {
+        EmbeddedDatabase.use();
+        accountService = new AccountService();
+        snapshotService = new BalanceSnapshotService();
+    }
+
+    public void testPostingsKeepTodaysSnapshotCurrent() {
+        Customer customer = new CustomerService().createCustomer("Snap", "Shot", "snapshot@test.com", "SNAPS1234T",
+                "345678901234", "9876543210", "Snapshot Street");
+        String from = accountService.createAccount(customer, "SAVINGS").getAccountNumber();
+        String to = accountService.createAccount(customer, "CURRENT").getAccountNumber();
+        LocalDate today = LocalDate.now();
+
+        accountService.deposit(from, new BigDecimal("1000.00"), "Salary");
+        accountService.withdraw(from, new BigDecimal("200.00"), "Cash");
+        accountService.transfer(from, to, new BigDecimal("300.00"), "Rent");
+
+        assertEquals(new BigDecimal("500.00"), snapshotService.getBalanceAsOf(from, today));
+        assertEquals(new BigDecimal("0.00"), snapshotService.getBalanceAsOf(from, today.minusDays(1)));
+        assertEquals(new BigDecimal("300.00"), snapshotService.getBalanceAsOf(to, today));
+
+        PeriodSummary summary = snapshotService.getPeriodSummary(from, today.minusDays(7), today);
+        assertEquals(new BigDecimal("0.00"), summary.getOpeningBalance());
+        assertEquals(new BigDecimal("1000.00"), summary.getTotalCredits());
+        assertEquals(new BigDecimal("500.00"), summary.getTotalDebits());
+        assertEquals(new BigDecimal("500.00"), summary.getClosingBalance());
+        assertEquals(3, summary.getTransactionCount());
+
+        assertNull(snapshotService.getBalanceAsOf("NOSUCHACCOUNT", today));
+    }
+
+    public void testBackfillRebuildsPastDaysFromTransactions() {
+        seedHistory();
+
+        SnapshotBackfill.Result result = new SnapshotBackfill().run(DAY_1.plusDays(2));
+        assertTrue(result.getSnapshotsWritten() >= 2);
+
+        assertEquals(new BigDecimal("0.00"), snapshotService.getBalanceAsOf("ACCSNAP1", DAY_1.minusDays(1)));
+        assertEquals(new BigDecimal("70.00"), snapshotService.getBalanceAsOf("ACCSNAP1", DAY_1));
+        // No transactions on day 2: the balance carries over from day 1
+        assertEquals(new BigDecimal("70.00"), snapshotService.getBalanceAsOf("ACCSNAP1", DAY_1.plusDays(1)));
+        assertEquals(new BigDecimal("100.00"), snapshotService.getBalanceAsOf("ACCSNAP1", DAY_1.plusDays(2)));
+
+        PeriodSummary summary = snapshotService.getPeriodSummary("ACCSNAP1", DAY_1.plusDays(1), DAY_1.plusDays(2));
+        assertEquals(new BigDecimal("70.00"), summary.getOpeningBalance());
+        assertEquals(new BigDecimal("50.00"), summary.getTotalCredits());
+        assertEquals(new BigDecimal("20.00"), summary.getTotalDebits());
+        assertEquals(new BigDecimal("100.00"), summary.getClosingBalance());
+        assertEquals(2, summary.getTransactionCount());
+
+        // Running it again replaces the rows rather than adding to them
+        new SnapshotBackfill().run(DAY_1.plusDays(2));
+        summary = snapshotService.getPeriodSummary("ACCSNAP1", DAY_1, DAY_1.plusDays(2));
+        assertEquals(new BigDecimal("150.00"), summary.getTotalCredits());
+        assertEquals(new BigDecimal("50.00"), summary.getTotalDebits());
+        assertEquals(4, summary.getTransactionCount());
+    }
+
+    public void testBackfillOnlyRunsForPastDays() {
+        try {
+            new SnapshotBackfill().run(LocalDate.now());
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    // Rows written straight to transactions, as they were before snapshots existed
+    private void seedHistory() {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = session.beginTransaction();
+        Customer customer = new Customer("Back", "Fill", "backfill@test.com", "BACKF1234L", "456789012345");
+        session.persist(customer);
+        Account account = new Account("ACCSNAP1", "SAVINGS", customer);
+        session.persist(account);
+        LocalDateTime day1 = DAY_1.atTime(10, 0);
+        LocalDateTime day3 = DAY_1.plusDays(2).atTime(10, 0);
+        persist(session, account, "DEPOSIT", "CREDIT", "100.00", "100.00", "Opening", null, day1);
+        // The direction, not the description, tells the two transfer legs apart
+        persist(session, account, "TRANSFER", "DEBIT", "30.00", "70.00", "Gift", "ACCOTHER", day1.plusHours(1));
+        persist(session, account, "TRANSFER", "CREDIT", "50.00", "120.00", "Refund", "ACCOTHER", day3);
+        persist(session, account, "WITHDRAWAL", "DEBIT", "20.00", "100.00", "Cash", null, day3.plusHours(1));
+        account.setBalance(Money.of(new BigDecimal("100.00")));
+        transaction.commit();
+        session.close();
+    }
+
+    private void persist(Session session, Account account, String type, String direction, String amount,
+            String balanceAfter, String description, String related, LocalDateTime date) {
+        Transactions row = new Transactions("TXNSNAP" + type + date, type, Money.of(new BigDecimal(amount)),
+                description, account);
+        row.setDirection(direction);
+        row.setBalanceAfterTransaction(Money.of(new BigDecimal(balanceAfter)));
+        row.setRelatedAccountNumber(related);
+        row.setTransactionDate(date);
+        session.persist(row);
+    }
+}
@@ -0,0 +1,100 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Customer;
+
+import junit.framework.TestCase;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CustomerImportTest extends TestCase {
+
+    private CustomerService customerService;
+    private Path directory;
+
+    @Override
+    protected void setUp() throws Exception {
+        // Small chunks, so duplicates land both inside a chunk and across chunks
+        System.setProperty("banking.import.chunk_size", "3");
+        System.setProperty("banking.import.progress_rows", "4");
+        EmbeddedDatabase.use();
+        customerService = new CustomerService();
+        directory = Files.createTempDirectory("customer-import");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (Path file : Files.newDirectoryStream(directory)) {
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    public void testImportsValidRowsAndRejectsTheRestWithReasons() throws Exception {
+        // Stored lowercased, so line 8 matches it only once normalized
+        customerService.createCustomer("Existing", "Customer", "Existing@Import.com", "IMPRT0001E", "412345678901",
+                "9876543210", "Existing Street");
+
+        Path csv = directory.resolve("customers.csv");
+        Files.write(csv, Arrays.asList(
+                "first_name,last_name,email,pan_number,aadhar_number,phone,address",
+                "Asha,Rao,asha@import.com,IMPRT1001A,412345678911,9876500001,\"12, MG Road\"",     // 2
+                "Ravi,Iyer,ravi@import.com,imprt1002a,412345678912,,",                           // 3
+                "Same,Chunk,ASHA@import.com,IMPRT1003A,412345678913,,",                           // 4
+                "",                                                                               // 5
+                "Bad,Pan,badpan@import.com,12345ABCDE,412345678915,,",                            // 6
+                "Dup,Pan,duppan@import.com,IMPRT1001A,412345678916,,",                            // 7
+                "Dup,Email,EXISTING@import.com,IMPRT1007A,412345678917,,",                        // 8
+                "Meera,Nair,meera@import.com,IMPRT1008A,412345678918,9876500008,Kochi",           // 9
+                "Open,Quote,quote@import.com,IMPRT1009A,412345678919,,\"Unfinished",              // 10
+                "Short,Row,short@import.com"),                                                    // 11
+                StandardCharsets.UTF_8);
+        Path rejects = directory.resolve("rejects.csv");
+
+        List<CustomerImportReport> progress = new ArrayList<>();
+        CustomerImportReport report = new CustomerImport().run(csv, rejects, "SAVINGS", progress::add);
+
+        assertTrue(report.isFinished());
+        assertEquals(9, report.getRowsRead());
+        assertEquals(3, report.getCustomersImported());
+        assertEquals(3, report.getAccountsOpened());
+        assertEquals(6, report.getRowsRejected());
+        assertFalse(progress.isEmpty());
+
+        Customer asha = customerService.getCustomerWithAccountsByPan("IMPRT1001A");
+        assertEquals("asha@import.com", asha.getEmail());
+        assertEquals("12, MG Road", asha.getAddress());
+        assertEquals(1, asha.getAccounts().size());
+        assertEquals("SAVINGS", asha.getAccounts().get(0).getAccountType());
+        assertNotNull(customerService.getCustomerByPan("IMPRT1002A"));
+        assertNotNull(customerService.getCustomerByPan("IMPRT1008A"));
+
+        List<String> lines = Files.readAllLines(rejects, StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList(
+                "line,reason,record",
+                "4,Duplicate Email in file (line 2),\"Same,Chunk,ASHA@import.com,IMPRT1003A,412345678913,,\"",
+                "6,Invalid PAN number format,\"Bad,Pan,badpan@import.com,12345ABCDE,412345678915,,\"",
+                "7,PAN number already exists,\"Dup,Pan,duppan@import.com,IMPRT1001A,412345678916,,\"",
+                "8,Email already exists,\"Dup,Email,EXISTING@import.com,IMPRT1007A,412345678917,,\"",
+                "10,Unterminated quoted field,\"Open,Quote,quote@import.com,IMPRT1009A,412345678919,,"
+                        + "\"\"Unfinished\"",
+                "11,\"Expected 7 columns, found 3\",\"Short,Row,short@import.com\""), lines);
+    }
+
+    public void testMissingColumnIsRefusedBeforeAnyRowIsRead() throws Exception {
+        Path csv = directory.resolve("missing.csv");
+        Files.write(csv, Arrays.asList("first_name,last_name,email,pan_number", "A,B,c@d.com,ABCDE1234F"),
+                StandardCharsets.UTF_8);
+        try {
+            new CustomerImport().run(csv, directory.resolve("missing.rejects.csv"), null, null);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals("Missing column: aadhar_number", expected.getMessage());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Customer;
+
+import junit.framework.TestCase;
+
+import org.hibernate.Hibernate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CustomerSummaryTest extends TestCase {
+
+    private static final int CUSTOMERS = 7;
+
+    private static boolean seeded;
+
+    private AccountService accountService;
+    private CustomerService customerService;
+
+    @Override
+    protected void setUp() {
+        EmbeddedDatabase.use();
+        accountService = new AccountService();
+        customerService = new CustomerService();
+        if (!seeded) {
+            // Customer i gets i % 3 accounts: 0, 1 or 2
+            for (int i = 0; i < CUSTOMERS; i++) {
+                Customer customer = customerService.createCustomer("Summary", "Customer" + i,
+                        "summary" + i + "@test.com", "SUMRY123" + i + "S", "23456789000" + i, "9876543210",
+                        "Summary Street");
+                for (int a = 0; a < i % 3; a++) {
+                    accountService.createAccount(customer, "SAVINGS");
+                }
+            }
+            seeded = true;
+        }
+    }
+
+    public void testPagesCoverEveryCustomerOnceWithAllTheirAccounts() {
+        Map<Long, List<CustomerAccountSummary>> byCustomer = new LinkedHashMap<>();
+        CustomerSummaryPage page = customerService.getCustomerSummaries(null, 3);
+        int pages = 1;
+        while (true) {
+            List<Long> pageCustomers = new ArrayList<>();
+            for (CustomerAccountSummary row : page.getRows()) {
+                if (!pageCustomers.contains(row.getCustomerId())) {
+                    pageCustomers.add(row.getCustomerId());
+                    assertFalse("customer split across pages", byCustomer.containsKey(row.getCustomerId()));
+                }
+            }
+            assertTrue(pageCustomers.size() <= 3);
+            for (CustomerAccountSummary row : page.getRows()) {
+                byCustomer.computeIfAbsent(row.getCustomerId(), id -> new ArrayList<>()).add(row);
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+            page = customerService.getCustomerSummaries(page.getNextCursor(), 3);
+            pages++;
+        }
+
+        assertEquals(3, pages);
+        assertEquals(CUSTOMERS, byCustomer.size());
+        for (List<CustomerAccountSummary> rows : byCustomer.values()) {
+            int index = Integer.parseInt(rows.get(0).getLastName().substring("Customer".length()));
+            int accounts = index % 3;
+            if (accounts == 0) {
+                assertEquals(1, rows.size());
+                assertFalse(rows.get(0).hasAccount());
+            } else {
+                assertEquals(accounts, rows.size());
+                for (CustomerAccountSummary row : rows) {
+                    assertTrue(row.hasAccount());
+                    assertEquals("SAVINGS", row.getAccountType());
+                }
+            }
+        }
+    }
+
+    public void testAccountsAreOnlyLoadedWhenAsked() {
+        Customer plain = customerService.getCustomerByPan("SUMRY1232S");
+        assertFalse(Hibernate.isInitialized(plain.getAccounts()));
+
+        Customer withAccounts = customerService.getCustomerWithAccountsByPan("SUMRY1232S");
+        assertTrue(Hibernate.isInitialized(withAccounts.getAccounts()));
+        assertEquals(2, withAccounts.getAccounts().size());
+        assertEquals(2, customerService.getCustomerWithAccounts(withAccounts.getId()).getAccounts().size());
+    }
+
+    public void testSplitAccountsShowTheirWholeBalance() {
+        // Customer 1's only account
+        String accountNumber = customerService.getCustomerWithAccountsByPan("SUMRY1231S").getAccounts().get(0)
+                .getAccountNumber();
+        accountService.deposit(accountNumber, new BigDecimal("10.00"), "Opening");
+        new SubBalanceManager().enable(accountNumber, 4);
+        for (int i = 0; i < 4; i++) {
+            accountService.deposit(accountNumber, new BigDecimal("5.00"), "Sale");
+        }
+
+        Customer loaded = customerService.getCustomerWithAccountsByPan("SUMRY1231S");
+        assertEquals(new BigDecimal("30.00"), loaded.getAccounts().get(0).getBalance().toBigDecimal());
+        assertEquals(new BigDecimal("30.00"),
+                customerService.getCustomerWithAccounts(loaded.getId()).getAccounts().get(0).getBalance()
+                        .toBigDecimal());
+        CustomerAccountSummary row = customerService.getCustomerSummaries(loaded.getId() - 1, 1).getRows().get(0);
+        assertEquals(accountNumber, row.getAccountNumber());
+        assertEquals(new BigDecimal("30.00"), row.getBalance().toBigDecimal());
+    }
+}
@@ -0,0 +1,104 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Util.HibernateUtil;
+
+import junit.framework.TestCase;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.stat.Statistics;
+
+public class CustomerUniquenessTest extends TestCase {
+
+    private static int customerCount;
+
+    private CustomerService customerService;
+
+    @Override
+    protected void setUp() {
+        EmbeddedDatabase.use();
+        customerService = new CustomerService();
+    }
+
+    public void testNewCustomerRunsNoLookupQuery() {
+        createCustomer(next());
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        long queriesBefore = statistics.getQueryExecutionCount();
+        long checksBefore = CustomerUniquenessIndex.getInstance().getDatabaseChecks();
+
+        for (int i = 0; i < 20; i++) {
+            createCustomer(next());
+        }
+
+        assertEquals(queriesBefore, statistics.getQueryExecutionCount());
+        assertEquals(checksBefore, CustomerUniquenessIndex.getInstance().getDatabaseChecks());
+    }
+
+    public void testDuplicatePanAadharAndEmailAreRejected() {
+        int n = next();
+        createCustomer(n);
+
+        assertRejected("PAN number already exists",
+                pan(n).toLowerCase(), aadhar(next()), email(next()));
+        assertRejected("Aadhar number already exists", pan(next()), aadhar(n), email(next()));
+        assertRejected("Email already exists", pan(next()), aadhar(next()), email(n));
+    }
+
+    public void testEmailIsTakenWhateverItsCase() {
+        int n = next();
+        String email = "Mixed" + n + "@Case.com";
+        Customer customer = customerService.createCustomer("Unique", "Customer" + n, email, pan(n), aadhar(n),
+                "9876543210", "Unique Street");
+        assertEquals(email.toLowerCase(), customer.getEmail());
+
+        assertRejected("Email already exists", pan(next()), aadhar(next()), email);
+        assertRejected("Email already exists", pan(next()), aadhar(next()), email.toLowerCase());
+    }
+
+    public void testCustomerInsertedBehindTheIndexIsStillRejected() {
+        CustomerUniquenessIndex.getInstance();
+        int n = next();
+        // Stands in for another app node: straight into the table, not through createCustomer
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = session.beginTransaction();
+        session.persist(new Customer("Other", "Node", email(n), pan(n), aadhar(n)));
+        transaction.commit();
+        session.close();
+
+        assertRejected("PAN number already exists", pan(n), aadhar(next()), email(next()));
+        // The clash taught the index the PAN
+        assertRejected("PAN number already exists", pan(n), aadhar(next()), email(next()));
+    }
+
+    private void assertRejected(String message, String pan, String aadhar, String email) {
+        try {
+            customerService.createCustomer("Unique", "Customer", email, pan, aadhar, "9876543210", "Unique Street");
+            fail("Expected: " + message);
+        } catch (IllegalArgumentException expected) {
+            assertEquals(message, expected.getMessage());
+        }
+    }
+
+    private Customer createCustomer(int n) {
+        return customerService.createCustomer("Unique", "Customer" + n, email(n), pan(n), aadhar(n), "9876543210",
+                "Unique Street");
+    }
+
+    private static int next() {
+        return customerCount++;
+    }
+
+    private static String pan(int n) {
+        return "UNIQE" + (1000 + n) + "U";
+    }
+
+    private static String aadhar(int n) {
+        return "6789012" + (10000 + n);
+    }
+
+    private static String email(int n) {
+        return "unique" + n + "@test.com";
+    }
+}
@@ -0,0 +1,129 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Entities.InterestAccrualCheckpoint;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import junit.framework.TestCase;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class InterestAccrualTest extends TestCase {
+
+    private static final LocalDate YESTERDAY = LocalDate.now().minusDays(1);
+
+    private static int customers;
+
+    private AccountService accountService;
+    private InterestAccrualEngine engine;
+
+    @Override
+    protected void setUp() {
+        EmbeddedDatabase.use();
+        // Small ranges and batches so a handful of accounts spans several of each
+        System.setProperty("banking.interest.partition_accounts", "4");
+        System.setProperty("banking.interest.batch_size", "2");
+        accountService = new AccountService();
+        engine = new InterestAccrualEngine();
+    }
+
+    public void testCreditsSavingsAccountsOnceAcrossPartitions() {
+        List<Account> savings = createAccounts("ACCINT", "SAVINGS", 9, "100000.00");
+        Account current = createAccounts("ACCCUR", "CURRENT", 1, "100000.00").get(0);
+        Account empty = createAccounts("ACCEMP", "SAVINGS", 1, "0.00").get(0);
+
+        InterestAccrualReport report = engine.accrue(YESTERDAY);
+
+        // Other tests' accounts share the database, so the report counts at least these
+        assertTrue(report.getAccountsCredited() >= 9);
+        assertTrue(report.getPartitions().size() > 1);
+        // 100000.00 at 3.50% for one day = 9.589..., rounded to 9.59
+        for (Account account : savings) {
+            assertEquals(new BigDecimal("100009.59"), accountService.getAccountBalance(account.getAccountNumber()));
+            assertEquals("INTEREST",
+                    accountService.getTransactionHistory(account.getAccountNumber()).get(0).getType());
+        }
+        assertEquals(new BigDecimal("100000.00"), accountService.getAccountBalance(current.getAccountNumber()));
+        assertEquals(new BigDecimal("0.00"), accountService.getAccountBalance(empty.getAccountNumber()));
+
+        // A second run for the same day finds every partition done
+        InterestAccrualReport rerun = engine.accrue(YESTERDAY);
+        assertEquals(0, rerun.getAccountsCredited());
+        for (InterestAccrualReport.Partition partition : rerun.getPartitions()) {
+            assertTrue(partition.isSkipped());
+        }
+        assertEquals(new BigDecimal("100009.59"), accountService.getAccountBalance(savings.get(0).getAccountNumber()));
+    }
+
+    public void testResumesAfterLastCheckpointedAccount() {
+        List<Account> accounts = createAccounts("ACCRES", "SAVINGS", 3, "100000.00");
+        Account first = accounts.get(0);
+        long partitionStart = Math.floorDiv(first.getId(), 4L) * 4;
+        LocalDate day = YESTERDAY.minusDays(1);
+
+        // As if an earlier run had credited the first account and stopped
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = session.beginTransaction();
+        InterestAccrualCheckpoint checkpoint = new InterestAccrualCheckpoint(day, partitionStart, partitionStart + 3);
+        checkpoint.recordBatch(first.getId(), 1, Money.of(new BigDecimal("9.59")));
+        session.persist(checkpoint);
+        transaction.commit();
+        session.close();
+
+        engine.accrue(day);
+
+        assertEquals(new BigDecimal("100000.00"), accountService.getAccountBalance(first.getAccountNumber()));
+        for (Account account : accounts.subList(1, accounts.size())) {
+            assertEquals(new BigDecimal("100009.59"), accountService.getAccountBalance(account.getAccountNumber()));
+        }
+    }
+
+    public void testInterestIsOnTheBalanceAtTheEndOfTheDay() {
+        Account account = createAccounts("ACCEOD", "SAVINGS", 1, "100000.00").get(0);
+        // Posted today, so not part of the balance interest is due on for yesterday
+        accountService.deposit(account.getAccountNumber(), new BigDecimal("50000.00"), "Today");
+
+        engine.accrue(YESTERDAY.minusDays(2));
+
+        assertEquals(new BigDecimal("150009.59"), accountService.getAccountBalance(account.getAccountNumber()));
+    }
+
+    public void testRefusesToRunWithTheLedgerEnabled() {
+        System.setProperty("banking.ledger.enabled", "true");
+        try {
+            engine.accrue(YESTERDAY);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+        } finally {
+            System.clearProperty("banking.ledger.enabled");
+        }
+    }
+
+    private List<Account> createAccounts(String prefix, String type, int count, String balance) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = session.beginTransaction();
+        int n = ++customers;
+        Customer customer = new Customer("Interest", prefix, prefix.toLowerCase() + "@test.com",
+                "INTRS" + (1000 + n) + "I", "56789012340" + n);
+        session.persist(customer);
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Account account = new Account(prefix + i, type, customer);
+            account.setBalance(Money.of(new BigDecimal(balance)));
+            session.persist(account);
+            accounts.add(account);
+        }
+        transaction.commit();
+        session.close();
+        return accounts;
+    }
+}
@@ -0,0 +1,120 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Customer;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class OperationMetricsTest extends TestCase {
+
+    private static int customerCount;
+
+    private AccountService accountService;
+    private String accountNumber;
+
+    @Override
+    protected void setUp() {
+        EmbeddedDatabase.use();
+        accountService = new AccountService();
+        int n = ++customerCount;
+        Customer customer = new CustomerService().createCustomer("Metr", "Ics", "metrics" + n + "@test.com",
+                "METRC" + (1000 + n) + "S", String.valueOf(456789010000L + n), "9876543210", "Metrics Street");
+        accountNumber = accountService.createAccount(customer, "SAVINGS").getAccountNumber();
+    }
+
+    @Override
+    protected void tearDown() {
+        MetricsExporter.shutdownIfRunning();
+    }
+
+    public void testCallsAndErrorsAreCountedPerOperation() throws Exception {
+        long deposits = count("AccountService.deposit");
+        long withdrawalErrors = OperationMetrics.getErrorCount("AccountService.withdraw");
+
+        accountService.deposit(accountNumber, new BigDecimal("100.00"), "Salary");
+        accountService.deposit(accountNumber, new BigDecimal("50.00"), "Bonus");
+        try {
+            accountService.withdraw(accountNumber, new BigDecimal("1000.00"), "Too much");
+            fail("Expected insufficient balance");
+        } catch (RuntimeException expected) {
+        }
+
+        assertEquals(deposits + 2, count("AccountService.deposit"));
+        assertEquals(withdrawalErrors + 1, OperationMetrics.getErrorCount("AccountService.withdraw"));
+        assertTrue(count("CustomerService.createCustomer") >= 1);
+        assertTrue(OperationMetrics.getLatency("AccountService.deposit").getPercentileNanos(0.99) > 0);
+
+        String text = MetricsExporter.toPrometheusText();
+        assertTrue(text, text.contains("# TYPE banking_operation_seconds summary\n"));
+        assertTrue(text, text.contains("banking_operation_seconds{operation=\"AccountService.deposit\","
+                + "quantile=\"0.99\"} "));
+        assertTrue(text, text.contains("banking_operation_seconds_count{operation=\"AccountService.deposit\"} "
+                + count("AccountService.deposit") + "\n"));
+        assertTrue(text, text.contains("banking_operation_errors_total{operation=\"AccountService.withdraw\"} "));
+        assertTrue(text, text.contains("\nhibernate_query_executions_total "));
+        assertTrue(text, text.contains("\nhibernate_second_level_cache_requests_total{result=\"hit\"} "));
+        assertTrue(text, text.contains("\nhibernate_query_cache_requests_total{result=\"miss\"} "));
+        assertTrue(text, text.contains("\nhibernate_cache_region_requests_total{region=\"accounts\",result=\"hit\"} "));
+        assertTrue(text, text.contains("\nbanking_pool_acquire_seconds_count "));
+
+        RetryMetrics.recordRetry("deposit");
+        RetryMetrics.recordGiveUp("deposit");
+        text = MetricsExporter.toPrometheusText();
+        assertTrue(text, text.contains("# TYPE banking_retries_total counter\n"));
+        assertTrue(text, text.contains("\nbanking_retries_total{operation=\"deposit\"} "
+                + RetryMetrics.getRetryCount("deposit") + "\n"));
+        assertTrue(text, text.contains("\nbanking_retry_give_ups_total{operation=\"deposit\"} "
+                + RetryMetrics.getGiveUpCount("deposit") + "\n"));
+
+        Path file = Files.createTempFile("metrics", ".prom");
+        MetricsExporter.writeTo(file);
+        assertTrue(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)
+                .contains("banking_operation_seconds_count{operation=\"AccountService.deposit\"}"));
+    }
+
+    public void testHttpEndpointServesPrometheusText() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        System.setProperty("banking.metrics.http_port", String.valueOf(port));
+        try {
+            MetricsExporter.startIfEnabled();
+        } finally {
+            System.clearProperty("banking.metrics.http_port");
+        }
+        assertEquals(port, MetricsExporter.getPort());
+        accountService.getAccountBalance(accountNumber);
+
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + port + "/metrics")
+                .openConnection();
+        assertEquals(200, connection.getResponseCode());
+        assertTrue(connection.getContentType().startsWith("text/plain; version=0.0.4"));
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = connection.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                body.write(buffer, 0, read);
+            }
+        }
+        assertTrue(body.toString("UTF-8").contains("operation=\"AccountService.getAccountBalance\""));
+
+        MetricsExporter.shutdownIfRunning();
+        assertEquals(0, MetricsExporter.getPort());
+    }
+
+    private static long count(String operation) {
+        return OperationMetrics.getLatency(operation) == null ? 0 : OperationMetrics.getLatency(operation).getCount();
+    }
+}
@@ -0,0 +1,78 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Util.HibernateUtil;
+
+import junit.framework.TestCase;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hammers a single account with deposits in OPTIMISTIC mode: every deposit that
+ * reports success must be in the balance exactly once.
+ */
+public class OptimisticConcurrencyTest extends TestCase {
+
+    private static final int THREADS = 8;
+    private static final int DEPOSITS_PER_THREAD = 100;
+
+    private String accountNumber;
+
+    @Override
+    protected void setUp() {
+        System.setProperty("banking.concurrency.mode", "OPTIMISTIC");
+        // The in-process account locks would queue the deposits before they ever race on @Version
+        System.setProperty("banking.locks.enabled", "false");
+        EmbeddedDatabase.use();
+
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = session.beginTransaction();
+        Customer customer = new Customer("Hot", "Account", "hot@test.com", "HOTAC1234T", "234567890123");
+        session.persist(customer);
+        Account account = new Account("ACCHOT1", "CURRENT", customer);
+        session.persist(account);
+        transaction.commit();
+        session.close();
+        accountNumber = account.getAccountNumber();
+    }
+
+    public void testConcurrentDepositsAreNotLost() throws Exception {
+        AccountService accountService = new AccountService();
+        AtomicInteger succeeded = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < DEPOSITS_PER_THREAD; i++) {
+                    try {
+                        accountService.deposit(accountNumber, BigDecimal.ONE, "optimistic");
+                        succeeded.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // Gave up after the last retry; must not have touched the balance
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertTrue(succeeded.get() > 0);
+        assertTrue("no version conflict was retried", RetryMetrics.getRetryCount("deposit") > 0);
+        assertEquals(0, new BigDecimal(succeeded.get()).compareTo(accountService.getAccountBalance(accountNumber)));
+        assertEquals(THREADS * DEPOSITS_PER_THREAD - succeeded.get(), RetryMetrics.getGiveUpCount("deposit"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import junit.framework.TestCase;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProcessBatchTest extends TestCase {
+
+    private AccountService accountService;
+
+    @Override
+    protected void setUp() {
+        System.setProperty("banking.batch.chunk_size", "4");
+        EmbeddedDatabase.use();
+        accountService = new AccountService();
+
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = session.beginTransaction();
+        Customer customer = new Customer("Batch", "Test", "batch@test.com", "BATCH1234T", "234567890123");
+        session.persist(customer);
+        Account first = new Account("ACCBATCH1", "SAVINGS", customer);
+        first.deposit(Money.of(new BigDecimal("100.00")));
+        session.persist(first);
+        session.persist(new Account("ACCBATCH2", "CURRENT", customer));
+        transaction.commit();
+        session.close();
+    }
+
+    public void testBadItemsAreRejectedWithoutRollingBackTheirChunk() {
+        List<TransferRequest> requests = new ArrayList<>();
+        requests.add(TransferRequest.deposit("ACCBATCH1", new BigDecimal("50.00"), "salary"));
+        requests.add(TransferRequest.withdrawal("ACCBATCH1", new BigDecimal("1000.00"), "too much"));
+        requests.add(TransferRequest.transfer("ACCBATCH1", "ACCBATCH2", new BigDecimal("30.00"), "rent"));
+        requests.add(TransferRequest.deposit("ACCMISSING", new BigDecimal("10.00"), "unknown"));
+        requests.add(TransferRequest.withdrawal("ACCBATCH2", new BigDecimal("30.00"), "cash"));
+        requests.add(TransferRequest.deposit("ACCBATCH2", new BigDecimal("-5.00"), "negative"));
+
+        List<BatchItemResult> results = accountService.processBatch(requests);
+
+        assertEquals(requests.size(), results.size());
+        boolean[] expected = { true, false, true, false, true, false };
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals("item " + i, expected[i], results.get(i).isSuccess());
+        }
+        assertTrue(results.get(1).getReason().startsWith("Insufficient balance"));
+        assertEquals(new BigDecimal("120.00"), accountService.getAccountBalance("ACCBATCH1"));
+        assertEquals(new BigDecimal("0.00"), accountService.getAccountBalance("ACCBATCH2"));
+        assertEquals(4, accountService.getTransactionHistory("ACCBATCH1").size() + accountService
+                .getTransactionHistory("ACCBATCH2").size());
+    }
+}
@@ -0,0 +1,97 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Util.HibernateUtil;
+
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Two in-memory databases stand in for primary and replica. Nothing copies rows
+ * across, so the replica behaves like one that is lagging without limit.
+ */
+public class ReadReplicaTest extends TestCase {
+
+    private static final long WINDOW_MILLIS = 1000;
+
+    private static int customerCount;
+
+    private AccountService accountService;
+    private CustomerService customerService;
+
+    @Override
+    protected void setUp() {
+        System.setProperty("banking.replica.read_your_writes_ms", String.valueOf(WINDOW_MILLIS));
+        EmbeddedDatabase.use("replica_primary_db");
+        EmbeddedDatabase.useReplica("replica_db");
+        accountService = new AccountService();
+        customerService = new CustomerService();
+    }
+
+    public void testPostedAccountIsReadFromPrimaryUntilWindowPasses() throws Exception {
+        Account account = accountService.createAccount(newCustomer(), "SAVINGS");
+        accountService.deposit(account.getAccountNumber(), new BigDecimal("100.00"), "Opening");
+
+        assertEquals(0, new BigDecimal("100.00")
+                .compareTo(accountService.getAccountBalance(account.getAccountNumber())));
+        assertEquals(1, accountService.getTransactionHistory(account.getAccountNumber()).size());
+        assertNotNull(accountService.getAccountByNumber(account.getAccountNumber()));
+
+        Thread.sleep(WINDOW_MILLIS + 200);
+
+        // The replica has never seen the account
+        assertNull(accountService.getAccountBalance(account.getAccountNumber()));
+        assertTrue(accountService.getTransactionHistory(account.getAccountNumber()).isEmpty());
+        assertNull(accountService.getAccountByNumber(account.getAccountNumber()));
+    }
+
+    public void testOnlyWrittenAccountsArePinnedToPrimary() {
+        assertTrue(HibernateUtil.hasReplica());
+        assertNotSame(HibernateUtil.getSessionFactory(), HibernateUtil.getReadSessionFactory("UNTOUCHED"));
+
+        HibernateUtil.recordWrite("TOUCHED");
+        assertSame(HibernateUtil.getSessionFactory(), HibernateUtil.getReadSessionFactory("TOUCHED"));
+        assertNotSame(HibernateUtil.getSessionFactory(), HibernateUtil.getReadSessionFactory("UNTOUCHED"));
+    }
+
+    public void testCustomerListingComesFromReplica() throws Exception {
+        Customer onPrimary = newCustomer();
+        long replicaOnlyId = onPrimary.getId() + 1_000_000L;
+        try (Connection connection = DriverManager.getConnection(
+                "jdbc:h2:mem:replica_db;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+                PreparedStatement insert = connection.prepareStatement("INSERT INTO customers (id, first_name, "
+                        + "last_name, email, pan_number, aadhar_number, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            insert.setLong(1, replicaOnlyId);
+            insert.setString(2, "Replica");
+            insert.setString(3, "Only");
+            insert.setString(4, "replica.only@test.com");
+            insert.setString(5, "RPLCA9999R");
+            insert.setString(6, "999999999999");
+            insert.setTimestamp(7, Timestamp.valueOf(LocalDateTime.now()));
+            insert.executeUpdate();
+        }
+
+        boolean sawPrimary = false;
+        boolean sawReplica = false;
+        for (CustomerAccountSummary row : customerService.getCustomerSummaries(null, 100).getRows()) {
+            sawPrimary |= row.getCustomerId().equals(onPrimary.getId());
+            sawReplica |= row.getCustomerId() == replicaOnlyId;
+        }
+        assertFalse(sawPrimary);
+        assertTrue(sawReplica);
+    }
+
+    private Customer newCustomer() {
+        int n = customerCount++;
+        return customerService.createCustomer("Replica", "Customer" + n, "replica" + n + "@test.com",
+                "RPLCA" + (1000 + n) + "R", "34567890123" + n, "9876543210", "Replica Street");
+    }
+}
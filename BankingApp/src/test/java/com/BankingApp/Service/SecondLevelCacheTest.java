@@ -0,0 +1,87 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.HibernateUtil.CacheStats;
+
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+
+public class SecondLevelCacheTest extends TestCase {
+
+    private AccountService accountService;
+    private CustomerService customerService;
+
+    @Override
+    protected void setUp() {
+        EmbeddedDatabase.use();
+        accountService = new AccountService();
+        customerService = new CustomerService();
+    }
+
+    public void testRepeatedLookupsAreServedFromTheCache() {
+        Customer customer = customerService.createCustomer("Cache", "Hit", "cache.hit@test.com", "CACHE1234H",
+                "234567890111", "9876543210", "Cache Street");
+        Account account = accountService.createAccount(customer, "SAVINGS");
+
+        accountService.getAccountByNumber(account.getAccountNumber());
+        customerService.getCustomerById(customer.getId());
+        CacheStats before = HibernateUtil.getCacheStats();
+
+        accountService.getAccountByNumber(account.getAccountNumber());
+        customerService.getCustomerById(customer.getId());
+        CacheStats after = HibernateUtil.getCacheStats();
+
+        assertTrue("natural-id cache should resolve the second account lookup",
+                after.getNaturalIdHits() > before.getNaturalIdHits());
+        assertTrue("entities should come from the cache", after.getHits() > before.getHits());
+        assertTrue(after.getRegions().containsKey("accounts"));
+        assertTrue(after.getRegions().containsKey("account-natural-ids"));
+    }
+
+    public void testCustomerPagesComeFromTheQueryCacheUntilACustomerIsAdded() {
+        int rows = customerService.getCustomerSummaries(null, 1000).getRows().size();
+        CacheStats before = HibernateUtil.getCacheStats();
+
+        assertEquals(rows, customerService.getCustomerSummaries(null, 1000).getRows().size());
+        CacheStats cached = HibernateUtil.getCacheStats();
+        assertEquals(before.getQueryHits() + 1, cached.getQueryHits());
+        assertTrue(cached.getRegions().containsKey("customer-queries"));
+
+        customerService.createCustomer("Cache", "Query", "cache.query@test.com", "CACHE1234Q", "234567890444",
+                "9876543210", "Cache Street");
+        assertEquals(rows + 1, customerService.getCustomerSummaries(null, 1000).getRows().size());
+        assertEquals(cached.getQueryHits(), HibernateUtil.getCacheStats().getQueryHits());
+    }
+
+    public void testCachedAccountSeesNewBalanceAfterPostings() {
+        Customer customer = customerService.createCustomer("Cache", "Balance", "cache.balance@test.com",
+                "CACHE1234B", "234567890222", "9876543210", "Cache Street");
+        Account account = accountService.createAccount(customer, "SAVINGS");
+        String number = account.getAccountNumber();
+        accountService.getAccountByNumber(number);
+
+        accountService.deposit(number, new BigDecimal("100.00"), "first");
+        assertEquals(new BigDecimal("100.00"), accountService.getAccountByNumber(number).getBalance().toBigDecimal());
+
+        accountService.withdraw(number, new BigDecimal("40.00"), "second");
+        assertEquals(new BigDecimal("60.00"), accountService.getAccountByNumber(number).getBalance().toBigDecimal());
+        assertEquals(new BigDecimal("60.00"), customerService.getCustomerWithAccounts(customer.getId()).getAccounts().get(0)
+                .getBalance().toBigDecimal());
+    }
+
+    public void testNewAccountShowsUpInCachedCustomerAccounts() {
+        Customer customer = customerService.createCustomer("Cache", "Collection", "cache.collection@test.com",
+                "CACHE1234C", "234567890333", "9876543210", "Cache Street");
+        accountService.createAccount(customer, "SAVINGS");
+        assertEquals(1, customerService.getCustomerWithAccountsByPan("CACHE1234C").getAccounts().size());
+        assertEquals(1, customerService.getCustomerWithAccounts(customer.getId()).getAccounts().size());
+
+        accountService.createAccount(customer, "CURRENT");
+        assertEquals(2, customerService.getCustomerWithAccountsByPan("CACHE1234C").getAccounts().size());
+        assertEquals(2, customerService.getCustomerWithAccounts(customer.getId()).getAccounts().size());
+    }
+}
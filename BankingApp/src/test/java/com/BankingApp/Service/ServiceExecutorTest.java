@@ -0,0 +1,88 @@
+package com.BankingApp.Service;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+
+public class ServiceExecutorTest extends TestCase {
+
+    public void testRunsNoMoreThanMaxConcurrentCallsAtOnce() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        LongAccumulator peak = new LongAccumulator(Long::max, 0);
+        try (ServiceExecutor executor = new ServiceExecutor(3, 10000)) {
+            List<CompletableFuture<Integer>> calls = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                int n = i;
+                calls.add(executor.submit(() -> {
+                    peak.accumulate(running.incrementAndGet());
+                    Thread.sleep(2);
+                    running.decrementAndGet();
+                    return n;
+                }));
+            }
+            for (int i = 0; i < calls.size(); i++) {
+                assertEquals(Integer.valueOf(i), calls.get(i).get());
+            }
+            assertTrue("peak " + peak.get(), peak.get() <= 3);
+            assertEquals(50, executor.getCompletedCount());
+        }
+    }
+
+    public void testCallsOverTheTimeoutFailWithTimeoutException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (ServiceExecutor executor = new ServiceExecutor(1, 200)) {
+            // Holds the only slot until released, interrupt or not
+            CompletableFuture<Object> stuck = executor.submit(() -> {
+                while (true) {
+                    try {
+                        release.await();
+                        return null;
+                    } catch (InterruptedException ignored) {
+                    }
+                }
+            });
+            // Never gets the only slot before its deadline
+            CompletableFuture<String> waiting = executor.submit(() -> "late");
+            assertTimedOut(stuck);
+            assertTimedOut(waiting);
+            assertEquals(2, executor.getTimedOutCount());
+
+            // Once the stuck call returns, its slot is free again
+            release.countDown();
+            assertEquals("next", executor.call(() -> "next"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    public void testCallRethrowsTheOperationsException() {
+        try (ServiceExecutor executor = new ServiceExecutor(2, 10000)) {
+            try {
+                executor.call(() -> {
+                    throw new IllegalArgumentException("Insufficient balance");
+                });
+                fail("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException expected) {
+                assertEquals("Insufficient balance", expected.getMessage());
+            }
+            assertEquals(1, executor.getFailedCount());
+        }
+    }
+
+    private static void assertTimedOut(CompletableFuture<?> call) throws Exception {
+        try {
+            call.get(5, TimeUnit.SECONDS);
+            fail("Expected the call to time out");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof TimeoutException);
+        }
+    }
+}
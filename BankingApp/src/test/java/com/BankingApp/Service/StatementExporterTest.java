@@ -0,0 +1,97 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Customer;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+public class StatementExporterTest extends TestCase {
+
+    private static int customerCount;
+
+    private AccountService accountService;
+    private StatementExporter exporter;
+    private String from;
+    private String to;
+
+    @Override
+    protected void setUp() {
+        EmbeddedDatabase.use();
+        accountService = new AccountService();
+        exporter = new StatementExporter();
+
+        int n = ++customerCount;
+        Customer customer = new CustomerService().createCustomer("State", "Ment", "statement" + n + "@test.com",
+                "STMTX" + (1000 + n) + "Z", String.valueOf(567890120000L + n), "9876543210", "Statement Street");
+        from = accountService.createAccount(customer, "SAVINGS").getAccountNumber();
+        to = accountService.createAccount(customer, "CURRENT").getAccountNumber();
+
+        accountService.deposit(from, new BigDecimal("1000.00"), "Salary");
+        accountService.withdraw(from, new BigDecimal("200.00"), "Cash, ATM");
+        accountService.transfer(from, to, new BigDecimal("300.00"), "Rent");
+    }
+
+    public void testCsvStatementCarriesRunningBalance() {
+        LocalDate today = LocalDate.now();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        PeriodSummary summary = exporter.export(from, today.minusDays(1), today, StatementExporter.Format.CSV,
+                Channels.newChannel(bytes));
+
+        assertEquals(new BigDecimal("0.00"), summary.getOpeningBalance());
+        assertEquals(new BigDecimal("1000.00"), summary.getTotalCredits());
+        assertEquals(new BigDecimal("500.00"), summary.getTotalDebits());
+        assertEquals(new BigDecimal("500.00"), summary.getClosingBalance());
+        assertEquals(3, summary.getTransactionCount());
+
+        String[] lines = new String(bytes.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(6, lines.length);
+        assertEquals("date,transaction_id,type,description,debit,credit,balance", lines[0]);
+        assertEquals(today.minusDays(1) + ",,OPENING,Opening balance " + from + ",,,0.00", lines[1]);
+        assertTrue(lines[2], lines[2].endsWith(",DEPOSIT,Salary,,1000.00,1000.00"));
+        assertTrue(lines[3], lines[3].endsWith(",WITHDRAWAL,\"Cash, ATM\",200.00,,800.00"));
+        assertTrue(lines[4], lines[4].endsWith(",300.00,,500.00"));
+        assertEquals(today + ",,CLOSING,Closing balance (3 transactions),500.00,1000.00,500.00", lines[5]);
+
+        // A period before the postings has the same opening and closing balance and no rows
+        bytes.reset();
+        summary = exporter.export(from, today.minusDays(7), today.minusDays(1), StatementExporter.Format.CSV,
+                Channels.newChannel(bytes));
+        assertEquals(0, summary.getTransactionCount());
+        assertEquals(3, new String(bytes.toByteArray(), StandardCharsets.UTF_8).split("\n").length);
+
+        assertNull(exporter.export("NOSUCHACCOUNT", today, today, StatementExporter.Format.CSV,
+                Channels.newChannel(new ByteArrayOutputStream())));
+    }
+
+    public void testJsonStatementAndAllAccounts() throws Exception {
+        LocalDate today = LocalDate.now();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        exporter.export(to, today, today, StatementExporter.Format.JSON, Channels.newChannel(bytes));
+
+        String json = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(json, json.startsWith("{\"accountNumber\":\"" + to + "\",\"from\":\"" + today + "\""));
+        assertTrue(json, json.contains("\"openingBalance\":0.00,\"transactions\":["));
+        assertTrue(json, json.contains("\"credit\":300.00,\"balance\":300.00}"));
+        assertTrue(json, json.contains("\"transactionCount\":1,\"totalDebits\":0.00,\"totalCredits\":300.00,"
+                + "\"closingBalance\":300.00}"));
+
+        Path directory = Files.createTempDirectory("statements");
+        StatementExporter.Result result = exporter.exportAll(today, today, StatementExporter.Format.CSV, directory);
+        assertTrue(result.getAccounts() >= 2);
+        assertTrue(result.getTransactions() >= 4);
+
+        Path file = directory.resolve(from + "_" + today + "_" + today + ".csv");
+        assertTrue(Files.exists(file));
+        assertEquals(6, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+    }
+}
@@ -0,0 +1,146 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import junit.framework.TestCase;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SubBalanceTest extends TestCase {
+
+    private static int accounts;
+
+    private AccountService accountService;
+    private SubBalanceManager subBalances;
+
+    @Override
+    protected void setUp() {
+        EmbeddedDatabase.use();
+        accountService = new AccountService();
+        subBalances = new SubBalanceManager();
+    }
+
+    public void testConcurrentDepositsSpreadOverSlotsAndAddUp() throws Exception {
+        String accountNumber = createAccount("100.00");
+        subBalances.enable(accountNumber, 4);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> depositors = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                depositors.add(pool.submit(() -> {
+                    for (int j = 0; j < 25; j++) {
+                        accountService.deposit(accountNumber, new BigDecimal("1.00"), "Card payment");
+                    }
+                }));
+            }
+            for (Future<?> depositor : depositors) {
+                depositor.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(new BigDecimal("300.00"), accountService.getAccountBalance(accountNumber));
+        assertEquals(new BigDecimal("300.00"), accountService.getAccountByNumber(accountNumber).getBalance().toBigDecimal());
+        // The accounts row itself was never touched by the deposits
+        assertEquals(new BigDecimal("100.00"), storedBalance(accountNumber));
+        assertTrue(usedSlots(accountNumber) > 1);
+        assertEquals(200, accountService.getTransactionHistory(accountNumber).size());
+        // Each deposit's own balance_after_transaction may miss the others; the day's snapshot may not
+        assertEquals(new BigDecimal("300.00"),
+                new BalanceSnapshotService().getBalanceAsOf(accountNumber, LocalDate.now()));
+    }
+
+    public void testWithdrawalsAndTransfersDrawOnEverySlot() {
+        String accountNumber = createAccount("0.00");
+        String other = createAccount("0.00");
+        subBalances.enable(accountNumber, 4);
+        for (int i = 0; i < 4; i++) {
+            accountService.deposit(accountNumber, new BigDecimal("100.00"), "Sale");
+        }
+
+        accountService.withdraw(accountNumber, new BigDecimal("350.00"), "Payout");
+        assertEquals(new BigDecimal("50.00"), accountService.getAccountBalance(accountNumber));
+        assertEquals(new BigDecimal("50.00"), storedBalance(accountNumber));
+        assertEquals(0, usedSlots(accountNumber));
+
+        accountService.deposit(accountNumber, new BigDecimal("25.00"), "Sale");
+        accountService.transfer(accountNumber, other, new BigDecimal("75.00"), "Sweep");
+        assertEquals(new BigDecimal("0.00"), accountService.getAccountBalance(accountNumber));
+        assertEquals(new BigDecimal("75.00"), accountService.getAccountBalance(other));
+    }
+
+    public void testRebalanceAndDisableFoldSlotsIntoTheAccountRow() {
+        String accountNumber = createAccount("10.00");
+        subBalances.enable(accountNumber, 8);
+        for (int i = 0; i < 5; i++) {
+            accountService.deposit(accountNumber, new BigDecimal("2.00"), "Sale");
+        }
+
+        assertTrue(subBalances.rebalanceAll() >= 1);
+        assertEquals(new BigDecimal("20.00"), storedBalance(accountNumber));
+        assertEquals(0, usedSlots(accountNumber));
+
+        accountService.deposit(accountNumber, new BigDecimal("5.00"), "Sale");
+        subBalances.disable(accountNumber);
+        assertEquals(0, subBalances.getSlotCount(accountNumber));
+        assertEquals(new BigDecimal("25.00"), storedBalance(accountNumber));
+
+        // Back to ordinary deposits on the accounts row
+        accountService.deposit(accountNumber, new BigDecimal("5.00"), "Sale");
+        assertEquals(new BigDecimal("30.00"), storedBalance(accountNumber));
+        assertEquals(new BigDecimal("30.00"), accountService.getAccountBalance(accountNumber));
+    }
+
+    private String createAccount(String balance) {
+        int n = ++accounts;
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = session.beginTransaction();
+        Customer customer = new Customer("Hot", "Account", "hot" + n + "@test.com", "HOTAC" + (1000 + n) + "S",
+                "67890123450" + n);
+        session.persist(customer);
+        Account account = new Account("ACCHOT" + n, "CURRENT", customer);
+        account.setBalance(Money.of(new BigDecimal(balance)));
+        session.persist(account);
+        transaction.commit();
+        session.close();
+        return account.getAccountNumber();
+    }
+
+    private BigDecimal storedBalance(String accountNumber) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            return session.createQuery("SELECT a.balance FROM Account a WHERE a.accountNumber = :accountNumber",
+                    Money.class).setParameter("accountNumber", accountNumber).getSingleResult().toBigDecimal();
+        } finally {
+            session.close();
+        }
+    }
+
+    private long usedSlots(String accountNumber) {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            return session.createQuery("SELECT COUNT(s) FROM AccountSubBalance s, Account a "
+                    + "WHERE s.accountId = a.id AND a.accountNumber = :accountNumber AND s.balance > :zero", Long.class)
+                    .setParameter("accountNumber", accountNumber)
+                    .setParameter("zero", Money.ZERO)
+                    .getSingleResult();
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.BankingApp.Service;
+
+import com.BankingApp.EmbeddedDatabase;
+import com.BankingApp.Entities.Account;
+import com.BankingApp.Entities.Customer;
+import com.BankingApp.Entities.Transactions;
+import com.BankingApp.Util.HibernateUtil;
+import com.BankingApp.Util.Money;
+
+import junit.framework.TestCase;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TransactionHistoryPageTest extends TestCase {
+
+    private static final int ROWS = 47;
+
+    private static boolean seeded;
+
+    private AccountService accountService;
+
+    @Override
+    protected void setUp() {
+        EmbeddedDatabase.use();
+        accountService = new AccountService();
+        if (!seeded) {
+            seed();
+            seeded = true;
+        }
+    }
+
+    private void seed() {
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        Transaction transaction = session.beginTransaction();
+        Customer customer = new Customer("History", "Test", "history@test.com", "HISTO1234T", "234567890123");
+        session.persist(customer);
+        Account account = new Account("ACCHIST1", "SAVINGS", customer);
+        session.persist(account);
+        // Every third row shares its timestamp with the next ones so pages have to break ties on id
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < ROWS; i++) {
+            Transactions row = new Transactions("TXNHIST" + i, "DEPOSIT", Money.of(BigDecimal.ONE), "row " + i, account);
+            row.setTransactionDate(start.plusMinutes(i / 3));
+            session.persist(row);
+        }
+        transaction.commit();
+        session.close();
+    }
+
+    public void testPagesCoverTheHistoryInOrderWithoutGapsOrRepeats() {
+        List<String> paged = new ArrayList<>();
+        TransactionPage page = accountService.getTransactionHistoryPage("ACCHIST1", null, 10);
+        int pages = 1;
+        while (true) {
+            assertTrue(page.getTransactions().size() <= 10);
+            for (Transactions t : page.getTransactions()) {
+                paged.add(t.getTransactionId());
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+            page = accountService.getTransactionHistoryPage("ACCHIST1", page.getNextCursor(), 10);
+            pages++;
+        }
+
+        assertEquals(5, pages);
+        List<String> expected = accountService.getTransactionHistory("ACCHIST1").stream()
+                .map(Transactions::getTransactionId).collect(Collectors.toList());
+        assertEquals(ROWS, expected.size());
+        assertEquals(expected, paged);
+    }
+
+    public void testExactMultipleOfPageSizeHasNoTrailingEmptyPage() {
+        TransactionPage page = accountService.getTransactionHistoryPage("ACCHIST1", null, ROWS);
+        assertEquals(ROWS, page.getTransactions().size());
+        assertFalse(page.hasNext());
+    }
+
+    public void testStreamReturnsTheSameOrder() {
+        List<String> expected = accountService.getTransactionHistory("ACCHIST1").stream()
+                .map(Transactions::getTransactionId).collect(Collectors.toList());
+        try (Stream<Transactions> stream = accountService.streamTransactionHistory("ACCHIST1")) {
+            assertEquals(expected, stream.map(Transactions::getTransactionId).collect(Collectors.toList()));
+        }
+    }
+
+    public void testUnknownAccountGivesAnEmptyPage() {
+        TransactionPage page = accountService.getTransactionHistoryPage("ACCNOPE", null, 10);
+        assertTrue(page.isEmpty());
+        assertFalse(page.hasNext());
+    }
+}
@@ -0,0 +1,44 @@
+package com.BankingApp.Util;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class BloomFilterTest extends TestCase {
+
+    public void testPutHashesAreAlwaysFoundAndOthersRarely() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        Random random = new Random(42);
+        long[] added = new long[10000];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = random.nextLong();
+            filter.put(added[i]);
+        }
+        for (long hash : added) {
+            assertTrue(filter.mightContain(hash));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContain(random.nextLong())) {
+                falsePositives++;
+            }
+        }
+        // 1% expected; allow for chance
+        assertTrue("false positives: " + falsePositives, falsePositives < 2000);
+    }
+
+    public void testLongHashSetGrowsAndKeepsZero() {
+        LongHashSet set = new LongHashSet(4);
+        for (long i = -500; i <= 500; i++) {
+            assertTrue(set.add(i * 7919));
+        }
+        assertFalse(set.add(0));
+        assertFalse(set.add(7919));
+        assertEquals(1001, set.size());
+        for (long i = -500; i <= 500; i++) {
+            assertTrue(set.contains(i * 7919));
+        }
+        assertFalse(set.contains(1));
+    }
+}
@@ -0,0 +1,74 @@
+package com.BankingApp.Util;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class IdGeneratorTest extends TestCase {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 250000;
+
+    public void testIdsAreUniqueAcrossThreads() throws Exception {
+        IdGenerator generator = new IdGenerator(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                long[] ids = new long[IDS_PER_THREAD];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generator.nextId();
+                    if (i > 0) {
+                        assertTrue("ids must increase within a thread", ids[i] > ids[i - 1]);
+                    }
+                }
+                return ids;
+            }));
+        }
+
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            System.arraycopy(futures.get(t).get(), 0, all, t * IDS_PER_THREAD, IDS_PER_THREAD);
+        }
+        executor.shutdown();
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertTrue("duplicate id " + all[i], all[i] != all[i - 1]);
+        }
+        assertTrue(all[0] > 0);
+    }
+
+    public void testNodesNeverCollide() {
+        IdGenerator first = new IdGenerator(1);
+        IdGenerator second = new IdGenerator(2);
+        long[] ids = new long[20000];
+        for (int i = 0; i < ids.length; i += 2) {
+            ids[i] = first.nextId();
+            ids[i + 1] = second.nextId();
+        }
+        Arrays.sort(ids);
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i] != ids[i - 1]);
+        }
+    }
+
+    public void testFormattedIdsFitTheirColumns() {
+        IdGenerator generator = new IdGenerator(1023);
+        assertTrue(generator.nextAccountNumber().length() <= 20);
+        assertTrue(generator.nextTransactionId().length() <= 50);
+    }
+
+    public void testRejectsOutOfRangeNodeId() {
+        try {
+            new IdGenerator(1024);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
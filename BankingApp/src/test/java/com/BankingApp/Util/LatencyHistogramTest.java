@@ -0,0 +1,47 @@
+package com.BankingApp.Util;
+
+import junit.framework.TestCase;
+
+public class LatencyHistogramTest extends TestCase {
+
+    public void testPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500500L * 1000, histogram.getSumNanos());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertWithin(500_000, histogram.getPercentileNanos(0.5));
+        assertWithin(990_000, histogram.getPercentileNanos(0.99));
+        assertWithin(999_000, histogram.getPercentileNanos(0.999));
+        // Never above the largest value recorded
+        assertEquals(1_000_000, histogram.getPercentileNanos(1.0));
+    }
+
+    public void testSmallAndHugeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(0.99));
+
+        histogram.record(-5);
+        histogram.record(7);
+        assertEquals(0, histogram.getPercentileNanos(0.5));
+        assertEquals(7, histogram.getPercentileNanos(0.99));
+
+        histogram.record(Long.MAX_VALUE);
+        assertEquals((1L << 41) - 1, histogram.getMaxNanos());
+        assertEquals((1L << 41) - 1, histogram.getPercentileNanos(0.999));
+
+        for (long value = 1; value < 1L << 41; value = value * 3 + 1) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(LatencyHistogram.highestValueOf(bucket) >= value);
+            assertTrue(bucket == 0 || LatencyHistogram.highestValueOf(bucket - 1) < value);
+        }
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("expected about " + expected + " but was " + actual,
+                actual >= expected && actual <= expected + expected / 32);
+    }
+}
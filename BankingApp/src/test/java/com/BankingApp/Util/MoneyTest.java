@@ -0,0 +1,61 @@
+package com.BankingApp.Util;
+
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+
+public class MoneyTest extends TestCase {
+
+    private static final Money MAX = Money.ofPaise(Money.MAX_PAISE);
+
+    public void testArithmeticIsExactInPaise() {
+        Money balance = Money.of(new BigDecimal("0.10")).plus(Money.of(new BigDecimal("0.20")));
+        assertEquals(Money.of(new BigDecimal("0.30")), balance);
+        assertEquals(30, balance.getPaise());
+        assertEquals(new BigDecimal("0.30"), balance.toBigDecimal());
+        assertEquals("-0.05", Money.ofPaise(25).minus(Money.ofPaise(30)).toString());
+        assertTrue(Money.ofPaise(1).isPositive());
+        assertFalse(Money.ZERO.isPositive());
+        assertTrue(Money.ofPaise(99).isLessThan(Money.ofPaise(100)));
+    }
+
+    public void testExtraDecimalsAreRoundedLikeTheDatabaseColumn() {
+        assertEquals(1001, Money.of(new BigDecimal("10.005")).getPaise());
+        assertEquals(1000, Money.of(new BigDecimal("10.004")).getPaise());
+        assertEquals(-1001, Money.of(new BigDecimal("-10.005")).getPaise());
+        assertEquals(1000, Money.of(new BigDecimal("10")).getPaise());
+    }
+
+    public void testValuesBeyondTheColumnAreRejected() {
+        assertEquals(new BigDecimal("9999999999999.99"), MAX.toBigDecimal());
+        try {
+            MAX.plus(Money.ofPaise(1));
+            fail();
+        } catch (ArithmeticException expected) {
+        }
+        try {
+            Money.ofPaise(-Money.MAX_PAISE).minus(Money.ofPaise(1));
+            fail();
+        } catch (ArithmeticException expected) {
+        }
+        try {
+            Money.of(new BigDecimal("10000000000000.00"));
+            fail();
+        } catch (ArithmeticException expected) {
+        }
+        // Would wrap around a long without the range check
+        try {
+            Money.of(new BigDecimal("92233720368547758.08"));
+            fail();
+        } catch (ArithmeticException expected) {
+        }
+    }
+
+    public void testConverterRoundTrips() {
+        MoneyConverter converter = new MoneyConverter();
+        assertEquals(new BigDecimal("1234.56"), converter.convertToDatabaseColumn(Money.ofPaise(123456)));
+        assertEquals(Money.ofPaise(123456), converter.convertToEntityAttribute(new BigDecimal("1234.56")));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
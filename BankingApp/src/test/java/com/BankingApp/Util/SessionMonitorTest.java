@@ -0,0 +1,111 @@
+package com.BankingApp.Util;
+
+import com.BankingApp.EmbeddedDatabase;
+
+import junit.framework.TestCase;
+
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+public class SessionMonitorTest extends TestCase {
+
+    @Override
+    protected void setUp() {
+        System.setProperty("banking.sessions.slow_query_ms", "100");
+        System.setProperty("banking.sessions.log_bind_values", "true");
+        System.setProperty("banking.sessions.leak_threshold_ms", "1000");
+        EmbeddedDatabase.use();
+    }
+
+    public void testOpenSessionsAreTrackedWithWhereTheyWereOpened() {
+        long sessions = SessionMonitor.getSessionTimes().getCount();
+        long transactions = SessionMonitor.getTransactionTimes().getCount();
+
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        StatelessSession stateless = HibernateUtil.getSessionFactory().openStatelessSession();
+        try {
+            Transaction transaction = session.beginTransaction();
+            session.createNativeQuery("SELECT 1", Integer.class).getSingleResult();
+
+            SessionMonitor.OpenSession open = findOpenedHere(SessionMonitor.getOpenSessions(0));
+            assertNotNull("session opened by this test not tracked", open);
+            assertTrue(open.getConnectionHeldMillis() >= 0);
+            assertEquals(1, open.getStatements());
+            transaction.commit();
+        } finally {
+            session.close();
+            stateless.close();
+        }
+
+        assertNull(findOpenedHere(SessionMonitor.getOpenSessions(0)));
+        assertEquals(sessions + 2, SessionMonitor.getSessionTimes().getCount());
+        assertEquals(transactions + 1, SessionMonitor.getTransactionTimes().getCount());
+        assertTrue(SessionMonitor.getConnectionHoldTimes().getCount() > 0);
+    }
+
+    public void testLeakedSessionsAreReportedOnceWithWhereTheyWereOpened() throws InterruptedException {
+        long leaks = SessionMonitor.getLeaksReported();
+        PrintStream err = System.err;
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        System.setErr(new PrintStream(report, true));
+        try {
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (SessionMonitor.getLeaksReported() == leaks && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+        } finally {
+            System.setErr(err);
+            session.close();
+        }
+
+        assertEquals(leaks + 1, SessionMonitor.getLeaksReported());
+        String message = report.toString();
+        assertTrue(message, message.startsWith("Possible session leak: OpenSession{thread='"
+                + Thread.currentThread().getName() + "'"));
+        assertTrue(message, message.contains("\tat " + getClass().getName()
+                + ".testLeakedSessionsAreReportedOnceWithWhereTheyWereOpened("));
+        // No longer tracked once reported
+        assertTrue(SessionMonitor.getOpenSessions(0).isEmpty());
+    }
+
+    public void testSlowStatementsAreLoggedWithBindValues() {
+        long slow = SlowQueryLog.getSlowQueryCount();
+        long delay = AppConfig.getLong("banking.sessions.slow_query_ms", 0) + 50;
+
+        Session session = HibernateUtil.getSessionFactory().openSession();
+        try {
+            Transaction transaction = session.beginTransaction();
+            session.createNativeMutationQuery("CREATE ALIAS IF NOT EXISTS SLEEP_MS FOR 'java.lang.Thread.sleep'")
+                    .executeUpdate();
+            transaction.commit();
+            session.createNativeQuery("SELECT SLEEP_MS(?1)", Object.class).setParameter(1, delay).getSingleResult();
+            session.createNativeQuery("SELECT 1", Integer.class).getSingleResult();
+        } finally {
+            session.close();
+        }
+
+        assertEquals(slow + 1, SlowQueryLog.getSlowQueryCount());
+        SlowQueryLog.SlowQuery query = SlowQueryLog.getRecent().get(0);
+        assertEquals("SELECT SLEEP_MS(?)", query.getSql());
+        assertEquals("[" + delay + "]", query.getParameters());
+        assertTrue(query.getElapsedMillis() >= delay - 1);
+        assertEquals(Thread.currentThread().getName(), query.getThreadName());
+    }
+
+    private static SessionMonitor.OpenSession findOpenedHere(List<SessionMonitor.OpenSession> sessions) {
+        for (SessionMonitor.OpenSession session : sessions) {
+            for (StackTraceElement frame : session.getOpenedAt()) {
+                if (frame.getMethodName().equals("testOpenSessionsAreTrackedWithWhereTheyWereOpened")) {
+                    return session.getThreadName().equals(Thread.currentThread().getName()) ? session : null;
+                }
+            }
+        }
+        return null;
+    }
+}